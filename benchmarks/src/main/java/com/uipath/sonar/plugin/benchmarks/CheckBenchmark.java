@@ -0,0 +1,95 @@
+package com.uipath.sonar.plugin.benchmarks;
+
+import com.uipath.sonar.plugin.AbstractCheck;
+import com.uipath.sonar.plugin.AbstractProjectCheck;
+import com.uipath.sonar.plugin.AbstractWorkflowCheck;
+import com.uipath.sonar.plugin.CheckExecutor;
+import com.uipath.sonar.plugin.CheckRepository;
+import com.uipath.sonar.plugin.uipath.Workflow;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the execute function of each check over every workflow of a parsed project, and a single-threaded
+ * CheckExecutor run of every workflow check. Issues reported by the previous invocation are cleared first, so that
+ * identical issues are not dropped as duplicates.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CheckBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class CheckState {
+
+        @Param({
+            "ArgumentConventionCheck",
+            "AvoidChangingCurrentDirectory",
+            "AvoidGetPasswordCheck",
+            "AvoidLogMessageCheck",
+            "EmptyCatchCheck",
+            "InvokeWorkflowFileArgumentCheck",
+            "InvokeWorkflowFileExistsCheck",
+            "InvokeWorkflowFilePathCheck",
+            "ValidateMainWorkflowCheck",
+            "VariableConventionCheck",
+            "WorkflowAnnotationCheck",
+            "WorkflowConventionCheck"
+        })
+        public String check;
+
+        AbstractCheck instance;
+
+        @Setup(Level.Trial)
+        public void setUp(){
+            List<AbstractCheck> checks = new ArrayList<>(CheckRepository.getAllWorkflowChecks());
+            checks.addAll(CheckRepository.getAllProjectChecks());
+
+            instance = checks.stream()
+                .filter(candidate -> candidate.getClass().getSimpleName().equals(check))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown check '" + check + "'."));
+        }
+    }
+
+    @Benchmark
+    public int executeCheck(ProjectState state, CheckState checkState){
+        state.project.getIssueSink().clear();
+
+        if(checkState.instance instanceof AbstractProjectCheck){
+            ((AbstractProjectCheck) checkState.instance).execute(state.project);
+        }
+        else {
+            AbstractWorkflowCheck check = (AbstractWorkflowCheck) checkState.instance;
+
+            for(Workflow workflow : state.project.getWorkflows()){
+                check.execute(state.project, workflow);
+            }
+        }
+
+        return state.project.getIssueSink().getCount();
+    }
+
+    @Benchmark
+    public int executeAllWorkflowChecks(ProjectState state){
+        state.project.getIssueSink().clear();
+        new CheckExecutor(1).execute(state.project, CheckRepository.getAllWorkflowChecks());
+        return state.project.getIssueSink().getCount();
+    }
+}
@@ -0,0 +1,64 @@
+package com.uipath.sonar.plugin.benchmarks;
+
+import com.uipath.sonar.plugin.uipath.Project;
+import com.uipath.sonar.plugin.uipath.Workflow;
+import com.uipath.sonar.plugin.uipath.WorkflowArgument;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures loading workflows: reading their signature, parsing their documents and loading a whole Project.
+ * Each operation covers every workflow of the generated project.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParsingBenchmark {
+
+    /**
+     * Workflow construction, which reads the x:Members header of the file.
+     */
+    @Benchmark
+    public void constructWorkflows(ProjectState state, Blackhole blackhole) throws Exception {
+        for(int i = 0; i < state.generated.getWorkflowCount(); i++){
+            blackhole.consume(new Workflow(state.project, state.generated.getWorkflowFile(i)));
+        }
+    }
+
+    @Benchmark
+    public void loadArguments(ProjectState state, Blackhole blackhole){
+        for(Workflow workflow : state.project.getWorkflows()){
+            blackhole.consume(WorkflowArgument.LoadFromWorkflow(workflow));
+        }
+    }
+
+    /**
+     * Project construction: finding the workflow files, reading project.json and every workflow signature.
+     */
+    @Benchmark
+    public Project loadProject(ProjectState state) throws Exception {
+        return new Project(state.generated.getDirectory());
+    }
+
+    /**
+     * Project construction followed by parsing every workflow document, with its ElementIndex and positions.
+     */
+    @Benchmark
+    public void loadProjectAndParseDocuments(ProjectState state, Blackhole blackhole) throws Exception {
+        Project project = new Project(state.generated.getDirectory());
+
+        for(Workflow workflow : project.getWorkflows()){
+            blackhole.consume(workflow.getXamlDocument());
+        }
+    }
+}
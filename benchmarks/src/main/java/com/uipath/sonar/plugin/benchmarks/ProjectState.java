@@ -0,0 +1,50 @@
+package com.uipath.sonar.plugin.benchmarks;
+
+import com.uipath.sonar.plugin.testprojects.SyntheticProject;
+import com.uipath.sonar.plugin.uipath.Project;
+import com.uipath.sonar.plugin.uipath.Workflow;
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.nio.file.Files;
+
+/**
+ * ProjectState generates a SyntheticProject once per trial, and loads it with every workflow document parsed, for
+ * benchmarks that measure what happens after loading. The size and the rate of rule violations are set with
+ * -p workflows=... and -p violationRate=...
+ */
+@State(Scope.Benchmark)
+public class ProjectState {
+
+    @Param({"10", "100", "1000"})
+    public int workflows;
+
+    @Param({"0.1"})
+    public double violationRate;
+
+    public SyntheticProject generated;
+    public Project project;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        generated = SyntheticProject.builder()
+            .workflows(workflows)
+            .violationRate(violationRate)
+            .generate(Files.createTempDirectory("uipath-benchmark").toFile());
+        project = new Project(generated.getDirectory());
+
+        for(Workflow workflow : project.getWorkflows()){
+            workflow.getXamlDocument();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        FileUtils.deleteDirectory(generated.getDirectory());
+    }
+}
@@ -0,0 +1,42 @@
+package com.uipath.sonar.plugin.benchmarks;
+
+import com.uipath.sonar.plugin.uipath.Workflow;
+import com.uipath.sonar.plugin.uipath.XamlNamespaces;
+import com.uipath.sonar.plugin.uipath.XamlQuery;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares finding elements with a compiled XamlQuery and with the ElementIndex, over parsed documents.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class QueryBenchmark {
+
+    private static final XamlQuery INVOKE_WORKFLOW_FILE = XamlQuery.compile("//ui:InvokeWorkflowFile");
+
+    @Benchmark
+    public void xpathQuery(ProjectState state, Blackhole blackhole){
+        for(Workflow workflow : state.project.getWorkflows()){
+            blackhole.consume(INVOKE_WORKFLOW_FILE.selectNodes(workflow));
+        }
+    }
+
+    @Benchmark
+    public void elementIndex(ProjectState state, Blackhole blackhole){
+        for(Workflow workflow : state.project.getWorkflows()){
+            blackhole.consume(workflow.getElementIndex().getElements(XamlNamespaces.uipath("InvokeWorkflowFile")));
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.uipath.sonar.plugin;
+
+import com.uipath.sonar.plugin.uipath.Project;
+import com.uipath.sonar.plugin.uipath.Workflow;
+import org.dom4j.Element;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * AbstractActivityCheck is the base class for workflow checks that only look at specific activities (elements).
+ * Instead of querying the whole document, the check declares the elements it is interested in with subscribe(),
+ * and ActivityVisitor hands it every matching element, in document order, from the ElementIndex built when the
+ * workflow is parsed.
+ * Be sure to call super() in any derived classes to initialize the Rule metadata.
+ */
+public abstract class AbstractActivityCheck extends AbstractWorkflowCheck {
+
+    protected AbstractActivityCheck(){
+        super();
+    }
+
+    @Override
+    public Set<WorkflowData> getRequiredData(){
+        return EnumSet.of(WorkflowData.DOCUMENT);
+    }
+
+    /**
+     * Declares the elements this check visits. Called once, when the visitor is created.
+     */
+    public abstract ActivitySubscription subscribe();
+
+    /**
+     * Called once per workflow with the elements matching the subscription, possibly none.
+     */
+    public abstract void visit(Project project, Workflow workflow, List<Element> elements);
+
+    @Override
+    public void execute(Project project, Workflow workflow){
+        ActivityVisitor visitor = new ActivityVisitor(Collections.singletonList(this));
+        visit(project, workflow, visitor.collect(workflow).get(0));
+    }
+}
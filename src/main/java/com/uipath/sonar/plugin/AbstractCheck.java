@@ -1,6 +1,9 @@
 package com.uipath.sonar.plugin;
 
-import org.sonar.api.batch.sensor.SensorContext;
+import com.uipath.sonar.plugin.naming.NamingConventions;
+import com.uipath.sonar.plugin.uipath.Project;
+import com.uipath.sonar.plugin.uipath.Workflow;
+import org.dom4j.Element;
 import org.sonar.api.config.PropertyDefinition;
 import org.sonar.api.rule.RuleKey;
 import org.sonar.api.utils.AnnotationUtils;
@@ -9,33 +12,77 @@ import org.sonar.api.utils.log.Loggers;
 import org.sonar.check.Rule;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Pattern;
 
 /**
  * AbstractCheck is the base class for AbstractProjectCheck and AbstractWorkflowCheck.
  * Be sure to call super() in any derived classes to initialize the Rule metadata.
+ *
+ * A single check instance may be executed on several workflows at the same time, so checks should not keep any
+ * per-workflow state in fields.
+ *
+ * Properties are read from the AnalysisConfiguration snapshot given by the UiPathSensor, or from the default values of
+ * defineProperties() when the check runs outside of an analysis. Rule parameters of the quality profile, see
+ * getRuleParameters(), take precedence over the project settings.
  */
 public class AbstractCheck {
 
     private static final Logger LOG = Loggers.get(AbstractCheck.class);
 
-    private SensorContext sensorContext;
     private Rule rule;
     private RuleKey ruleKey;
 
-    private HashMap<String, String> propertyOverrides;
+    private volatile AnalysisConfiguration configuration;
 
     protected AbstractCheck(){
         rule = AnnotationUtils.getAnnotation(this.getClass(), Rule.class);
         ruleKey = RuleKey.of(getRepositoryKeyString(), getRuleKeyString());
-        propertyOverrides = new HashMap<>();
     }
 
     public List<PropertyDefinition> defineProperties() {
         return new ArrayList<>();
     }
 
+    /**
+     * Declares what the check reads from workflows. The UiPathSensor skips loading data no active check needs: when no
+     * check reads documents, no workflow is parsed. Defaults to everything, override it to declare less.
+     */
+    public Set<WorkflowData> getRequiredData(){
+        return EnumSet.allOf(WorkflowData.class);
+    }
+
+    /**
+     * Returns the values of properties set by the parameters of the rule in the quality profile, by property key.
+     * Parameters are bound to the RuleProperty fields of the check when the UiPathSensor creates it from the active
+     * rules. Blank parameters are left out, so the property keeps its project setting.
+     */
+    public Map<String, String> getRuleParameters(){
+        return Collections.emptyMap();
+    }
+
+    /**
+     * Builds the result of getRuleParameters from property keys, each followed by the value of its rule parameter.
+     */
+    protected static Map<String, String> ruleParameters(String... keysAndValues){
+        Map<String, String> parameters = new LinkedHashMap<>();
+
+        for(int i = 0; i + 1 < keysAndValues.length; i += 2){
+            String value = keysAndValues[i + 1];
+            if(value != null && !value.trim().isEmpty()){
+                parameters.put(keysAndValues[i], value);
+            }
+        }
+
+        return parameters;
+    }
+
     public Rule getRule(){
         return rule;
     }
@@ -52,8 +99,16 @@ public class AbstractCheck {
         return ruleKey;
     }
 
-    public void SetContext(SensorContext context){
-        this.sensorContext = context;
+    public void setConfiguration(AnalysisConfiguration configuration){
+        this.configuration = configuration;
+    }
+
+    public AnalysisConfiguration getAnalysisConfiguration(){
+        if(configuration == null){
+            configuration = AnalysisConfiguration.defaults(this);
+        }
+
+        return configuration;
     }
 
     /**
@@ -62,20 +117,25 @@ public class AbstractCheck {
      * @param value The overwritten value.
      */
     public void overwriteProperty(String key, String value){
-        propertyOverrides.put(key, value);
+        configuration = getAnalysisConfiguration().with(key, value);
     }
 
-    protected String getPropertyValue(String key){
+    /**
+     * Describes the configuration the check runs with: its rule key and the current value of every property it
+     * defines. Stored check results are only reused for the same configuration.
+     */
+    public String getConfiguration(){
+        StringBuilder configuration = new StringBuilder(getRuleKey().toString());
 
-        if(propertyOverrides.containsKey(key)){
-            return propertyOverrides.get(key);
+        for(PropertyDefinition property : defineProperties()){
+            configuration.append('\n').append(property.key()).append('=').append(getPropertyValue(property.key()));
         }
 
-        try{
-            return sensorContext.config().get(key).orElse("");
-        } catch (NullPointerException ex){
-            return null;
-        }
+        return configuration.toString();
+    }
+
+    protected String getPropertyValue(String key){
+        return getAnalysisConfiguration().get(key).orElse(null);
     }
 
     protected String getPropertyValue(String key, String defaultValue){
@@ -83,7 +143,43 @@ public class AbstractCheck {
         return value == null ? defaultValue : value;
     }
 
+    /**
+     * Returns the compiled pattern of a REGULAR_EXPRESSION property, or empty if it is blank or invalid.
+     */
+    protected Optional<Pattern> getPattern(String key){
+        return getAnalysisConfiguration().getPattern(key);
+    }
+
+    /**
+     * Returns the patterns of REGULAR_EXPRESSION properties, compiled into a single linear-time matcher.
+     */
+    protected NamingConventions getNamingConventions(List<String> keys){
+        return getAnalysisConfiguration().getNamingConventions(keys);
+    }
+
+    /**
+     * Reports an issue on a workflow or a project, to the IssueSink of its Project.
+     */
     protected void reportIssue(HasInputFile hasInputFile, String message){
-        Issues.report(hasInputFile, getRuleKey(), message);
+        issueSinkOf(hasInputFile).report(hasInputFile, getRuleKey(), message);
+    }
+
+    /**
+     * Reports an issue on an element of a workflow document, at the line of its start tag. The position was recorded
+     * when the document was parsed, so the file is not read again. If the element is not part of the current document
+     * of the workflow, the issue is reported on the whole file.
+     */
+    protected void reportIssue(Workflow workflow, Element element, String message){
+        workflow.getProject().getIssueSink().report(workflow, getRuleKey(), message, workflow.getLine(element), workflow.getColumn(element));
+    }
+
+    private static IssueSink issueSinkOf(HasInputFile hasInputFile){
+        if(hasInputFile instanceof Workflow){
+            return ((Workflow) hasInputFile).getProject().getIssueSink();
+        }
+        if(hasInputFile instanceof Project){
+            return ((Project) hasInputFile).getIssueSink();
+        }
+        throw new IllegalArgumentException("Issues can only be reported on a workflow or a project.");
     }
 }
@@ -27,7 +27,7 @@ public abstract class AbstractProjectCheck extends AbstractCheck {
         catch (XPathException e) {
             // This will catch errors where XPath queries are ran in a document that doesn't contain a namespace used in the XPath query.
             if(e.getMessage().contains("XPath expression uses unbound namespace prefix")){
-                LOG.debug("Encountered XPath exception when executing check '" + getRule().name() + "'. This may or may not be an issue.", e);
+                LOG.debug("Encountered XPath exception when executing check '" + getRule().name() + "'. This may or may not be an issue: " + e.getMessage());
             }
             else {
                 throw e;
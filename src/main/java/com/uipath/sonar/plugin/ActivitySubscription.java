@@ -0,0 +1,39 @@
+package com.uipath.sonar.plugin;
+
+import org.dom4j.QName;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * ActivitySubscription describes the elements an AbstractActivityCheck wants to visit: either specific element QNames,
+ * or every element belonging to a namespace.
+ */
+public final class ActivitySubscription {
+
+    private final Set<QName> elements;
+    private final Set<String> namespaces;
+
+    private ActivitySubscription(Set<QName> elements, Set<String> namespaces){
+        this.elements = Collections.unmodifiableSet(elements);
+        this.namespaces = Collections.unmodifiableSet(namespaces);
+    }
+
+    public static ActivitySubscription forElements(QName... qNames){
+        return new ActivitySubscription(new HashSet<>(Arrays.asList(qNames)), new HashSet<>());
+    }
+
+    public static ActivitySubscription forNamespaces(String... namespaceUris){
+        return new ActivitySubscription(new HashSet<>(), new HashSet<>(Arrays.asList(namespaceUris)));
+    }
+
+    public Set<QName> getElements(){
+        return elements;
+    }
+
+    public Set<String> getNamespaces(){
+        return namespaces;
+    }
+}
@@ -0,0 +1,53 @@
+package com.uipath.sonar.plugin;
+
+import com.uipath.sonar.plugin.uipath.ElementIndex;
+import com.uipath.sonar.plugin.uipath.Workflow;
+import org.dom4j.Element;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ActivityVisitor gives each AbstractActivityCheck the elements of a workflow document it subscribed to. The elements
+ * are looked up in the ElementIndex of the document, which is built when the document is parsed, so the document is
+ * not walked again whatever the number of checks.
+ *
+ * A visitor is immutable once created and can be shared between threads.
+ */
+public class ActivityVisitor {
+
+    private final List<AbstractActivityCheck> checks;
+    private final List<ActivitySubscription> subscriptions = new ArrayList<>();
+
+    public ActivityVisitor(List<AbstractActivityCheck> checks){
+        this.checks = checks;
+
+        for(AbstractActivityCheck check : checks){
+            subscriptions.add(check.subscribe());
+        }
+    }
+
+    public List<AbstractActivityCheck> getChecks(){
+        return checks;
+    }
+
+    /**
+     * Collects the elements each check subscribed to.
+     * @param workflow The workflow whose elements are collected.
+     * @return One list of elements per check, in the order of the checks. Elements are in document order.
+     */
+    public List<List<Element>> collect(Workflow workflow){
+
+        List<List<Element>> matches = new ArrayList<>(checks.size());
+
+        if(!checks.isEmpty()){
+            ElementIndex index = workflow.getElementIndex();
+
+            for(ActivitySubscription subscription : subscriptions){
+                matches.add(index.getElements(subscription.getElements(), subscription.getNamespaces()));
+            }
+        }
+
+        return matches;
+    }
+}
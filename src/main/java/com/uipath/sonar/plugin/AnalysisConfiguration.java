@@ -0,0 +1,201 @@
+package com.uipath.sonar.plugin;
+
+import com.uipath.sonar.plugin.naming.NamingConventions;
+import org.sonar.api.PropertyType;
+import org.sonar.api.config.Configuration;
+import org.sonar.api.config.PropertyDefinition;
+import org.sonar.api.utils.log.Logger;
+import org.sonar.api.utils.log.Loggers;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * AnalysisConfiguration is an immutable snapshot of the properties defined by the checks, taken once per analysis by
+ * the UiPathSensor.
+ *
+ * Properties of type REGULAR_EXPRESSION are compiled when the snapshot is taken. An invalid expression is logged
+ * once, and the property then has no pattern: checks skip it instead of failing on every workflow. A blank
+ * expression has no pattern either, which disables it. INTEGER and BOOLEAN properties are validated the same way.
+ *
+ * Unset properties take the default value of their PropertyDefinition.
+ *
+ * Naming convention checks evaluate their patterns through NamingConventions, compiled once per snapshot.
+ */
+public final class AnalysisConfiguration {
+
+    private static final Logger LOG = Loggers.get(AnalysisConfiguration.class);
+
+    private static final AnalysisConfiguration EMPTY =
+        new AnalysisConfiguration(Collections.emptyMap(), Collections.emptyMap(), Collections.emptyMap());
+
+    private final Map<String, String> values;
+    private final Map<String, PropertyType> types;
+    private final Map<String, Object> typedValues;
+    private final Map<List<String>, NamingConventions> namingConventions = new ConcurrentHashMap<>();
+
+    private AnalysisConfiguration(Map<String, String> values, Map<String, PropertyType> types, Map<String, Object> typedValues){
+        this.values = Collections.unmodifiableMap(values);
+        this.types = Collections.unmodifiableMap(types);
+        this.typedValues = Collections.unmodifiableMap(typedValues);
+    }
+
+    public static AnalysisConfiguration empty(){
+        return EMPTY;
+    }
+
+    /**
+     * Takes a snapshot of every property defined by the given checks.
+     */
+    public static AnalysisConfiguration load(Configuration configuration, Collection<? extends AbstractCheck> checks){
+        Map<String, String> values = new HashMap<>();
+        Map<String, PropertyType> types = new HashMap<>();
+
+        for(AbstractCheck check : checks){
+            for(PropertyDefinition property : check.defineProperties()){
+                values.put(property.key(), configuration.get(property.key()).orElse(property.defaultValue()));
+                types.put(property.key(), property.type());
+            }
+        }
+
+        return new AnalysisConfiguration(values, types, convert(values, types));
+    }
+
+    /**
+     * Takes a snapshot of the default values of the properties defined by a check.
+     */
+    public static AnalysisConfiguration defaults(AbstractCheck check){
+        Map<String, String> values = new HashMap<>();
+        Map<String, PropertyType> types = new HashMap<>();
+
+        for(PropertyDefinition property : check.defineProperties()){
+            values.put(property.key(), property.defaultValue());
+            types.put(property.key(), property.type());
+        }
+
+        return new AnalysisConfiguration(values, types, convert(values, types));
+    }
+
+    /**
+     * Returns a copy of this snapshot, where a property has another value. Only the overwritten property is converted
+     * again.
+     */
+    public AnalysisConfiguration with(String key, String value){
+        return with(Collections.singletonMap(key, value));
+    }
+
+    /**
+     * Returns a copy of this snapshot where several properties have other values, or this snapshot if there are none.
+     * Only the overwritten properties are converted again.
+     */
+    public AnalysisConfiguration with(Map<String, String> overrides){
+        if(overrides.isEmpty()){
+            return this;
+        }
+
+        Map<String, String> newValues = new HashMap<>(values);
+        newValues.putAll(overrides);
+
+        Map<String, Object> newTypedValues = new HashMap<>(typedValues);
+        newTypedValues.keySet().removeAll(overrides.keySet());
+        newTypedValues.putAll(convert(overrides, types));
+
+        return new AnalysisConfiguration(newValues, types, newTypedValues);
+    }
+
+    public Optional<String> get(String key){
+        return Optional.ofNullable(values.get(key));
+    }
+
+    /**
+     * Returns the compiled pattern of a REGULAR_EXPRESSION property. This is empty when the property is blank or is not
+     * a valid regular expression.
+     */
+    public Optional<Pattern> getPattern(String key){
+        Object value = typedValues.get(key);
+        return value instanceof Pattern ? Optional.of((Pattern)value) : Optional.empty();
+    }
+
+    /**
+     * Returns the patterns of REGULAR_EXPRESSION properties compiled into a single linear-time matcher. Patterns are in
+     * the order of the keys; blank and invalid ones are undefined.
+     */
+    public NamingConventions getNamingConventions(List<String> keys){
+        return namingConventions.computeIfAbsent(keys, k -> {
+            List<Pattern> patterns = new ArrayList<>(k.size());
+            for(String key : k){
+                patterns.add(getPattern(key).orElse(null));
+            }
+            return NamingConventions.compile(patterns);
+        });
+    }
+
+    /**
+     * Returns the value of an INTEGER property. This is empty when the property is not a valid integer.
+     */
+    public Optional<Integer> getInt(String key){
+        Object value = typedValues.get(key);
+        return value instanceof Integer ? Optional.of((Integer)value) : Optional.empty();
+    }
+
+    /**
+     * Returns the value of a BOOLEAN property. This is empty when the property is neither 'true' nor 'false'.
+     */
+    public Optional<Boolean> getBoolean(String key){
+        Object value = typedValues.get(key);
+        return value instanceof Boolean ? Optional.of((Boolean)value) : Optional.empty();
+    }
+
+    private static Map<String, Object> convert(Map<String, String> values, Map<String, PropertyType> types){
+        Map<String, Object> typedValues = new HashMap<>();
+
+        for(Map.Entry<String, String> entry : values.entrySet()){
+            String key = entry.getKey();
+            String value = entry.getValue() == null ? "" : entry.getValue().trim();
+            PropertyType type = types.get(key);
+
+            if(type == null || value.isEmpty()){
+                continue;
+            }
+
+            switch(type){
+                case REGULAR_EXPRESSION:
+                    try{
+                        typedValues.put(key, Pattern.compile(entry.getValue()));
+                    }
+                    catch(PatternSyntaxException e){
+                        LOG.error("Property '" + key + "' is not a valid regular expression, and will be ignored: " + e.getDescription());
+                    }
+                    break;
+                case INTEGER:
+                    try{
+                        typedValues.put(key, Integer.parseInt(value));
+                    }
+                    catch(NumberFormatException e){
+                        LOG.error("Property '" + key + "' is not a valid integer, and will be ignored: '" + value + "'");
+                    }
+                    break;
+                case BOOLEAN:
+                    if(value.equalsIgnoreCase("true") || value.equalsIgnoreCase("false")){
+                        typedValues.put(key, Boolean.parseBoolean(value));
+                    }
+                    else {
+                        LOG.error("Property '" + key + "' is not a valid boolean, and will be ignored: '" + value + "'");
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        return typedValues;
+    }
+}
@@ -0,0 +1,338 @@
+package com.uipath.sonar.plugin;
+
+import com.google.gson.GsonBuilder;
+import com.uipath.sonar.plugin.uipath.Workflow;
+import org.sonar.api.utils.log.Logger;
+import org.sonar.api.utils.log.Loggers;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * AnalysisProfiler records where the time of an analysis goes: the wall and CPU time, the number of elements visited
+ * and the number of issues raised, per phase, per check and per workflow, and the time of every XPath query.
+ *
+ * Times are summed over every thread that recorded them, so with more than one analysis thread the total of a phase may
+ * exceed its elapsed time. Documents are parsed on first access, that is during the checks, so parsing time is also
+ * part of the time of the check, and of the phase, that first needed the document.
+ *
+ * A disabled profiler records nothing: start returns a shared Sample and every record call returns at once, so the
+ * instrumentation costs a field read per call when profiling is switched off.
+ */
+public class AnalysisProfiler {
+
+    private static final Logger LOG = Loggers.get(AnalysisProfiler.class);
+    private static final AnalysisProfiler DISABLED = new AnalysisProfiler(false);
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    public enum Phase {
+        DISCOVERY,
+        LOADING,
+        PARSING,
+        PROJECT_CHECKS,
+        ACTIVITY_WALK,
+        WORKFLOW_CHECKS
+    }
+
+    private final boolean enabled;
+    private final boolean cpuTimeSupported;
+    private final Map<Phase, Stats> phases = new ConcurrentHashMap<>();
+    private final Map<String, Stats> checks = new ConcurrentHashMap<>();
+    private final Map<String, Stats> workflows = new ConcurrentHashMap<>();
+    private final Map<String, Stats> queries = new ConcurrentHashMap<>();
+
+    private AnalysisProfiler(boolean enabled){
+        this.enabled = enabled;
+        this.cpuTimeSupported = enabled && THREADS.isCurrentThreadCpuTimeSupported() && THREADS.isThreadCpuTimeEnabled();
+    }
+
+    public static AnalysisProfiler enabled(){
+        return new AnalysisProfiler(true);
+    }
+
+    public static AnalysisProfiler disabled(){
+        return DISABLED;
+    }
+
+    public boolean isEnabled(){
+        return enabled;
+    }
+
+    /**
+     * Starts measuring on the current thread. The Sample must be recorded from the same thread.
+     */
+    public Sample start(){
+        return enabled ? new Sample(System.nanoTime(), cpuTimeSupported ? THREADS.getCurrentThreadCpuTime() : 0) : Sample.NONE;
+    }
+
+    public void recordPhase(Phase phase, Sample sample){
+        if(enabled){
+            phases.computeIfAbsent(phase, key -> new Stats()).add(elapsed(sample), 0, 0);
+        }
+    }
+
+    /**
+     * Records the parsing of the document of a workflow.
+     * @param elements The number of elements of the document.
+     */
+    public void recordParse(Workflow workflow, Sample sample, int elements){
+        if(enabled){
+            Elapsed elapsed = elapsed(sample);
+            phases.computeIfAbsent(Phase.PARSING, key -> new Stats()).add(elapsed, elements, 0);
+            workflows.computeIfAbsent(workflow.getComponentKey(), key -> new Stats()).add(elapsed, elements, 0);
+        }
+    }
+
+    /**
+     * Records the collection, by the ActivityVisitor, of the elements of a workflow that activity checks subscribed to.
+     * @param elements The number of elements collected.
+     */
+    public void recordWalk(Workflow workflow, Sample sample, int elements){
+        if(enabled){
+            Elapsed elapsed = elapsed(sample);
+            phases.computeIfAbsent(Phase.ACTIVITY_WALK, key -> new Stats()).add(elapsed, elements, 0);
+            workflows.computeIfAbsent(workflow.getComponentKey(), key -> new Stats()).add(elapsed, elements, 0);
+        }
+    }
+
+    /**
+     * Records the execution of a check.
+     * @param workflow The workflow checked, or null for a project check.
+     * @param elements The number of elements the check was given, or queried.
+     */
+    public void recordCheck(AbstractCheck check, Workflow workflow, Sample sample, int elements, int issues){
+        if(enabled){
+            Elapsed elapsed = elapsed(sample);
+            checks.computeIfAbsent(check.getClass().getSimpleName(), key -> new Stats()).add(elapsed, elements, issues);
+
+            if(workflow != null){
+                workflows.computeIfAbsent(workflow.getComponentKey(), key -> new Stats()).add(elapsed, elements, issues);
+            }
+        }
+    }
+
+    /**
+     * Records the evaluation of a XamlQuery.
+     * @param nodes The number of nodes selected by the query.
+     */
+    public void recordQuery(String expression, Sample sample, int nodes){
+        if(enabled){
+            queries.computeIfAbsent(expression, key -> new Stats()).add(elapsed(sample), nodes, 0);
+        }
+    }
+
+    private Elapsed elapsed(Sample sample){
+        long wall = System.nanoTime() - sample.wallStart;
+        long cpu = cpuTimeSupported ? THREADS.getCurrentThreadCpuTime() - sample.cpuStart : 0;
+        return new Elapsed(wall, cpu);
+    }
+
+    public Map<Phase, Entry> getPhases(){
+        Map<Phase, Entry> entries = new LinkedHashMap<>();
+
+        for(Phase phase : Phase.values()){
+            Stats stats = phases.get(phase);
+            if(stats != null){
+                entries.put(phase, stats.toEntry(phase.name()));
+            }
+        }
+
+        return entries;
+    }
+
+    /**
+     * Returns the checks that took the most wall time, slowest first.
+     */
+    public List<Entry> getSlowestChecks(int count){
+        return slowest(checks, count);
+    }
+
+    /**
+     * Returns the workflows that took the most wall time to parse, walk and check, slowest first.
+     */
+    public List<Entry> getSlowestWorkflows(int count){
+        return slowest(workflows, count);
+    }
+
+    /**
+     * Returns the XPath queries that took the most wall time, slowest first. The elements of a query are the nodes it
+     * selected.
+     */
+    public List<Entry> getSlowestQueries(int count){
+        return slowest(queries, count);
+    }
+
+    private static List<Entry> slowest(Map<String, Stats> stats, int count){
+        return stats.entrySet().stream()
+            .map(entry -> entry.getValue().toEntry(entry.getKey()))
+            .sorted(Comparator.comparingLong(Entry::getWallNanos).reversed().thenComparing(Entry::getName))
+            .limit(count)
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Logs the time of every phase, and the given number of slowest checks and workflows.
+     */
+    public void log(int top){
+        if(!enabled){
+            return;
+        }
+
+        for(Entry entry : getPhases().values()){
+            LOG.info("Phase " + entry);
+        }
+
+        LOG.info(String.format("Slowest checks (top %d):", top));
+        for(Entry entry : getSlowestChecks(top)){
+            LOG.info("  " + entry);
+        }
+
+        LOG.info(String.format("Slowest workflows (top %d):", top));
+        for(Entry entry : getSlowestWorkflows(top)){
+            LOG.info("  " + entry);
+        }
+
+        LOG.info(String.format("Slowest XPath queries (top %d):", top));
+        for(Entry entry : getSlowestQueries(top)){
+            LOG.info("  " + entry);
+        }
+    }
+
+    /**
+     * Writes every phase, check, workflow and XPath query as JSON, slowest first.
+     */
+    public void write(File file) throws IOException {
+        Report report = new Report();
+        report.cpuTimeSupported = cpuTimeSupported;
+        report.phases = new ArrayList<>(getPhases().values());
+        report.checks = getSlowestChecks(Integer.MAX_VALUE);
+        report.workflows = getSlowestWorkflows(Integer.MAX_VALUE);
+        report.queries = getSlowestQueries(Integer.MAX_VALUE);
+
+        Files.createDirectories(file.getAbsoluteFile().getParentFile().toPath());
+        try(Writer writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)){
+            new GsonBuilder().setPrettyPrinting().create().toJson(report, writer);
+        }
+    }
+
+    /**
+     * The start of a measure, taken by start.
+     */
+    public static final class Sample {
+        private static final Sample NONE = new Sample(0, 0);
+
+        private final long wallStart;
+        private final long cpuStart;
+
+        private Sample(long wallStart, long cpuStart){
+            this.wallStart = wallStart;
+            this.cpuStart = cpuStart;
+        }
+    }
+
+    /**
+     * The totals recorded under a name.
+     */
+    public static final class Entry {
+        private final String name;
+        private final long count;
+        private final long wallNanos;
+        private final long cpuNanos;
+        private final long elements;
+        private final long issues;
+
+        Entry(String name, long count, long wallNanos, long cpuNanos, long elements, long issues){
+            this.name = name;
+            this.count = count;
+            this.wallNanos = wallNanos;
+            this.cpuNanos = cpuNanos;
+            this.elements = elements;
+            this.issues = issues;
+        }
+
+        public String getName(){
+            return name;
+        }
+
+        /**
+         * Returns the number of measures recorded.
+         */
+        public long getCount(){
+            return count;
+        }
+
+        public long getWallNanos(){
+            return wallNanos;
+        }
+
+        public long getCpuNanos(){
+            return cpuNanos;
+        }
+
+        public long getElements(){
+            return elements;
+        }
+
+        public long getIssues(){
+            return issues;
+        }
+
+        @Override
+        public String toString(){
+            return String.format("%s: %d ms wall, %d ms CPU, %d run(s), %d element(s), %d issue(s)",
+                name, TimeUnit.NANOSECONDS.toMillis(wallNanos), TimeUnit.NANOSECONDS.toMillis(cpuNanos), count, elements, issues);
+        }
+    }
+
+    private static final class Elapsed {
+        private final long wallNanos;
+        private final long cpuNanos;
+
+        Elapsed(long wallNanos, long cpuNanos){
+            this.wallNanos = wallNanos;
+            this.cpuNanos = cpuNanos;
+        }
+    }
+
+    private static final class Stats {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder wallNanos = new LongAdder();
+        private final LongAdder cpuNanos = new LongAdder();
+        private final LongAdder elements = new LongAdder();
+        private final LongAdder issues = new LongAdder();
+
+        void add(Elapsed elapsed, int elements, int issues){
+            this.count.increment();
+            this.wallNanos.add(elapsed.wallNanos);
+            this.cpuNanos.add(elapsed.cpuNanos);
+            this.elements.add(elements);
+            this.issues.add(issues);
+        }
+
+        Entry toEntry(String name){
+            return new Entry(name, count.sum(), wallNanos.sum(), cpuNanos.sum(), elements.sum(), issues.sum());
+        }
+    }
+
+    private static class Report {
+        boolean cpuTimeSupported;
+        List<Entry> phases;
+        List<Entry> checks;
+        List<Entry> workflows;
+        List<Entry> queries;
+    }
+}
@@ -0,0 +1,337 @@
+package com.uipath.sonar.plugin;
+
+import com.uipath.sonar.plugin.events.AnalysisEvents;
+import com.uipath.sonar.plugin.uipath.Project;
+import com.uipath.sonar.plugin.uipath.ResultCache;
+import com.uipath.sonar.plugin.uipath.Workflow;
+import org.dom4j.Element;
+import org.dom4j.XPathException;
+import org.sonar.api.utils.log.Logger;
+import org.sonar.api.utils.log.Loggers;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.BooleanSupplier;
+import java.util.function.IntSupplier;
+import java.util.stream.Collectors;
+
+/**
+ * CheckExecutor runs workflow checks against every workflow of a Project.
+ *
+ * AbstractActivityChecks share a single ActivityVisitor collection per workflow; every other check is executed on its own.
+ * With more than one thread, each workflow is split into units of work (the activity walk, plus one unit per other
+ * check) that are submitted to a work-stealing ForkJoinPool, largest workflow file first, so the biggest files don't
+ * end up as stragglers at the end of the run.
+ * Issues raised by a unit are buffered on the worker thread and flushed from the calling thread once every unit has
+ * finished, in workflow order and then check order. The reported issues are therefore the same, and in the same
+ * order, whatever the thread count.
+ *
+ * When a ResultCache is given, workflows whose stored results are still valid are not checked at all: their stored
+ * issues are replayed in place. The issues of every other workflow are stored once its checks have run without error.
+ *
+ * Every check run and activity walk is recorded in the AnalysisProfiler of the Project, when profiling is enabled, and
+ * every check run emits a check execution event when a Flight Recorder recording enables it (see AnalysisEvents).
+ */
+public class CheckExecutor {
+
+    private static final Logger LOG = Loggers.get(CheckExecutor.class);
+    private static final AnalysisEvents EVENTS = AnalysisEvents.get();
+
+    private final int threads;
+    private final ResultCache resultCache;
+
+    public CheckExecutor(int threads){
+        this(threads, ResultCache.disabled());
+    }
+
+    public CheckExecutor(int threads, ResultCache resultCache){
+        this.threads = threads;
+        this.resultCache = resultCache;
+    }
+
+    public void execute(Project project, List<AbstractWorkflowCheck> checks){
+
+        List<Workflow> workflows = project.getWorkflows();
+        int checkCount = checks.size();
+
+        List<AbstractActivityCheck> activityChecks = new ArrayList<>();
+        List<Integer> activitySlots = new ArrayList<>();
+        List<Integer> otherSlots = new ArrayList<>();
+
+        for(int i = 0; i < checkCount; i++){
+            if(checks.get(i) instanceof AbstractActivityCheck){
+                activityChecks.add((AbstractActivityCheck) checks.get(i));
+                activitySlots.add(i);
+            }
+            else {
+                otherSlots.add(i);
+            }
+        }
+
+        ActivityVisitor visitor = new ActivityVisitor(activityChecks);
+        String configurationHash = ResultCache.hashConfiguration(checks.stream()
+            .map(AbstractCheck::getConfiguration)
+            .collect(Collectors.toList()));
+
+        AtomicReferenceArray<Outcome> outcomes = new AtomicReferenceArray<>(workflows.size() * checkCount);
+
+        if(threads <= 1){
+            for(int w = 0; w < workflows.size(); w++){
+                Workflow workflow = workflows.get(w);
+                Optional<List<Issue>> stored = loadResults(workflow, configurationHash);
+
+                if(stored.isPresent()){
+                    LOG.debug("Replaying the stored results of workflow: " + workflow.getName());
+                    project.getIssueSink().flush(stored.get());
+                    continue;
+                }
+
+                LOG.info("Checking workflow: " + workflow.getName());
+
+                int base = w * checkCount;
+                List<List<Element>> matches = collect(visitor, workflow);
+
+                for(int i = 0; i < checkCount; i++){
+                    int activity = activitySlots.indexOf(i);
+
+                    if(activity >= 0){
+                        AbstractActivityCheck check = activityChecks.get(activity);
+                        List<Element> elements = matches == null ? null : matches.get(activity);
+
+                        outcomes.set(base + i, run(project, check, workflow, () -> elements == null ? 0 : elements.size(),
+                            () -> elements != null && visit(check, project, workflow, elements)));
+                    }
+                    else {
+                        AbstractWorkflowCheck check = checks.get(i);
+                        outcomes.set(base + i, run(project, check, workflow, workflow::getElementCount, () -> executeCheck(check, project, workflow)));
+                    }
+                }
+
+                finish(workflow, outcomes, base, checkCount, configurationHash);
+            }
+            return;
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+
+        try{
+            // Reading stored results hashes every workflow file, so it is done in parallel as well.
+            List<Optional<List<Issue>>> stored = pool.submit(() -> workflows.parallelStream()
+                .map(workflow -> loadResults(workflow, configurationHash))
+                .collect(Collectors.toList())).get();
+
+            List<Unit> units = new ArrayList<>();
+
+            for(int w = 0; w < workflows.size(); w++){
+                if(stored.get(w).isPresent()){
+                    continue;
+                }
+
+                Workflow workflow = workflows.get(w);
+                int base = w * checkCount;
+
+                if(!activityChecks.isEmpty()){
+                    units.add(new Unit(workflow, () -> {
+                        List<List<Element>> matches = collect(visitor, workflow);
+
+                        for(int activity = 0; activity < activityChecks.size(); activity++){
+                            AbstractActivityCheck check = activityChecks.get(activity);
+                            List<Element> elements = matches == null ? null : matches.get(activity);
+
+                            outcomes.set(base + activitySlots.get(activity), run(project, check, workflow, () -> elements == null ? 0 : elements.size(),
+                                () -> elements != null && visit(check, project, workflow, elements)));
+                        }
+                    }));
+                }
+
+                for(int slot : otherSlots){
+                    AbstractWorkflowCheck check = checks.get(slot);
+                    units.add(new Unit(workflow, () -> outcomes.set(base + slot, run(project, check, workflow, workflow::getElementCount,
+                        () -> executeCheck(check, project, workflow)))));
+                }
+            }
+
+            // Stable sort, so units of the same workflow keep their relative order.
+            units = units.stream()
+                .sorted(Comparator.comparingLong(Unit::getWeight).reversed())
+                .collect(Collectors.toList());
+
+            List<ForkJoinTask<?>> tasks = new ArrayList<>(units.size());
+
+            for(Unit unit : units){
+                tasks.add(pool.submit(unit.getWork()));
+            }
+
+            for(ForkJoinTask<?> task : tasks){
+                task.get();
+            }
+
+            for(int w = 0; w < workflows.size(); w++){
+                if(stored.get(w).isPresent()){
+                    project.getIssueSink().flush(stored.get(w).get());
+                }
+                else {
+                    finish(workflows.get(w), outcomes, w * checkCount, checkCount, configurationHash);
+                }
+            }
+        }
+        catch(InterruptedException ex){
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while executing workflow checks.", ex);
+        }
+        catch(ExecutionException ex){
+            throw new IllegalStateException("Could not execute workflow checks.", ex.getCause());
+        }
+        finally {
+            pool.shutdown();
+        }
+    }
+
+    private Optional<List<Issue>> loadResults(Workflow workflow, String configurationHash){
+        try{
+            return resultCache.load(workflow, configurationHash);
+        }
+        catch (Exception e){
+            LOG.warn("Could not load the stored results of workflow '" + workflow.getName() + "'", e);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Flushes the issues of a checked workflow, and stores them if every check completed.
+     */
+    private void finish(Workflow workflow, AtomicReferenceArray<Outcome> outcomes, int base, int checkCount, String configurationHash){
+        List<Issue> issues = new ArrayList<>();
+        Map<String, String> lookups = new HashMap<>();
+        boolean complete = true;
+
+        for(int i = 0; i < checkCount; i++){
+            Outcome outcome = outcomes.get(base + i);
+
+            if(outcome == null){
+                complete = false;
+                continue;
+            }
+
+            issues.addAll(outcome.issues);
+            lookups.putAll(outcome.lookups);
+            complete &= outcome.succeeded;
+        }
+
+        workflow.getProject().getIssueSink().flush(issues);
+
+        // Issues reported on anything else than the workflow itself can't be replayed from the workflow entry.
+        if(complete && issues.stream().allMatch(issue -> issue.isOn(workflow))){
+            resultCache.store(workflow, configurationHash, lookups, issues);
+        }
+    }
+
+    /**
+     * Runs a check, capturing the issues it reports and the workflow paths it looks up.
+     * @param elements The number of elements the check visits, for the AnalysisProfiler.
+     */
+    private static Outcome run(Project project, AbstractCheck check, Workflow workflow, IntSupplier elements, BooleanSupplier work){
+        boolean[] succeeded = new boolean[1];
+        Map<String, String> lookups = new HashMap<>();
+        AnalysisProfiler profiler = project.getProfiler();
+        AnalysisProfiler.Sample sample = profiler.start();
+        Object event = EVENTS.beginCheck();
+
+        List<Issue> issues = project.getIssueSink().capture(() -> lookups.putAll(project.recordLookups(() -> succeeded[0] = work.getAsBoolean())));
+
+        if(profiler.isEnabled() || event != null){
+            int count = elements.getAsInt();
+            profiler.recordCheck(check, workflow, sample, count, issues.size());
+            EVENTS.commitCheck(event, check, workflow, count, issues.size());
+        }
+
+        return new Outcome(issues, lookups, succeeded[0]);
+    }
+
+    private static List<List<Element>> collect(ActivityVisitor visitor, Workflow workflow){
+        try{
+            AnalysisProfiler profiler = workflow.getProject().getProfiler();
+            AnalysisProfiler.Sample sample = profiler.start();
+            List<List<Element>> matches = visitor.collect(workflow);
+            profiler.recordWalk(workflow, sample, matches.stream().mapToInt(List::size).sum());
+            return matches;
+        }
+        catch (Exception e){
+            LOG.error("Error when visiting workflow '" + workflow.getName() + "'", e);
+            return null;
+        }
+    }
+
+    private static boolean visit(AbstractActivityCheck check, Project project, Workflow workflow, List<Element> elements){
+        try {
+            LOG.debug(String.format("Visiting %d element(s) with check %s on workflow %s...", elements.size(), check.getRule().name(), workflow.getName()));
+            check.visit(project, workflow, elements);
+            return true;
+        }
+        catch (XPathException e){
+            LOG.debug("Encountered XPath exception when executing check '" + check.getRule().name() + "' on workflow '" + workflow.getName() + "': " + e.getMessage());
+            return true;
+        }
+        catch (Exception e){
+            LOG.error("Error when executing check '" + check.getRule().name() + "'", e);
+            return false;
+        }
+    }
+
+    private static boolean executeCheck(AbstractWorkflowCheck check, Project project, Workflow workflow){
+        try {
+            LOG.debug(String.format("Executing check %s on workflow %s...", check.getRule().name(), workflow.getName()));
+            check.execute(project, workflow);
+            return true;
+        }
+        catch (XPathException e){
+            // This will catch errors where XPath queries are ran in a document that doesn't contain a namespace used in the XPath query.
+            // IE: Exception: XPath expression uses unbound namespace prefix ui
+            // Queries compiled with XamlQuery don't fail this way, so this is logged without the stack trace.
+            LOG.debug("Encountered XPath exception when executing check '" + check.getRule().name() + "' on workflow '" + workflow.getName() + "': " + e.getMessage());
+            return true;
+        }
+        catch (Exception e){
+            LOG.error("Error when executing check '" + check.getRule().name() + "'", e);
+            return false;
+        }
+    }
+
+    private static class Outcome {
+        private final List<Issue> issues;
+        private final Map<String, String> lookups;
+        private final boolean succeeded;
+
+        Outcome(List<Issue> issues, Map<String, String> lookups, boolean succeeded){
+            this.issues = issues;
+            this.lookups = lookups;
+            this.succeeded = succeeded;
+        }
+    }
+
+    private static class Unit {
+        private final long weight;
+        private final Runnable work;
+
+        Unit(Workflow workflow, Runnable work){
+            this.weight = workflow.getFile().length();
+            this.work = work;
+        }
+
+        long getWeight(){
+            return weight;
+        }
+
+        Runnable getWork(){
+            return work;
+        }
+    }
+}
@@ -80,12 +80,18 @@ public class CheckRepository {
             .collect(Collectors.toList());
     }
 
+    /**
+     * Returns the classes of every workflow check, optional ones included. Each class defines a rule of the repository.
+     */
     public static List<Class> getWorkflowCheckClasses(){
-        return getDefaultWorkflowChecks().stream().map(AbstractWorkflowCheck::getClass).collect(Collectors.toList());
+        return getAllWorkflowChecks().stream().map(AbstractWorkflowCheck::getClass).collect(Collectors.toList());
     }
 
+    /**
+     * Returns the classes of every project check, optional ones included. Each class defines a rule of the repository.
+     */
     public static List<Class> getProjectCheckClasses(){
-        return getDefaultProjectChecks().stream().map(AbstractProjectCheck::getClass).collect(Collectors.toList());
+        return getAllProjectChecks().stream().map(AbstractProjectCheck::getClass).collect(Collectors.toList());
     }
 
     public static List<AbstractCheck> getAllChecks(){
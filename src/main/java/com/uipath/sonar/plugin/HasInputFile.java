@@ -5,4 +5,11 @@ import org.sonar.api.batch.fs.InputFile;
 public interface HasInputFile {
     boolean hasInputFile();
     InputFile getInputFile();
+
+    /**
+     * Identifies the component issues are reported on, even when it has no InputFile.
+     */
+    default String getComponentKey(){
+        return hasInputFile() ? getInputFile().uri().toString() : getClass().getName() + "@" + System.identityHashCode(this);
+    }
 }
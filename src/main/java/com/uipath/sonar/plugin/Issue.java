@@ -3,20 +3,56 @@ package com.uipath.sonar.plugin;
 import org.sonar.api.batch.fs.InputFile;
 import org.sonar.api.rule.RuleKey;
 
-public class Issue {
+import java.util.Objects;
 
-    private HasInputFile hasInputFile;
-    private RuleKey ruleKey;
-    private String message;
+/**
+ * Issue is an issue reported by a check. It keeps the InputFile and the key of the component it was reported on,
+ * rather than the Workflow or Project, so that buffered and recorded issues don't keep workflows reachable.
+ *
+ * An issue reported on an element has the line and column where the element's start tag ends. Issues reported on the
+ * whole file have line 0.
+ *
+ * Issues with the same component, rule, message and position are equal.
+ */
+public final class Issue {
+
+    private final InputFile inputFile;
+    private final String componentKey;
+    private final RuleKey ruleKey;
+    private final String message;
+    private final int line;
+    private final int column;
 
     public Issue(HasInputFile file, RuleKey ruleKey, String message){
-        this.hasInputFile = file;
+        this(file, ruleKey, message, 0, 0);
+    }
+
+    public Issue(HasInputFile file, RuleKey ruleKey, String message, int line, int column){
+        this.inputFile = file.hasInputFile() ? file.getInputFile() : null;
+        this.componentKey = file.getComponentKey();
         this.ruleKey = ruleKey;
         this.message = message;
+        this.line = Math.max(line, 0);
+        this.column = line > 0 ? Math.max(column, 0) : 0;
+    }
+
+    public boolean hasInputFile(){
+        return inputFile != null;
     }
 
     public InputFile getInputFile(){
-        return hasInputFile.getInputFile();
+        return inputFile;
+    }
+
+    public String getComponentKey(){
+        return componentKey;
+    }
+
+    /**
+     * Returns true if the issue was reported on the given component.
+     */
+    public boolean isOn(HasInputFile file){
+        return componentKey.equals(file.getComponentKey());
     }
 
     public RuleKey getRuleKey(){
@@ -26,4 +62,41 @@ public class Issue {
     public String getMessage(){
         return message;
     }
+
+    /**
+     * Returns the line of the issue, or 0 for an issue on the whole file.
+     */
+    public int getLine(){
+        return line;
+    }
+
+    /**
+     * Returns the column just past the start tag of the element the issue was reported on, or 0 if unknown.
+     */
+    public int getColumn(){
+        return column;
+    }
+
+    @Override
+    public boolean equals(Object o){
+        if(this == o){
+            return true;
+        }
+        if(!(o instanceof Issue)){
+            return false;
+        }
+        Issue other = (Issue) o;
+        return componentKey.equals(other.componentKey) && ruleKey.equals(other.ruleKey) && Objects.equals(message, other.message)
+            && line == other.line && column == other.column;
+    }
+
+    @Override
+    public int hashCode(){
+        return Objects.hash(componentKey, ruleKey, message, line, column);
+    }
+
+    @Override
+    public String toString(){
+        return String.format("{ component: %s, line: %d, rule: %s, message: %s }", componentKey, line, ruleKey, message);
+    }
 }
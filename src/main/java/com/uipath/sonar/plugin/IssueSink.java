@@ -0,0 +1,257 @@
+package com.uipath.sonar.plugin;
+
+import com.uipath.sonar.plugin.events.AnalysisEvents;
+import org.sonar.api.batch.fs.InputFile;
+import org.sonar.api.batch.fs.TextRange;
+import org.sonar.api.batch.sensor.SensorContext;
+import org.sonar.api.batch.sensor.issue.NewIssue;
+import org.sonar.api.batch.sensor.issue.NewIssueLocation;
+import org.sonar.api.rule.RuleKey;
+import org.sonar.api.utils.log.Logger;
+import org.sonar.api.utils.log.Loggers;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * IssueSink collects the issues reported during one analysis, and saves them on the SensorContext.
+ *
+ * Issues reported from a thread that is running inside capture() are buffered on that thread, and handed back to the
+ * caller, which passes them on later with flush(). Any other issue is queued. Identical issues (same component, rule,
+ * message and position) are only kept once per flush(), that is per check execution, or per workflow replayed from
+ * the ResultCache, so the sink holds no issue once it is saved.
+ *
+ * Queued issues are saved in batches, by whichever thread fills a batch, and by drain(). Saving is serialized, so no
+ * two threads create NewIssue objects at the same time, and checks can run on worker threads.
+ *
+ * Issues with a line are saved on a TextRange covering that line up to the end of the element's start tag, or on the
+ * whole line when the column is unknown.
+ *
+ * A sink created without a SensorContext, as in unit tests, records the issues instead, so tests can look at them.
+ */
+public class IssueSink {
+
+    private static final Logger LOG = Loggers.get(IssueSink.class);
+    private static final AnalysisEvents EVENTS = AnalysisEvents.get();
+
+    static final int DEFAULT_BATCH_SIZE = 256;
+
+    private final SensorContext sensorContext;
+    private final int batchSize;
+    private final ThreadLocal<List<Issue>> threadBuffer = new ThreadLocal<>();
+    private final Object saveLock = new Object();
+    private final Queue<Issue> pending = new ConcurrentLinkedQueue<>();
+    private final List<Issue> recorded = Collections.synchronizedList(new ArrayList<>());
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final AtomicInteger savedCount = new AtomicInteger();
+    private final AtomicInteger duplicateCount = new AtomicInteger();
+
+    /**
+     * Creates a sink that records issues rather than saving them.
+     */
+    public IssueSink(){
+        this(null);
+    }
+
+    public IssueSink(SensorContext sensorContext){
+        this(sensorContext, DEFAULT_BATCH_SIZE);
+    }
+
+    IssueSink(SensorContext sensorContext, int batchSize){
+        this.sensorContext = sensorContext;
+        this.batchSize = batchSize;
+    }
+
+    public void report(HasInputFile hasInputFile, RuleKey ruleKey, String message){
+        report(new Issue(hasInputFile, ruleKey, message));
+    }
+
+    /**
+     * Reports an issue at a position of the file. A line of 0 reports it on the whole file.
+     */
+    public void report(HasInputFile hasInputFile, RuleKey ruleKey, String message, int line, int column){
+        report(new Issue(hasInputFile, ruleKey, message, line, column));
+    }
+
+    private void report(Issue issue){
+
+        List<Issue> buffer = threadBuffer.get();
+        if(buffer != null){
+            buffer.add(issue);
+            return;
+        }
+
+        enqueue(issue);
+    }
+
+    /**
+     * Runs the given Runnable on the current thread, buffering any issue it reports instead of queuing it.
+     * @param runnable The code to run, usually a check execution.
+     * @return The issues reported while running, in reporting order.
+     */
+    public List<Issue> capture(Runnable runnable){
+        List<Issue> outer = threadBuffer.get();
+        List<Issue> buffer = new ArrayList<>();
+        threadBuffer.set(buffer);
+
+        try{
+            runnable.run();
+        }
+        finally {
+            if(outer != null){
+                threadBuffer.set(outer);
+            }
+            else {
+                threadBuffer.remove();
+            }
+        }
+
+        return buffer;
+    }
+
+    /**
+     * Queues issues previously buffered by capture(), dropping identical ones. When called from inside an enclosing
+     * capture(), the issues are handed over to its buffer instead, so captures can be nested.
+     * @param buffered The buffered issues, queued in list order.
+     */
+    public void flush(List<Issue> buffered){
+        List<Issue> buffer = threadBuffer.get();
+
+        if(buffer != null){
+            buffer.addAll(buffered);
+            return;
+        }
+
+        Set<Issue> unique = new HashSet<>();
+
+        for(Issue issue : buffered){
+            if(unique.add(issue)){
+                enqueue(issue);
+            }
+            else {
+                duplicateCount.incrementAndGet();
+            }
+        }
+    }
+
+    private void enqueue(Issue issue){
+        pending.add(issue);
+
+        if(pendingCount.incrementAndGet() >= batchSize){
+            drain();
+        }
+    }
+
+    /**
+     * Saves the queued issues, in reporting order. Threads that drain at the same time save one after the other.
+     */
+    public void drain(){
+        synchronized (saveLock){
+            Object event = EVENTS.beginFlush();
+            int saved = 0;
+
+            Issue issue;
+            while((issue = pending.poll()) != null){
+                pendingCount.decrementAndGet();
+                save(issue);
+                saved++;
+            }
+
+            EVENTS.commitFlush(event, saved);
+        }
+    }
+
+    private void save(Issue issue){
+        savedCount.incrementAndGet();
+
+        if(sensorContext == null){
+            recorded.add(issue);
+            return;
+        }
+
+        if(!issue.hasInputFile()){
+            LOG.debug("Ignoring issue " + issue.getRuleKey().rule() + " on " + issue.getComponentKey() + ", which is not indexed.");
+            return;
+        }
+
+        LOG.debug("Creating issue " + issue.getRuleKey().rule());
+
+        NewIssue newIssue = sensorContext.newIssue()
+            .forRule(issue.getRuleKey());
+        NewIssueLocation location = newIssue.newLocation()
+            .on(issue.getInputFile())
+            .message(issue.getMessage());
+
+        TextRange range = textRange(issue);
+        if(range != null){
+            location.at(range);
+        }
+
+        newIssue.at(location);
+
+        newIssue.save();
+    }
+
+    private static TextRange textRange(Issue issue){
+        if(issue.getLine() <= 0){
+            return null;
+        }
+
+        InputFile inputFile = issue.getInputFile();
+
+        try{
+            if(issue.getColumn() > 1){
+                return inputFile.newRange(issue.getLine(), 0, issue.getLine(), issue.getColumn() - 1);
+            }
+            return inputFile.selectLine(issue.getLine());
+        }
+        catch(IllegalArgumentException e){
+            // The file changed since it was parsed, or the position doesn't fit its lines: report on the whole file.
+            LOG.debug("Ignoring the position of issue " + issue.getRuleKey().rule() + " on " + issue.getComponentKey() + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Returns the number of distinct issues reported so far, whether saved or still queued.
+     */
+    public int getCount(){
+        return savedCount.get() + pendingCount.get();
+    }
+
+    public int getDuplicateCount(){
+        return duplicateCount.get();
+    }
+
+    /**
+     * Returns the issues recorded by a sink without SensorContext. Queued issues are saved first.
+     */
+    public List<Issue> getIssues(){
+        drain();
+
+        synchronized (recorded){
+            return new ArrayList<>(recorded);
+        }
+    }
+
+    /**
+     * Forgets every issue reported so far. Used by unit tests that run several checks on the same Project.
+     */
+    public void clear(){
+        drain();
+        recorded.clear();
+        savedCount.set(0);
+        duplicateCount.set(0);
+    }
+
+    @Override
+    public String toString(){
+        return String.format("%d issue(s), %d duplicate(s) dropped", getCount(), getDuplicateCount());
+    }
+}
@@ -1,6 +1,7 @@
 package com.uipath.sonar.plugin;
 
 import com.uipath.sonar.plugin.hooks.DisplayIssuesInScanner;
+import com.uipath.sonar.plugin.languages.UiPathFilePatterns;
 import com.uipath.sonar.plugin.languages.UiPathLanguage;
 import com.uipath.sonar.plugin.languages.UiPathQualityProfile;
 import com.uipath.sonar.plugin.rules.UiPathRulesDefinition;
@@ -8,6 +9,10 @@ import com.uipath.sonar.plugin.settings.UiPathLanguageProperties;
 import org.sonar.api.Plugin;
 import org.sonar.api.config.PropertyDefinition;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+
 /**
  * UiPathPlugin simply defines what classes are used for this plugin.
  * UiPathSensor is the main entry point for scanning UiPath projects.
@@ -16,11 +21,16 @@ public class UiPathPlugin implements Plugin {
 
     public static final String FILE_SUFFIXES_KEY = "sonar.UiPath.file.suffixes";
 
+    public static final String UNKNOWN = "unknown";
+
+    private static final String VERSION_RESOURCE = "/com/uipath/sonar/plugin/plugin.properties";
+
     @Override
     public void define(Context context){
         context.addExtensions(
             UiPathSensor.class,
             UiPathLanguage.class,
+            UiPathFilePatterns.class,
             UiPathQualityProfile.class,
             UiPathRulesDefinition.class,
             DisplayIssuesInScanner.class);
@@ -33,4 +43,42 @@ public class UiPathPlugin implements Plugin {
             context.addExtension(prop);
         }
     }
+
+    /**
+     * Returns the version of the plugin, as set by the Maven build.
+     */
+    public static String getVersion(){
+        return readBuildProperty("version");
+    }
+
+    /**
+     * Returns the time the plugin was built at, or "unknown" when the plugin classes were not built by Maven. The build
+     * tells apart two jars of the same version, such as snapshots or local builds, whose checks may differ.
+     */
+    public static String getBuild(){
+        return readBuildProperty("build");
+    }
+
+    /**
+     * Returns the version and build of the plugin, which key the parse and result caches.
+     */
+    public static String getBuildFingerprint(){
+        return getVersion() + "+" + getBuild();
+    }
+
+    private static String readBuildProperty(String key){
+        try(InputStream stream = UiPathPlugin.class.getResourceAsStream(VERSION_RESOURCE)){
+            Properties properties = new Properties();
+            if(stream != null){
+                properties.load(stream);
+            }
+
+            // An unfiltered resource still holds the Maven expression.
+            String value = properties.getProperty(key, UNKNOWN);
+            return value.startsWith("${") ? UNKNOWN : value;
+        }
+        catch(IOException e){
+            return UNKNOWN;
+        }
+    }
 }
@@ -1,12 +1,17 @@
 package com.uipath.sonar.plugin;
 
+import com.uipath.sonar.plugin.events.AnalysisEvents;
+import com.uipath.sonar.plugin.languages.UiPathLanguage;
 import com.uipath.sonar.plugin.settings.UiPathLanguageProperties;
+import com.uipath.sonar.plugin.uipath.DocumentCache;
+import com.uipath.sonar.plugin.uipath.ParseCache;
 import com.uipath.sonar.plugin.uipath.Project;
-import com.uipath.sonar.plugin.uipath.Workflow;
-import org.dom4j.XPathException;
+import com.uipath.sonar.plugin.uipath.ResultCache;
 import org.sonar.api.batch.fs.FilePredicate;
 import org.sonar.api.batch.fs.FileSystem;
 import org.sonar.api.batch.fs.InputFile;
+import org.sonar.api.batch.rule.CheckFactory;
+import org.sonar.api.batch.rule.Checks;
 import org.sonar.api.batch.sensor.Sensor;
 import org.sonar.api.batch.sensor.SensorContext;
 import org.sonar.api.batch.sensor.SensorDescriptor;
@@ -14,8 +19,27 @@ import org.sonar.api.utils.Version;
 import org.sonar.api.utils.log.Logger;
 import org.sonar.api.utils.log.Loggers;
 
+import javax.annotation.Nullable;
 import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 /**
  * UiPathSensor is the main component for scanning UiPath projects. The sensor identifies the files to analyze
@@ -25,8 +49,10 @@ public class UiPathSensor implements Sensor{
 
     private static final Logger LOG = Loggers.get(UiPathSensor.class);
     private static final Version V6_0 = Version.create(6, 0);
+    private static final String PROFILE_FILE_NAME = "uipath-profile.json";
+    private static final AnalysisEvents EVENTS = AnalysisEvents.get();
 
-    //private final Checks<Object> checks;
+    private final CheckFactory checkFactory;
     private FileSystem fileSystem;
     private FilePredicate projectJsonPredicate;
     private FilePredicate workflowPredicate;
@@ -34,91 +60,339 @@ public class UiPathSensor implements Sensor{
 
     private String projectFilePredicatePattern;
     private String workflowFilePredicatePattern;
+    private int analysisThreads;
+    private long documentCacheSize;
+    private ParseCache parseCache;
+    private ResultCache resultCache;
+    private Map<URI, InputFile> workflowInputFiles;
+    private Map<Path, InputFile> projectJsons;
+    private Map<Path, Map<File, InputFile>> projectWorkflows;
+    private DocumentCache documentCache;
+    private IssueSink issueSink;
+    private AnalysisProfiler profiler = AnalysisProfiler.disabled();
+    private List<AbstractProjectCheck> projectChecks;
+    private List<AbstractWorkflowCheck> workflowChecks;
+    private Set<WorkflowData> requiredData;
+    private int profileTop;
+
+    /**
+     * Creates a sensor that runs the checks of the default quality profile, with their default parameters.
+     */
+    public UiPathSensor(){
+        this(null);
+    }
 
-    public UiPathSensor(/*FileSystem fileSystem, CheckFactory checkFactory*/){
-    //    this.checks = checkFactory.create(CheckRepository.REPOSITORY_KEY)
-    //            .addAnnotatedChecks((Iterable<?>)CheckRepository.getProjectCheckClasses());
+    /**
+     * Creates a sensor that runs the checks of the rules activated in the quality profile of the analysis.
+     */
+    public UiPathSensor(@Nullable CheckFactory checkFactory){
+        this.checkFactory = checkFactory;
     }
 
     @Override
     public void describe(SensorDescriptor descriptor){
 
-        descriptor.name("UiPath Project Sensor");
+        // The scanner skips the sensor on modules without UiPath files, or when no UiPath rule is active.
+        descriptor
+            .name("UiPath Project Sensor")
+            .onlyOnLanguage(UiPathLanguage.KEY)
+            .createIssuesForRuleRepository(CheckRepository.REPOSITORY_KEY);
     }
 
     @Override
     public void execute(SensorContext context) {
 
         try{
-            Project project;
-
-            try{
-                LOG.info("Configuring UiPathSensor...");
-
-                loadSettings(context);
-                configure(context);
+            LOG.info("Configuring UiPathSensor...");
 
-                LOG.info("UiPathSensor is running...");
+            loadChecks();
 
-                File directory = new File(getProjectJson().uri()).getParentFile();
-                project = new Project(directory, this, context);
-            }
-            catch(Exception ex){
-                LOG.info("No UiPath project found. Skipping...");
+            if(projectChecks.isEmpty() && workflowChecks.isEmpty()){
+                LOG.info("No UiPath rule is active in the quality profile. Skipping...");
                 return;
             }
 
-            LOG.info("Project: " + project.getInputFile().uri().toString());
+            // Look for a project.json before anything else is set up, so modules without one cost a single lookup.
+            configure(context);
+
+            List<InputFile> projectJsons = getProjectJsons();
 
-            for(AbstractProjectCheck check : CheckRepository.getDefaultProjectChecks()){
-                try{
-                    LOG.info(String.format("Executing check %s...", check.getRule().name()));
-                    check.execute(project);
+            if(projectJsons.isEmpty()){
+                if(hasWorkflows()){
+                    // The project files may not be indexed, such as when the file suffixes leave them out.
+                    LOG.warn(String.format("Found UiPath workflows but no project file matching '%s'. Check that %s, or %s, includes it. Skipping...",
+                        projectFilePredicatePattern, UiPathLanguageProperties.LANGUAGE_PATTERNS_KEY, UiPathPlugin.FILE_SUFFIXES_KEY));
                 }
-                catch (Exception e){
-                    LOG.error("Error when executing check '" + check.getRule().name() + "'", e);
+                else {
+                    LOG.info("No UiPath project found. Skipping...");
                 }
+                return;
             }
 
-            for(Workflow workflow : project.getWorkflows()){
-
-                LOG.info("Checking workflow: " + workflow.getName());
-
-                for (AbstractWorkflowCheck check : CheckRepository.getDefaultWorkflowChecks()){
-                    try {
-                        LOG.info(String.format("Executing check %s...", check.getRule().name()));
-                        check.execute(project, workflow);
-                    }
-                    catch (XPathException e){
-                        // This will catch errors where XPath queries are ran in a document that doesn't contain a namespace used in the XPath query.
-                        // IE: Exception: XPath expression uses unbound namespace prefix ui
-                        LOG.warn("Encountered XPath exception when executing check '" + check.getRule().name() + "'. This may or may not be an issue.", e);
-                    }
-                    catch (Exception e){
-                        LOG.error("Error when executing check '" + check.getRule().name() + "'", e);
-                    }
+            loadProfiler(context);
+            AnalysisProfiler.Sample discovery = profiler.start();
+            loadSettings(context);
+            LOG.info(String.format("UiPathSensor is running on %d project(s)...", projectJsons.size()));
+
+            indexProjects(projectJsons);
+            profiler.recordPhase(AnalysisProfiler.Phase.DISCOVERY, discovery);
+            documentCache = DocumentCache.withBudgetMegabytes(documentCacheSize);
+
+            // Projects are analyzed in parallel, and the analysis threads are shared out between them.
+            int projectThreads = Math.min(analysisThreads, projectJsons.size());
+            int threadsPerProject = Math.max(1, analysisThreads / projectThreads);
+
+            if(projectThreads <= 1){
+                for(InputFile projectJson : projectJsons){
+                    analyzeProject(context, projectJson, threadsPerProject);
                 }
             }
+            else {
+                analyzeProjectsInParallel(context, projectJsons, projectThreads, threadsPerProject);
+            }
+
+            issueSink.drain();
+            LOG.info("Issues: " + issueSink);
+            LOG.info("Workflow documents: " + documentCache);
+
+            if(parseCache.isEnabled()){
+                parseCache.prune();
+                LOG.info("Parse cache: " + parseCache);
+            }
+
+            if(resultCache.isEnabled()){
+                resultCache.prune();
+                LOG.info("Result cache: " + resultCache);
+            }
+
+            if(profiler.isEnabled()){
+                writeProfile(context);
+            }
 
             LOG.info("UiPathSensor finished!");
         }
         catch (Exception ex){
-            LOG.error("Encountered error when executing UiPath Plugin. This might not be a UiPath Project.", ex);
+            LOG.error("Encountered error when executing UiPath Plugin.", ex);
+        }
+    }
+
+    /**
+     * Analyzes projects on a fixed thread pool. The issues of each project are buffered on its thread, and saved from
+     * the sensor thread in project order.
+     */
+    private void analyzeProjectsInParallel(SensorContext context, List<InputFile> projectJsons, int projectThreads, int threadsPerProject)
+        throws InterruptedException, ExecutionException {
+
+        ExecutorService pool = Executors.newFixedThreadPool(projectThreads);
+
+        try{
+            List<Future<List<Issue>>> results = new ArrayList<>(projectJsons.size());
+
+            for(InputFile projectJson : projectJsons){
+                results.add(pool.submit(() -> issueSink.capture(() -> analyzeProject(context, projectJson, threadsPerProject))));
+            }
+
+            for(Future<List<Issue>> result : results){
+                issueSink.flush(result.get());
+            }
+        }
+        finally {
+            pool.shutdown();
+        }
+    }
+
+    private void analyzeProject(SensorContext context, InputFile projectJson, int threads){
+        long start = System.nanoTime();
+        File directory = Paths.get(projectJson.uri()).getParent().toFile();
+        Project project;
+
+        try{
+            AnalysisProfiler.Sample loading = profiler.start();
+            project = new Project(directory, threads, this, context);
+            profiler.recordPhase(AnalysisProfiler.Phase.LOADING, loading);
+        }
+        catch(Exception ex){
+            LOG.error("Could not load UiPath project '" + projectJson.uri() + "'. Skipping...", ex);
+            return;
+        }
+
+        LOG.info("Project: " + project.getInputFile().uri().toString());
+
+        AnalysisProfiler.Sample projectPhase = profiler.start();
+
+        for(AbstractProjectCheck check : projectChecks){
+            AnalysisProfiler.Sample sample = profiler.start();
+            Object event = EVENTS.beginCheck();
+
+            // The issues are captured, then flushed as they would have been reported, so the profiler can count them.
+            List<Issue> issues = issueSink.capture(() -> executeCheck(check, project));
+            issueSink.flush(issues);
+
+            profiler.recordCheck(check, null, sample, 0, issues.size());
+            EVENTS.commitCheck(event, check, null, 0, issues.size());
+        }
+
+        profiler.recordPhase(AnalysisProfiler.Phase.PROJECT_CHECKS, projectPhase);
+
+        AnalysisProfiler.Sample workflowPhase = profiler.start();
+        new CheckExecutor(threads, resultCache).execute(project, workflowChecks);
+        profiler.recordPhase(AnalysisProfiler.Phase.WORKFLOW_CHECKS, workflowPhase);
+
+        LOG.info(String.format("Analyzed project '%s' (%d workflow(s)) in %d ms",
+            project.getName(), project.getWorkflows().size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)));
+    }
+
+    private static void executeCheck(AbstractProjectCheck check, Project project){
+        try{
+            LOG.info(String.format("Executing check %s...", check.getRule().name()));
+            check.execute(project);
+        }
+        catch (Exception e){
+            LOG.error("Error when executing check '" + check.getRule().name() + "'", e);
         }
     }
 
+    private void loadProfiler(SensorContext context){
+        boolean profile = context.config().getBoolean(UiPathLanguageProperties.PROFILE_ENABLED_KEY)
+            .orElse(Boolean.parseBoolean(UiPathLanguageProperties.PROFILE_ENABLED_DEFAULT_VALUE));
+        profiler = profile ? AnalysisProfiler.enabled() : AnalysisProfiler.disabled();
+        profileTop = context.config().getInt(UiPathLanguageProperties.PROFILE_TOP_KEY)
+            .orElse(Integer.parseInt(UiPathLanguageProperties.PROFILE_TOP_DEFAULT_VALUE));
+    }
+
     private void loadSettings(SensorContext context){
-        projectFilePredicatePattern = context.config().get(UiPathLanguageProperties.PROJECT_FILE_PREDICATE_KEY).orElse("");
-        workflowFilePredicatePattern = context.config().get(UiPathLanguageProperties.WORKFLOW_FILE_PREDICATE_KEY).orElse("");
+        analysisThreads = context.config().getInt(UiPathLanguageProperties.ANALYSIS_THREADS_KEY).orElse(1);
+
+        if(analysisThreads <= 0){
+            analysisThreads = Runtime.getRuntime().availableProcessors();
+        }
+
+        documentCacheSize = context.config().getLong(UiPathLanguageProperties.DOCUMENT_CACHE_SIZE_KEY)
+            .orElse(Long.parseLong(UiPathLanguageProperties.DOCUMENT_CACHE_SIZE_DEFAULT_VALUE));
+
+        parseCache = loadParseCache(context);
+        resultCache = loadResultCache(context);
+
+        // The checks read their properties from a single snapshot, where regular expressions are already compiled.
+        // Rule parameters of the quality profile take precedence over the project settings.
+        List<AbstractCheck> checks = getActiveChecks();
+        AnalysisConfiguration configuration = AnalysisConfiguration.load(context.config(), checks);
+
+        for(AbstractCheck check : checks){
+            check.setConfiguration(configuration.with(check.getRuleParameters()));
+        }
+    }
+
+    /**
+     * Creates the checks of the active rules, with their parameters bound from the quality profile, in the order of
+     * the CheckRepository. Without a CheckFactory, the checks of the default quality profile are used.
+     */
+    private void loadChecks(){
+        if(checkFactory == null){
+            projectChecks = CheckRepository.getDefaultProjectChecks();
+            workflowChecks = CheckRepository.getDefaultWorkflowChecks();
+        }
+        else {
+            List<?> classes = CheckRepository.getAllCheckClasses();
+            Checks<AbstractCheck> checks = checkFactory.<AbstractCheck>create(CheckRepository.REPOSITORY_KEY)
+                .addAnnotatedChecks((Iterable<?>) classes);
+
+            List<AbstractCheck> active = new ArrayList<>(checks.all());
+            active.sort(Comparator.comparingInt(check -> classes.indexOf(check.getClass())));
+
+            projectChecks = new ArrayList<>();
+            workflowChecks = new ArrayList<>();
+
+            for(AbstractCheck check : active){
+                if(check instanceof AbstractProjectCheck){
+                    projectChecks.add((AbstractProjectCheck) check);
+                }
+                else if(check instanceof AbstractWorkflowCheck){
+                    workflowChecks.add((AbstractWorkflowCheck) check);
+                }
+            }
+        }
+
+        requiredData = EnumSet.noneOf(WorkflowData.class);
+        for(AbstractCheck check : getActiveChecks()){
+            requiredData.addAll(check.getRequiredData());
+        }
+
+        LOG.info(String.format("%d project check(s) and %d workflow check(s) are active", projectChecks.size(), workflowChecks.size()));
 
-        // Setting a reference to the SensorContext in the Rule so that they can grab their own properties.
-        for(AbstractCheck check : CheckRepository.getAllChecks()){
-            check.SetContext(context);
+        if(!requiredData.contains(WorkflowData.DOCUMENT)){
+            LOG.info("No active check reads workflow documents: workflows will not be parsed.");
         }
     }
 
+    private ParseCache loadParseCache(SensorContext context){
+        boolean enabled = context.config().getBoolean(UiPathLanguageProperties.PARSE_CACHE_ENABLED_KEY)
+            .orElse(Boolean.parseBoolean(UiPathLanguageProperties.PARSE_CACHE_ENABLED_DEFAULT_VALUE));
+
+        if(!enabled){
+            return ParseCache.disabled();
+        }
+
+        File directory = getCacheDirectory(context);
+        long maxSize = context.config().getLong(UiPathLanguageProperties.PARSE_CACHE_SIZE_KEY)
+            .orElse(Long.parseLong(UiPathLanguageProperties.PARSE_CACHE_SIZE_DEFAULT_VALUE));
+
+        LOG.info("Using parse cache in " + directory);
+
+        return new ParseCache(directory, maxSize * 1024 * 1024, UiPathPlugin.getBuildFingerprint());
+    }
+
+    private ResultCache loadResultCache(SensorContext context){
+        boolean enabled = context.config().getBoolean(UiPathLanguageProperties.RESULT_CACHE_ENABLED_KEY)
+            .orElse(Boolean.parseBoolean(UiPathLanguageProperties.RESULT_CACHE_ENABLED_DEFAULT_VALUE));
+
+        if(!enabled){
+            return ResultCache.disabled();
+        }
+
+        // Replaying the issues of another build of the checks would report wrong issues, and nobody would notice.
+        if(UiPathPlugin.UNKNOWN.equals(UiPathPlugin.getBuild())){
+            LOG.warn("The build of the UiPath plugin is unknown, so its cached results can't be told from those of another build. The result cache is disabled.");
+            return ResultCache.disabled();
+        }
+
+        File directory = new File(getCacheDirectory(context), "results");
+        long maxSize = context.config().getLong(UiPathLanguageProperties.RESULT_CACHE_SIZE_KEY)
+            .orElse(Long.parseLong(UiPathLanguageProperties.RESULT_CACHE_SIZE_DEFAULT_VALUE));
+
+        LOG.info("Using result cache in " + directory);
+
+        return new ResultCache(directory, maxSize * 1024 * 1024, UiPathPlugin.getBuildFingerprint());
+    }
+
+    /**
+     * Logs the slowest checks and workflows, and writes the whole profile to the scanner working directory.
+     */
+    private void writeProfile(SensorContext context){
+        profiler.log(profileTop);
+
+        File file = new File(context.fileSystem().workDir(), PROFILE_FILE_NAME);
+
+        try{
+            profiler.write(file);
+            LOG.info("Analysis profile written to " + file);
+        }
+        catch(IOException e){
+            LOG.warn("Could not write the analysis profile to '" + file + "'", e);
+        }
+    }
+
+    private static File getCacheDirectory(SensorContext context){
+        String path = context.config().get(UiPathLanguageProperties.PARSE_CACHE_PATH_KEY).orElse("");
+        return path.isEmpty() ? new File(context.fileSystem().workDir(), "uipath-cache") : new File(path);
+    }
+
     private void configure(SensorContext context){
+        projectFilePredicatePattern = context.config().get(UiPathLanguageProperties.PROJECT_FILE_PREDICATE_KEY).orElse("");
+        workflowFilePredicatePattern = context.config().get(UiPathLanguageProperties.WORKFLOW_FILE_PREDICATE_KEY).orElse("");
+
         this.fileSystem = context.fileSystem();
+        this.workflowInputFiles = null;
 
         this.projectJsonPredicate = fileSystem.predicates()
             .matchesPathPattern(projectFilePredicatePattern);
@@ -128,15 +402,25 @@ public class UiPathSensor implements Sensor{
 
         this.allPredicate = this.fileSystem.predicates().or(projectJsonPredicate, workflowPredicate);
 
-        Issues.setContext(context);
+        this.issueSink = new IssueSink(context);
     }
 
     public boolean hasProjectJson(){
         return fileSystem.hasFiles(projectJsonPredicate);
     }
 
-    public InputFile getProjectJson(){
-        return fileSystem.inputFile(projectJsonPredicate);
+    /**
+     * Returns every project.json InputFile indexed by Sonar, sorted by URI.
+     */
+    public List<InputFile> getProjectJsons(){
+        List<InputFile> projectJsons = new ArrayList<>();
+        fileSystem.inputFiles(projectJsonPredicate).forEach(projectJsons::add);
+        projectJsons.sort(Comparator.comparing(InputFile::uri));
+        return projectJsons;
+    }
+
+    public InputFile getProjectJson(File directory){
+        return projectJsons.get(normalize(directory.toPath()));
     }
 
     public boolean hasWorkflows(){
@@ -147,14 +431,113 @@ public class UiPathSensor implements Sensor{
         return fileSystem.inputFiles(workflowPredicate);
     }
 
-    public Optional<InputFile> getInputFileForWorkflow(File file) {
-        for(InputFile inputFile : getWorkflowInputFiles()){
-            if(inputFile.uri().equals(file.toURI())){
-                return Optional.of(inputFile);
+    /**
+     * Returns the workflow InputFiles of the project in the given directory, keyed by File.
+     */
+    public Map<File, InputFile> getWorkflowInputFiles(File directory){
+        return projectWorkflows.getOrDefault(normalize(directory.toPath()), Collections.emptyMap());
+    }
+
+    /**
+     * Returns every workflow InputFile indexed by Sonar, keyed by URI. The map is built by a single pass over the
+     * FileSystem, on first access.
+     */
+    public Map<URI, InputFile> getWorkflowInputFilesByUri(){
+        if(workflowInputFiles == null){
+            Map<URI, InputFile> inputFiles = new LinkedHashMap<>();
+
+            for(InputFile inputFile : getWorkflowInputFiles()){
+                inputFiles.put(inputFile.uri(), inputFile);
             }
+
+            workflowInputFiles = inputFiles;
         }
 
-        return Optional.empty();
+        return workflowInputFiles;
+    }
+
+    /**
+     * Assigns every workflow InputFile to the project in the closest directory above it, so that the workflows of a
+     * nested project are only analyzed as part of that project.
+     */
+    private void indexProjects(List<InputFile> projectJsonFiles){
+        projectJsons = new HashMap<>();
+        projectWorkflows = new HashMap<>();
+
+        for(InputFile projectJson : projectJsonFiles){
+            projectJsons.put(normalize(Paths.get(projectJson.uri()).getParent()), projectJson);
+        }
+
+        for(Map.Entry<URI, InputFile> entry : getWorkflowInputFilesByUri().entrySet()){
+            Path path = normalize(Paths.get(entry.getKey()));
+
+            for(Path directory = path.getParent(); directory != null; directory = directory.getParent()){
+                if(projectJsons.containsKey(directory)){
+                    projectWorkflows.computeIfAbsent(directory, key -> new HashMap<>()).put(path.toFile(), entry.getValue());
+                    break;
+                }
+            }
+        }
+    }
+
+    private static Path normalize(Path path){
+        return path.toAbsolutePath().normalize();
+    }
+
+    public int getAnalysisThreads(){
+        return analysisThreads;
+    }
+
+    public long getDocumentCacheSize(){
+        return documentCacheSize;
+    }
+
+    /**
+     * Returns the checks of the active rules, project checks first.
+     */
+    public List<AbstractCheck> getActiveChecks(){
+        List<AbstractCheck> checks = new ArrayList<>(projectChecks);
+        checks.addAll(workflowChecks);
+        return checks;
+    }
+
+    public List<AbstractProjectCheck> getProjectChecks(){
+        return projectChecks;
+    }
+
+    public List<AbstractWorkflowCheck> getWorkflowChecks(){
+        return workflowChecks;
+    }
+
+    /**
+     * Returns what the active checks read from workflows.
+     */
+    public Set<WorkflowData> getRequiredData(){
+        return requiredData;
+    }
+
+    public AnalysisProfiler getProfiler(){
+        return profiler;
+    }
+
+    public IssueSink getIssueSink(){
+        return issueSink;
+    }
+
+    public DocumentCache getDocumentCache(){
+        return documentCache;
+    }
+
+    public ParseCache getParseCache(){
+        return parseCache;
+    }
+
+    public ResultCache getResultCache(){
+        return resultCache;
+    }
+
+    public Optional<InputFile> getInputFileForWorkflow(File file) {
+        return Optional.ofNullable(getWorkflowInputFilesByUri().get(file.toURI()));
     }
 
     @Override
@@ -0,0 +1,14 @@
+package com.uipath.sonar.plugin;
+
+/**
+ * WorkflowData lists what a check may read from the workflows of a project. The UiPathSensor only loads the data the
+ * active checks declare, see AbstractCheck.getRequiredData().
+ */
+public enum WorkflowData {
+
+    /** The arguments of a workflow, read from the x:Members header of its file. */
+    SIGNATURE,
+
+    /** The XAML document of a workflow, and the invocations it makes. */
+    DOCUMENT
+}
@@ -1,20 +1,27 @@
 package com.uipath.sonar.plugin.checks;
 
 import com.uipath.sonar.plugin.AbstractWorkflowCheck;
+import com.uipath.sonar.plugin.WorkflowData;
+import com.uipath.sonar.plugin.naming.Classification;
+import com.uipath.sonar.plugin.naming.NamingConventions;
 import com.uipath.sonar.plugin.uipath.Project;
 import com.uipath.sonar.plugin.uipath.Workflow;
 import com.uipath.sonar.plugin.uipath.WorkflowArgument;
 import com.uipath.sonar.plugin.uipath.WorkflowArgument.Direction;
+import org.sonar.api.PropertyType;
 import org.sonar.api.config.PropertyDefinition;
 import org.sonar.api.resources.Qualifiers;
 import org.sonar.api.utils.log.Logger;
 import org.sonar.api.utils.log.Loggers;
 import org.sonar.check.Priority;
 import org.sonar.check.Rule;
+import org.sonar.check.RuleProperty;
 
 import java.util.Arrays;
+import java.util.EnumSet;
 import java.util.List;
-import java.util.regex.Pattern;
+import java.util.Map;
+import java.util.Set;
 
 @Rule(
     key = "ArgumentConventionCheck",
@@ -35,28 +42,57 @@ public class ArgumentConventionCheck extends AbstractWorkflowCheck {
     private static final String IO_ARGUMENT_FORMAT_KEY = "uipath.check.argumentconventioncheck.ioargformat";
     private static final String IO_ARGUMENT_FORMAT_DEFAULT_VALUE = "^io_[A-Z][\\w\\d]+$";
 
+    // In the order of the Direction values.
+    private static final List<String> FORMAT_KEYS = Arrays.asList(IN_ARGUMENT_FORMAT_KEY, OUT_ARGUMENT_FORMAT_KEY, IO_ARGUMENT_FORMAT_KEY);
+
+    // Rule parameters of the quality profile. Blank ones leave the project settings in effect.
+    @RuleProperty(key = "inArgFormat", description = "Naming convention format for input arguments, defined as a regular expression. Leave blank to use the '" + IN_ARGUMENT_FORMAT_KEY + "' setting.")
+    private String inArgFormat = "";
+
+    @RuleProperty(key = "outArgFormat", description = "Naming convention format for output arguments, defined as a regular expression. Leave blank to use the '" + OUT_ARGUMENT_FORMAT_KEY + "' setting.")
+    private String outArgFormat = "";
+
+    @RuleProperty(key = "ioArgFormat", description = "Naming convention format for input/output arguments, defined as a regular expression. Leave blank to use the '" + IO_ARGUMENT_FORMAT_KEY + "' setting.")
+    private String ioArgFormat = "";
+
     public ArgumentConventionCheck(){
         super();
     }
 
+    @Override
+    public Set<WorkflowData> getRequiredData(){
+        return EnumSet.of(WorkflowData.SIGNATURE);
+    }
+
+    @Override
+    public Map<String, String> getRuleParameters(){
+        return ruleParameters(
+            IN_ARGUMENT_FORMAT_KEY, inArgFormat,
+            OUT_ARGUMENT_FORMAT_KEY, outArgFormat,
+            IO_ARGUMENT_FORMAT_KEY, ioArgFormat);
+    }
+
     @Override
     public List<PropertyDefinition> defineProperties(){
 
         return Arrays.asList(
             PropertyDefinition.builder(IN_ARGUMENT_FORMAT_KEY)
                 .defaultValue(IN_ARGUMENT_FORMAT_DEFAULT_VALUE)
+                .type(PropertyType.REGULAR_EXPRESSION)
                 .name("InArgument Convention Format")
                 .description("Naming convention format for input arguments, defined as a regular expression.")
                 .onQualifiers(Qualifiers.PROJECT)
                 .build(),
             PropertyDefinition.builder(OUT_ARGUMENT_FORMAT_KEY)
                 .defaultValue(OUT_ARGUMENT_FORMAT_DEFAULT_VALUE)
+                .type(PropertyType.REGULAR_EXPRESSION)
                 .name("OutArgument Convention Format")
                 .description("Naming convention format for output arguments, defined as a regular expression.")
                 .onQualifiers(Qualifiers.PROJECT)
                 .build(),
             PropertyDefinition.builder(IO_ARGUMENT_FORMAT_KEY)
                 .defaultValue(IO_ARGUMENT_FORMAT_DEFAULT_VALUE)
+                .type(PropertyType.REGULAR_EXPRESSION)
                 .name("InOutArgument Convention Format")
                 .description("Naming convention format for input/output arguments, defined as a regular expression.")
                 .onQualifiers(Qualifiers.PROJECT)
@@ -67,25 +103,14 @@ public class ArgumentConventionCheck extends AbstractWorkflowCheck {
     @Override
     public void execute(Project project, Workflow workflow) {
 
+        NamingConventions conventions = getNamingConventions(FORMAT_KEYS);
+
         for(WorkflowArgument arg : workflow.getArguments()) {
-            String name = arg.getName();
-
-            switch(arg.getDirection()){
-                case In:
-                    Pattern inPattern = Pattern.compile(getInArgFormat());
-                    if(!inPattern.matcher(name).find())
-                        reportIssue(workflow, arg);
-                    break;
-                case Out:
-                    Pattern outPattern = Pattern.compile(getOutArgFormat());
-                    if(!outPattern.matcher(name).find())
-                        reportIssue(workflow, arg);
-                    break;
-                case InOut:
-                    Pattern inOutPattern = Pattern.compile(getInOutArgFormat());
-                    if(!inOutPattern.matcher(name).find())
-                        reportIssue(workflow, arg);
-                    break;
+            int convention = arg.getDirection().ordinal();
+            Classification classification = conventions.classify(arg.getName());
+
+            if(conventions.isDefined(convention) && !classification.matches(convention) && !classification.isUndetermined(convention)){
+                reportIssue(workflow, arg);
             }
         }
     }
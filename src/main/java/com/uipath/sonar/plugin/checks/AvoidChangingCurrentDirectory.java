@@ -1,10 +1,11 @@
 package com.uipath.sonar.plugin.checks;
 
-import com.uipath.sonar.plugin.AbstractWorkflowCheck;
+import com.uipath.sonar.plugin.AbstractActivityCheck;
+import com.uipath.sonar.plugin.ActivitySubscription;
 import com.uipath.sonar.plugin.uipath.Project;
 import com.uipath.sonar.plugin.uipath.Workflow;
+import com.uipath.sonar.plugin.uipath.XamlNamespaces;
 import org.dom4j.Element;
-import org.dom4j.Node;
 import org.sonar.api.utils.log.Logger;
 import org.sonar.api.utils.log.Loggers;
 import org.sonar.check.Priority;
@@ -20,7 +21,7 @@ import java.util.List;
     priority = Priority.MAJOR,
     tags = {"workflow"}
 )
-public class AvoidChangingCurrentDirectory extends AbstractWorkflowCheck {
+public class AvoidChangingCurrentDirectory extends AbstractActivityCheck {
 
     private static final Logger LOG = Loggers.get(AvoidChangingCurrentDirectory.class);
 
@@ -28,17 +29,25 @@ public class AvoidChangingCurrentDirectory extends AbstractWorkflowCheck {
         super();
     }
 
-    public void execute(Project project, Workflow workflow){
-        List<Node> nodes = workflow.getXamlDocument().selectNodes("//xa:Assign/xa:Assign.To/xa:OutArgument");
+    @Override
+    public ActivitySubscription subscribe(){
+        return ActivitySubscription.forElements(XamlNamespaces.activities("Assign"));
+    }
+
+    @Override
+    public void visit(Project project, Workflow workflow, List<Element> elements){
 
-        for(Node node : nodes){
-           Element element = (Element)node;
+        for(Element assign : elements){
+            for(Element assignTo : assign.elements(XamlNamespaces.activities("Assign.To"))){
+                for(Element element : assignTo.elements(XamlNamespaces.activities("OutArgument"))){
 
-           String text = element.getText();
+                    String text = element.getText();
 
-           if(text.equals("[Environment.CurrentDirectory]")){
-               reportIssue(workflow, "Altering the Environment.CurrentDirectory property should be avoided.");
-           }
+                    if(text.equals("[Environment.CurrentDirectory]")){
+                        reportIssue(workflow, element, "Altering the Environment.CurrentDirectory property should be avoided.");
+                    }
+                }
+            }
         }
     }
 }
@@ -1,9 +1,11 @@
 package com.uipath.sonar.plugin.checks;
 
-import com.uipath.sonar.plugin.AbstractWorkflowCheck;
+import com.uipath.sonar.plugin.AbstractActivityCheck;
+import com.uipath.sonar.plugin.ActivitySubscription;
 import com.uipath.sonar.plugin.uipath.Project;
 import com.uipath.sonar.plugin.uipath.Workflow;
-import org.dom4j.Node;
+import com.uipath.sonar.plugin.uipath.XamlNamespaces;
+import org.dom4j.Element;
 import org.sonar.check.Priority;
 import org.sonar.check.Rule;
 
@@ -17,17 +19,21 @@ import java.util.List;
     priority = Priority.MAJOR,
     tags = {"activity"}
 )
-public class AvoidLogMessageCheck extends AbstractWorkflowCheck {
+public class AvoidLogMessageCheck extends AbstractActivityCheck {
 
     public AvoidLogMessageCheck(){
         super();
     }
 
-    public void execute(Project project, Workflow workflow){
-        List<Node> nodes = workflow.getXamlDocument().selectNodes("//ui:LogMessage");
+    @Override
+    public ActivitySubscription subscribe(){
+        return ActivitySubscription.forElements(XamlNamespaces.uipath("LogMessage"));
+    }
 
-        if(nodes.size() > 0){
-            reportIssue(workflow, "Avoid using the 'Log Message' activity. Use ??? instead.");
+    @Override
+    public void visit(Project project, Workflow workflow, List<Element> elements){
+        if(elements.size() > 0){
+            reportIssue(workflow, elements.get(0), "Avoid using the 'Log Message' activity. Use ??? instead.");
         }
     }
 
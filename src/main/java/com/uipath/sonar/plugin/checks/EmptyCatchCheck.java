@@ -1,13 +1,15 @@
 package com.uipath.sonar.plugin.checks;
 
-import com.uipath.sonar.plugin.AbstractWorkflowCheck;
+import com.uipath.sonar.plugin.AbstractActivityCheck;
+import com.uipath.sonar.plugin.ActivitySubscription;
 import com.uipath.sonar.plugin.uipath.Project;
 import com.uipath.sonar.plugin.uipath.Workflow;
+import com.uipath.sonar.plugin.uipath.XamlNamespaces;
 import org.dom4j.Element;
-import org.dom4j.Node;
 import org.sonar.check.Priority;
 import org.sonar.check.Rule;
 
+import java.util.ArrayList;
 import java.util.List;
 
 @Rule(
@@ -18,28 +20,43 @@ import java.util.List;
     priority = Priority.MAJOR,
     tags = {"workflow"}
 )
-public class EmptyCatchCheck extends AbstractWorkflowCheck {
+public class EmptyCatchCheck extends AbstractActivityCheck {
 
     public EmptyCatchCheck(){
         super();
     }
 
-    public void execute(Project project, Workflow workflow){
-        List<Node> nodes = workflow.getXamlDocument().selectNodes("//xa:TryCatch");
-        for(Node tryCatchNode : nodes){
-            Element tryCatchElement = (Element)tryCatchNode;
+    @Override
+    public ActivitySubscription subscribe(){
+        return ActivitySubscription.forElements(XamlNamespaces.activities("TryCatch"));
+    }
+
+    @Override
+    public void visit(Project project, Workflow workflow, List<Element> elements){
+        for(Element tryCatchElement : elements){
 
             String displayName = tryCatchElement.attributeValue("DisplayName");
 
-            for(Node activityActionNode : tryCatchElement.selectNodes("//xa:TryCatch.Catches/xa:Catch/xa:ActivityAction")){
-                Element activityActionElement = (Element)activityActionNode;
+            for(Element activityActionElement : getActivityActions(tryCatchElement)){
 
                 String exceptionType = activityActionElement.attributeValue("TypeArguments").split(":")[1];
 
                 if(activityActionElement.elements().size() < 2){
-                    reportIssue(workflow, "Catch block of '" + displayName + "', catch block for exception type '" + exceptionType +"' should not be empty.");
+                    reportIssue(workflow, activityActionElement, "Catch block of '" + displayName + "', catch block for exception type '" + exceptionType +"' should not be empty.");
                 }
             }
         }
     }
+
+    private static List<Element> getActivityActions(Element tryCatchElement){
+        List<Element> activityActions = new ArrayList<>();
+
+        for(Element catches : tryCatchElement.elements(XamlNamespaces.activities("TryCatch.Catches"))){
+            for(Element catchElement : catches.elements(XamlNamespaces.activities("Catch"))){
+                activityActions.addAll(catchElement.elements(XamlNamespaces.activities("ActivityAction")));
+            }
+        }
+
+        return activityActions;
+    }
 }
@@ -1,20 +1,21 @@
 package com.uipath.sonar.plugin.checks;
 
 import com.uipath.sonar.plugin.AbstractWorkflowCheck;
+import com.uipath.sonar.plugin.WorkflowData;
+import com.uipath.sonar.plugin.uipath.Invocation;
 import com.uipath.sonar.plugin.uipath.Project;
-import com.uipath.sonar.plugin.uipath.Utils;
+import com.uipath.sonar.plugin.uipath.SignatureDiff;
 import com.uipath.sonar.plugin.uipath.Workflow;
 import com.uipath.sonar.plugin.uipath.WorkflowArgument;
-import org.dom4j.Element;
-import org.dom4j.Node;
+import com.uipath.sonar.plugin.uipath.WorkflowSignature;
 import org.sonar.api.utils.log.Logger;
 import org.sonar.api.utils.log.Loggers;
 import org.sonar.check.Priority;
 import org.sonar.check.Rule;
 
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.List;
+import java.util.EnumSet;
+import java.util.Optional;
+import java.util.Set;
 
 @Rule(
     key = "InvokeWorkflowFileArgumentCheck",
@@ -28,104 +29,51 @@ public class InvokeWorkflowFileArgumentCheck extends AbstractWorkflowCheck {
 
     private static final Logger LOG = Loggers.get(ArgumentConventionCheck.class);
 
-    private static final List<String> ARG_ELEMENT_NAMES = Arrays.asList( "InArgument", "OutArgument", "InOutArgument" );
-
     public InvokeWorkflowFileArgumentCheck(){
         super();
     }
 
     @Override
-    public void execute(Project project, Workflow workflow){
-        List<Node> nodes = workflow.getXamlDocument().selectNodes("//ui:InvokeWorkflowFile");
-
-        for(Node node : nodes) {
-            Element element = (Element) node;
-
-            if(Utils.nodeIsCode(element.attributeValue("WorkflowFileName"))){
-                continue;
-            }
-
-            InvokeWorkflowFileMetadata iwfMetadata = extractMetadataFromInvokeWorkflowFile(element);
-            executeExtraArgs(project, workflow, iwfMetadata);
-            executeMissingArgs(project, workflow, iwfMetadata);
-        }
+    public Set<WorkflowData> getRequiredData(){
+        return EnumSet.of(WorkflowData.DOCUMENT, WorkflowData.SIGNATURE);
     }
 
-    private InvokeWorkflowFileMetadata extractMetadataFromInvokeWorkflowFile(Element invokeWorkflowFileElement){
-
-        List<Node> descendantNodes = invokeWorkflowFileElement.selectNodes("ui:InvokeWorkflowFile.Arguments/*");
-
-        String activityName = invokeWorkflowFileElement.attributeValue("DisplayName");
-        String filePath = invokeWorkflowFileElement.attributeValue("WorkflowFileName");
-
-        ArrayList<WorkflowArgument> arguments = new ArrayList<>();
-
-        for(Node descendantNode : descendantNodes) {
-
-            Element descendant = (Element) descendantNode;
-
-            if (ARG_ELEMENT_NAMES.contains(descendant.getName())) {
-
-                String name = descendant.attributeValue("Key");
-                String type = descendant.attributeValue("TypeArguments");
+    @Override
+    public void execute(Project project, Workflow workflow){
 
-                WorkflowArgument.Direction direction =
-                    descendant.getName().equals("InArgument") ? WorkflowArgument.Direction.In
-                        : descendant.getName().equals("OutArgument") ? WorkflowArgument.Direction.Out
-                        : WorkflowArgument.Direction.InOut;
+        for(Invocation invocation : project.getInvocationGraph().getInvocations(workflow)) {
 
-                arguments.add(new WorkflowArgument(name, type, direction));
+            if(!invocation.isLiteral()){
+                continue;
             }
-        }
 
-        return new InvokeWorkflowFileMetadata(activityName, filePath, arguments);
-    }
+            Optional<WorkflowSignature> invokedSignature = invocation.getTarget().map(Workflow::getSignature);
 
-    private void executeExtraArgs(Project project, Workflow workflow, InvokeWorkflowFileMetadata iwfMetadata) {
-        Workflow invokedWorkflow = project.getWorkflowWithPath(iwfMetadata.getPath()).get();  // TODO, handle
+            // A missing workflow is reported by InvokeWorkflowFileExistsCheck.
+            if(invokedSignature.isPresent()){
+                SignatureDiff diff = invokedSignature.get().diff(invocation.getSuppliedArguments());
 
-        for(WorkflowArgument arg : iwfMetadata.getArguments()){
-            if(!invokedWorkflow.getArguments().contains(arg)){
-                reportIssue(workflow,
-                    "Invalid Invocation of '" + iwfMetadata.path
-                        + "' in activity '" + iwfMetadata.getActivityName() + "'. Supplied argument '" + arg.getName() + "' does not exist.");
+                reportExtraArgs(workflow, invocation, diff);
+                reportMissingArgs(workflow, invocation, diff);
             }
         }
     }
 
-    private void executeMissingArgs(Project project, Workflow workflow, InvokeWorkflowFileMetadata iwfMetadata) {
-        Workflow invokedWorkflow = project.getWorkflowWithPath(iwfMetadata.path).get();  // TODO, handle
+    private void reportExtraArgs(Workflow workflow, Invocation invocation, SignatureDiff diff) {
 
-        for(WorkflowArgument arg : invokedWorkflow.getArguments()){
-            if(!iwfMetadata.getArguments().contains(arg)){
-                reportIssue(workflow,
-                    "Invalid Invocation of '" + iwfMetadata.path
-                        + "' in activity '" + iwfMetadata.getActivityName() + "'. Argument '" + arg.getName() + "' was not supplied.");
-            }
+        for(WorkflowArgument arg : diff.getExtraArguments()){
+            reportIssue(workflow, invocation.getElement(),
+                "Invalid Invocation of '" + invocation.getPath()
+                    + "' in activity '" + invocation.getActivityName() + "'. Supplied argument '" + arg.getName() + "' does not exist.");
         }
     }
 
-    private class InvokeWorkflowFileMetadata {
-        private String activityName;
-        private String path;
-        private ArrayList<WorkflowArgument> arguments;
-
-        public InvokeWorkflowFileMetadata(String activityName, String path, ArrayList<WorkflowArgument> arguments){
-            this.activityName = activityName;
-            this.path = path;
-            this.arguments = arguments;
-        }
-
-        public String getActivityName(){
-            return activityName;
-        }
-
-        public String getPath(){
-            return path;
-        }
+    private void reportMissingArgs(Workflow workflow, Invocation invocation, SignatureDiff diff) {
 
-        public ArrayList<WorkflowArgument> getArguments(){
-            return arguments;
+        for(WorkflowArgument arg : diff.getMissingArguments()){
+            reportIssue(workflow, invocation.getElement(),
+                "Invalid Invocation of '" + invocation.getPath()
+                    + "' in activity '" + invocation.getActivityName() + "'. Argument '" + arg.getName() + "' was not supplied.");
         }
     }
 }
@@ -1,17 +1,17 @@
 package com.uipath.sonar.plugin.checks;
 
 import com.uipath.sonar.plugin.AbstractWorkflowCheck;
+import com.uipath.sonar.plugin.WorkflowData;
+import com.uipath.sonar.plugin.uipath.Invocation;
 import com.uipath.sonar.plugin.uipath.Project;
-import com.uipath.sonar.plugin.uipath.Utils;
 import com.uipath.sonar.plugin.uipath.Workflow;
-import org.dom4j.Element;
-import org.dom4j.Node;
 import org.sonar.api.utils.log.Logger;
 import org.sonar.api.utils.log.Loggers;
 import org.sonar.check.Priority;
 import org.sonar.check.Rule;
 
-import java.util.List;
+import java.util.EnumSet;
+import java.util.Set;
 
 @Rule(
     key = "InvokeWorkflowFileExistsCheck",
@@ -30,25 +30,22 @@ public class InvokeWorkflowFileExistsCheck extends AbstractWorkflowCheck {
     }
 
     @Override
-    public void execute(Project project, Workflow workflow){
+    public Set<WorkflowData> getRequiredData(){
+        return EnumSet.of(WorkflowData.DOCUMENT);
+    }
 
-        List<Node> nodes = workflow.getXamlDocument().selectNodes("//ui:InvokeWorkflowFile");
+    @Override
+    public void execute(Project project, Workflow workflow){
 
-        for(Node node : nodes) {
-            Element element = (Element) node;
-            String workflowFilename = element.attributeValue("WorkflowFileName");
+        for(Invocation invocation : project.getInvocationGraph().getInvocations(workflow)) {
 
-            if(Utils.nodeIsCode(workflowFilename)){
+            if(!invocation.isLiteral()){
                 continue;  // This is code, not a literal string.
             }
 
-            boolean workflowExists = project.getWorkflowWithPath(element.attributeValue("WorkflowFileName")).isPresent();
-
-            if(!workflowExists){
-                String displayName = element.attributeValue("DisplayName");
-
-                reportIssue(workflow, "Invoked workflow '" + workflowFilename + "' for activity '" + displayName +"' does not exist.");
+            if(!invocation.getTarget().isPresent()){
+                reportIssue(workflow, invocation.getElement(), "Invoked workflow '" + invocation.getPath() + "' for activity '" + invocation.getActivityName() +"' does not exist.");
             }
         }
     }
-}
\ No newline at end of file
+}
@@ -1,17 +1,18 @@
 package com.uipath.sonar.plugin.checks;
 
 import com.uipath.sonar.plugin.AbstractWorkflowCheck;
+import com.uipath.sonar.plugin.WorkflowData;
+import com.uipath.sonar.plugin.uipath.Invocation;
 import com.uipath.sonar.plugin.uipath.Project;
 import com.uipath.sonar.plugin.uipath.Utils;
 import com.uipath.sonar.plugin.uipath.Workflow;
-import org.dom4j.Element;
-import org.dom4j.Node;
 import org.sonar.check.Priority;
 import org.sonar.check.Rule;
 
 import java.net.URI;
 import java.net.URISyntaxException;
-import java.util.List;
+import java.util.EnumSet;
+import java.util.Set;
 
 @Rule(
     key = "InvokeWorkflowFilePathCheck",
@@ -28,15 +29,17 @@ public class InvokeWorkflowFilePathCheck extends AbstractWorkflowCheck {
     }
 
     @Override
-    public void execute(Project project, Workflow workflow){
+    public Set<WorkflowData> getRequiredData(){
+        return EnumSet.of(WorkflowData.DOCUMENT);
+    }
 
-        List<Node> nodes = workflow.getXamlDocument().selectNodes("//ui:InvokeWorkflowFile");
+    @Override
+    public void execute(Project project, Workflow workflow){
 
-        for(Node node : nodes) {
-            Element element = (Element) node;
-            String workflowFilename = element.attributeValue("WorkflowFileName");
+        for(Invocation invocation : project.getInvocationGraph().getInvocations(workflow)) {
+            String workflowFilename = invocation.getPath();
 
-            if(Utils.nodeIsCode(workflowFilename)){
+            if(!invocation.isLiteral()){
                 continue;
             }
 
@@ -44,11 +47,11 @@ public class InvokeWorkflowFilePathCheck extends AbstractWorkflowCheck {
                 URI uri = Utils.getURI(workflowFilename);
 
                 if(uri.isAbsolute()){
-                    reportIssue(workflow, "The path the workflow file should be relative and contained in the project.");
+                    reportIssue(workflow, invocation.getElement(), "The path the workflow file should be relative and contained in the project.");
                 }
             }
             catch(URISyntaxException e){
-                reportIssue(workflow, "Could not parse path of '\" + workflowFilename + \"'. Ensure that it is valid.");
+                reportIssue(workflow, invocation.getElement(), "Could not parse path of '\" + workflowFilename + \"'. Ensure that it is valid.");
             }
         }
     }
@@ -1,12 +1,15 @@
 package com.uipath.sonar.plugin.checks;
 
 import com.uipath.sonar.plugin.AbstractProjectCheck;
+import com.uipath.sonar.plugin.WorkflowData;
 import com.uipath.sonar.plugin.uipath.Project;
 import org.sonar.check.Priority;
 import org.sonar.check.Rule;
 
 import java.io.File;
 import java.nio.file.Files;
+import java.util.EnumSet;
+import java.util.Set;
 
 @Rule(
     key = "ValidateMainWorkflowCheck",
@@ -22,6 +25,11 @@ public class ValidateMainWorkflowCheck extends AbstractProjectCheck {
         super();
     }
 
+    @Override
+    public Set<WorkflowData> getRequiredData(){
+        return EnumSet.noneOf(WorkflowData.class);
+    }
+
     @Override
     public void execute(Project project){
 
@@ -1,18 +1,24 @@
 package com.uipath.sonar.plugin.checks;
 
-import com.uipath.sonar.plugin.AbstractWorkflowCheck;
+import com.uipath.sonar.plugin.AbstractActivityCheck;
+import com.uipath.sonar.plugin.ActivitySubscription;
+import com.uipath.sonar.plugin.naming.Classification;
+import com.uipath.sonar.plugin.naming.NamingConventions;
 import com.uipath.sonar.plugin.uipath.Project;
 import com.uipath.sonar.plugin.uipath.Workflow;
+import com.uipath.sonar.plugin.uipath.XamlNamespaces;
 import org.dom4j.Element;
-import org.dom4j.Node;
+import org.sonar.api.PropertyType;
 import org.sonar.api.config.PropertyDefinition;
 import org.sonar.api.resources.Qualifiers;
 import org.sonar.check.Priority;
 import org.sonar.check.Rule;
+import org.sonar.check.RuleProperty;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
-import java.util.regex.Pattern;
+import java.util.Map;
 
 /**
  * VariableConventionCheck verifies that variables in a workflow follow naming conventions.
@@ -26,21 +32,32 @@ import java.util.regex.Pattern;
     priority = Priority.MINOR,
     tags = {"workflow"}
 )
-public class VariableConventionCheck extends AbstractWorkflowCheck {
+public class VariableConventionCheck extends AbstractActivityCheck {
 
     public static final String VARIABLE_FORMAT_KEY = "uipath.check.variableconventioncheck.format";
     private static final String VARIABLE_FORMAT_DEFAULT_VALUE = "^[a-z][\\w\\d]*$";
+    private static final List<String> FORMAT_KEYS = Collections.singletonList(VARIABLE_FORMAT_KEY);
+
+    // Rule parameter of the quality profile. When blank, the project setting is in effect.
+    @RuleProperty(key = "format", description = "Naming convention format for variables, defined as a regular expression. Leave blank to use the '" + VARIABLE_FORMAT_KEY + "' setting.")
+    private String format = "";
 
     public VariableConventionCheck(){
         super();
     }
 
+    @Override
+    public Map<String, String> getRuleParameters(){
+        return ruleParameters(VARIABLE_FORMAT_KEY, format);
+    }
+
     @Override
     public List<PropertyDefinition> defineProperties(){
 
         return Arrays.asList(
             PropertyDefinition.builder(VARIABLE_FORMAT_KEY)
                 .defaultValue(VARIABLE_FORMAT_DEFAULT_VALUE)
+                .type(PropertyType.REGULAR_EXPRESSION)
                 .name("Variable Convention Format")
                 .description("Naming convention format for variables, defined as a regular expression.")
                 .onQualifiers(Qualifiers.PROJECT)
@@ -48,19 +65,26 @@ public class VariableConventionCheck extends AbstractWorkflowCheck {
     }
 
     @Override
-    public void execute(Project project, Workflow workflow){
+    public ActivitySubscription subscribe(){
+        return ActivitySubscription.forElements(XamlNamespaces.activities("Variable"));
+    }
+
+    @Override
+    public void visit(Project project, Workflow workflow, List<Element> elements){
 
-        List<Node> nodes = workflow.getXamlDocument().selectNodes("//xa:Variable");
+        NamingConventions conventions = getNamingConventions(FORMAT_KEYS);
 
-        Pattern formatPattern = Pattern.compile(getVariableFormat());
+        if(!conventions.isDefined(0)){
+            return;
+        }
 
-        for(Node node : nodes){
-           Element element = (Element)node;
+        for(Element element : elements){
 
            String name = element.attributeValue("Name");
+           Classification classification = conventions.classify(name);
 
-           if(!formatPattern.matcher(name).find()){
-               reportIssue(workflow, "Variable '" + name + "' does not follow convention. Variables should match the format '" + getVariableFormat() + "'.");
+           if(!classification.matches(0) && !classification.isUndetermined(0)){
+               reportIssue(workflow, element, "Variable '" + name + "' does not follow convention. Variables should match the format '" + getVariableFormat() + "'.");
            }
         }
     }
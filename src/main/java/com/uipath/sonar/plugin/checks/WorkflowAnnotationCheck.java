@@ -1,16 +1,20 @@
 package com.uipath.sonar.plugin.checks;
 
 import com.uipath.sonar.plugin.AbstractWorkflowCheck;
+import com.uipath.sonar.plugin.WorkflowData;
 import com.uipath.sonar.plugin.uipath.Project;
 import com.uipath.sonar.plugin.uipath.Workflow;
+import com.uipath.sonar.plugin.uipath.XamlNamespaces;
+import com.uipath.sonar.plugin.uipath.XamlQuery;
 import org.dom4j.Node;
-import org.dom4j.XPathException;
 import org.sonar.api.utils.log.Logger;
 import org.sonar.api.utils.log.Loggers;
 import org.sonar.check.Priority;
 import org.sonar.check.Rule;
 
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
 
 @Rule(
     key = "WorkflowAnnotationCheck",
@@ -24,31 +28,31 @@ public class WorkflowAnnotationCheck extends AbstractWorkflowCheck {
 
     private static final Logger LOG = Loggers.get(ArgumentConventionCheck.class);
 
+    private static final XamlQuery TOP_LEVEL_ANNOTATIONS = XamlQuery.compile("/xa:Activity/*[@sap2010:Annotation.AnnotationText]");
+
     public WorkflowAnnotationCheck(){
         super();
     }
 
     @Override
-    public void execute(Project project, Workflow workflow){
+    public Set<WorkflowData> getRequiredData(){
+        return EnumSet.of(WorkflowData.DOCUMENT);
+    }
 
-        try{
-            List<Node> nodes = workflow.getXamlDocument().selectNodes("/xa:Activity/*[@sap2010:Annotation.AnnotationText]");
-            LOG.debug("SIZE: " + nodes.size());
+    @Override
+    public void execute(Project project, Workflow workflow){
 
-            if(nodes.size() == 0){
-                reportIssue(workflow, "Workflow '" + workflow.getName() + "' should have a top level annotation.");
-            }
-        }
-        catch (XPathException e) {
-            // This will catch errors where XPath queries are ran in a document that doesn't contain a namespace used in the XPath query.
-            if(e.getMessage().contains("XPath expression uses unbound namespace prefix")){
-                // This means that there is no top level annotation.
-                reportIssue(workflow, "Workflow '" + workflow.getName() + "' should have a top level annotation.");
-            }
-            else {
-                throw e;
-            }
+        // A workflow without any designer attribute has no annotation at all.
+        if(!workflow.getElementIndex().usesNamespace(XamlNamespaces.PRESENTATION)){
+            reportIssue(workflow, "Workflow '" + workflow.getName() + "' should have a top level annotation.");
+            return;
         }
 
+        List<Node> nodes = TOP_LEVEL_ANNOTATIONS.selectNodes(workflow);
+        LOG.debug("SIZE: " + nodes.size());
+
+        if(nodes.size() == 0){
+            reportIssue(workflow, "Workflow '" + workflow.getName() + "' should have a top level annotation.");
+        }
     }
 }
@@ -1,16 +1,23 @@
 package com.uipath.sonar.plugin.checks;
 
 import com.uipath.sonar.plugin.AbstractWorkflowCheck;
+import com.uipath.sonar.plugin.WorkflowData;
+import com.uipath.sonar.plugin.naming.Classification;
+import com.uipath.sonar.plugin.naming.NamingConventions;
 import com.uipath.sonar.plugin.uipath.Project;
 import com.uipath.sonar.plugin.uipath.Workflow;
+import org.sonar.api.PropertyType;
 import org.sonar.api.config.PropertyDefinition;
 import org.sonar.api.resources.Qualifiers;
 import org.sonar.check.Priority;
 import org.sonar.check.Rule;
+import org.sonar.check.RuleProperty;
 
 import java.util.Arrays;
+import java.util.EnumSet;
 import java.util.List;
-import java.util.regex.Pattern;
+import java.util.Map;
+import java.util.Set;
 
 @Rule(
     key = "WorkflowConventionCheck",
@@ -26,23 +33,43 @@ public class WorkflowConventionCheck extends AbstractWorkflowCheck {
     private static final String VALID_FORMAT_DEFAULT_VALUE = "^[A-Z\\d_][\\d\\w_]*$";
     public static final String INVALID_FORMAT_KEY = "uipath.check.workflowconventioncheck.invalidformat";
     private static final String INVALID_FORMAT_DEFAULT_VALUE = "^.*(_|\\d)[a-z].*$";
+    private static final List<String> FORMAT_KEYS = Arrays.asList(VALID_FORMAT_KEY, INVALID_FORMAT_KEY);
+
+    // Rule parameters of the quality profile. Blank ones leave the project settings in effect.
+    @RuleProperty(key = "format", description = "Naming convention format for workflows. Accepts regular expressions. Leave blank to use the '" + VALID_FORMAT_KEY + "' setting.")
+    private String format = "";
+
+    @RuleProperty(key = "invalidFormat", description = "Regular expression for matching invalid workflow naming conventions. Leave blank to use the '" + INVALID_FORMAT_KEY + "' setting.")
+    private String invalidFormat = "";
 
     public WorkflowConventionCheck(){
         super();
     }
 
+    @Override
+    public Set<WorkflowData> getRequiredData(){
+        return EnumSet.noneOf(WorkflowData.class);
+    }
+
+    @Override
+    public Map<String, String> getRuleParameters(){
+        return ruleParameters(VALID_FORMAT_KEY, format, INVALID_FORMAT_KEY, invalidFormat);
+    }
+
     @Override
     public List<PropertyDefinition> defineProperties(){
 
         return Arrays.asList(
             PropertyDefinition.builder(VALID_FORMAT_KEY)
                 .defaultValue(VALID_FORMAT_DEFAULT_VALUE)
+                .type(PropertyType.REGULAR_EXPRESSION)
                 .name("Workflow Naming Convention Format")
                 .description("Naming convention format for workflows. Accepts regular expressions.")
                 .onQualifiers(Qualifiers.PROJECT)
                 .build(),
             PropertyDefinition.builder(INVALID_FORMAT_KEY)
                 .defaultValue(INVALID_FORMAT_DEFAULT_VALUE)
+                .type(PropertyType.REGULAR_EXPRESSION)
                 .name("Workflow Naming Convention Format (INVALID)")
                 .description("Regular expression for matching invalid workflow naming conventions. Leave blank to disable.")
                 .onQualifiers(Qualifiers.PROJECT)
@@ -50,10 +77,13 @@ public class WorkflowConventionCheck extends AbstractWorkflowCheck {
     }
     @Override
     public void execute(Project project, Workflow workflow){
-        Pattern validPattern = Pattern.compile(getPropertyValue(VALID_FORMAT_KEY, VALID_FORMAT_DEFAULT_VALUE));
-        Pattern invalidPattern = Pattern.compile(getPropertyValue(INVALID_FORMAT_KEY, INVALID_FORMAT_DEFAULT_VALUE));
+        NamingConventions conventions = getNamingConventions(FORMAT_KEYS);
+        Classification classification = conventions.classify(workflow.getName());
+
+        boolean invalid = conventions.isDefined(0) && !classification.matches(0) && !classification.isUndetermined(0);
+        boolean matchesInvalidFormat = classification.matches(1);
 
-        if(!validPattern.matcher(workflow.getName()).find() || invalidPattern.matcher(workflow.getName()).find()){
+        if(invalid || matchesInvalidFormat){
             reportIssue(workflow, "Workflow '" + workflow.getName() + "' does not follow the naming convention.");
         }
     }
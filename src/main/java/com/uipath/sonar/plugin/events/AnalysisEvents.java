@@ -0,0 +1,90 @@
+package com.uipath.sonar.plugin.events;
+
+import com.uipath.sonar.plugin.AbstractCheck;
+import com.uipath.sonar.plugin.uipath.Workflow;
+import org.sonar.api.utils.log.Logger;
+import org.sonar.api.utils.log.Loggers;
+
+/**
+ * AnalysisEvents emits Java Flight Recorder events for the parsing of workflows, the evaluation of XPath queries, the
+ * execution of checks and the saving of issues, so that a recording of the scanner JVM shows where the plugin spends
+ * its time next to GC and I/O activity.
+ *
+ * Every event is started with a begin method, which returns a handle, and committed with the matching commit method.
+ * The handle is null when the event is not recorded, either because no recording enables it, or because the JVM has no
+ * Flight Recorder: in that case get() returns this class, whose methods do nothing, and the JFR classes are never
+ * loaded.
+ *
+ * The uipath.jfc settings file in this package enables the UiPath events only.
+ */
+public class AnalysisEvents {
+
+    private static final Logger LOG = Loggers.get(AnalysisEvents.class);
+    private static final AnalysisEvents INSTANCE = load();
+
+    AnalysisEvents(){
+    }
+
+    public static AnalysisEvents get(){
+        return INSTANCE;
+    }
+
+    private static AnalysisEvents load(){
+        try{
+            Class.forName("jdk.jfr.Event", false, AnalysisEvents.class.getClassLoader());
+            return new FlightRecorderEvents();
+        }
+        catch(ClassNotFoundException | LinkageError e){
+            LOG.debug("Java Flight Recorder is not available, UiPath events are disabled: " + e);
+            return new AnalysisEvents();
+        }
+    }
+
+    /**
+     * Returns true if the events can be recorded by this JVM.
+     */
+    public boolean isAvailable(){
+        return false;
+    }
+
+    public Object beginParse(){
+        return null;
+    }
+
+    /**
+     * @param elements The number of elements of the parsed document.
+     */
+    public void commitParse(Object event, Workflow workflow, int elements){
+    }
+
+    public Object beginQuery(){
+        return null;
+    }
+
+    /**
+     * @param nodes The number of nodes selected by the query.
+     */
+    public void commitQuery(Object event, String expression, int nodes){
+    }
+
+    public Object beginCheck(){
+        return null;
+    }
+
+    /**
+     * @param workflow The workflow checked, or null for a project check.
+     * @param elements The number of elements the check was given, or queried.
+     */
+    public void commitCheck(Object event, AbstractCheck check, Workflow workflow, int elements, int issues){
+    }
+
+    public Object beginFlush(){
+        return null;
+    }
+
+    /**
+     * @param issues The number of issues saved.
+     */
+    public void commitFlush(Object event, int issues){
+    }
+}
@@ -0,0 +1,37 @@
+package com.uipath.sonar.plugin.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.uipath.sonar.CheckExecution")
+@Label("Check Execution")
+@Description("The execution of a check on a workflow, or on a project.")
+@Category({"UiPath", "Analysis"})
+@StackTrace(false)
+final class CheckExecutionEvent extends Event {
+
+    @Label("Check")
+    @Description("The rule key of the check.")
+    String check;
+
+    @Label("Workflow")
+    @Description("The path of the workflow file, or null for a project check.")
+    String workflow;
+
+    @Label("Elements")
+    @Description("The number of elements the check was given, or queried.")
+    int elements;
+
+    @Label("Issues")
+    int issues;
+
+    @Label("Size")
+    @Description("The size of the workflow file.")
+    @DataAmount
+    long bytes;
+}
@@ -0,0 +1,133 @@
+package com.uipath.sonar.plugin.events;
+
+import com.uipath.sonar.plugin.AbstractCheck;
+import com.uipath.sonar.plugin.uipath.Workflow;
+import jdk.jfr.EventType;
+
+/**
+ * FlightRecorderEvents creates the JFR events of AnalysisEvents. An event is only allocated when a recording enables
+ * its type.
+ */
+final class FlightRecorderEvents extends AnalysisEvents {
+
+    private final EventType parseType = EventType.getEventType(WorkflowParseEvent.class);
+    private final EventType queryType = EventType.getEventType(XPathQueryEvent.class);
+    private final EventType checkType = EventType.getEventType(CheckExecutionEvent.class);
+    private final EventType flushType = EventType.getEventType(IssueFlushEvent.class);
+
+    @Override
+    public boolean isAvailable(){
+        return true;
+    }
+
+    @Override
+    public Object beginParse(){
+        if(!parseType.isEnabled()){
+            return null;
+        }
+
+        WorkflowParseEvent event = new WorkflowParseEvent();
+        event.begin();
+        return event;
+    }
+
+    @Override
+    public void commitParse(Object handle, Workflow workflow, int elements){
+        if(handle == null){
+            return;
+        }
+
+        WorkflowParseEvent event = (WorkflowParseEvent) handle;
+        event.end();
+
+        if(event.shouldCommit()){
+            event.workflow = workflow.getComponentKey();
+            event.elements = elements;
+            event.bytes = workflow.getFile().length();
+            event.commit();
+        }
+    }
+
+    @Override
+    public Object beginQuery(){
+        if(!queryType.isEnabled()){
+            return null;
+        }
+
+        XPathQueryEvent event = new XPathQueryEvent();
+        event.begin();
+        return event;
+    }
+
+    @Override
+    public void commitQuery(Object handle, String expression, int nodes){
+        if(handle == null){
+            return;
+        }
+
+        XPathQueryEvent event = (XPathQueryEvent) handle;
+        event.end();
+
+        if(event.shouldCommit()){
+            event.expression = expression;
+            event.nodes = nodes;
+            event.commit();
+        }
+    }
+
+    @Override
+    public Object beginCheck(){
+        if(!checkType.isEnabled()){
+            return null;
+        }
+
+        CheckExecutionEvent event = new CheckExecutionEvent();
+        event.begin();
+        return event;
+    }
+
+    @Override
+    public void commitCheck(Object handle, AbstractCheck check, Workflow workflow, int elements, int issues){
+        if(handle == null){
+            return;
+        }
+
+        CheckExecutionEvent event = (CheckExecutionEvent) handle;
+        event.end();
+
+        if(event.shouldCommit()){
+            event.check = check.getRuleKey().toString();
+            event.workflow = workflow == null ? null : workflow.getComponentKey();
+            event.elements = elements;
+            event.issues = issues;
+            event.bytes = workflow == null ? 0 : workflow.getFile().length();
+            event.commit();
+        }
+    }
+
+    @Override
+    public Object beginFlush(){
+        if(!flushType.isEnabled()){
+            return null;
+        }
+
+        IssueFlushEvent event = new IssueFlushEvent();
+        event.begin();
+        return event;
+    }
+
+    @Override
+    public void commitFlush(Object handle, int issues){
+        if(handle == null){
+            return;
+        }
+
+        IssueFlushEvent event = (IssueFlushEvent) handle;
+        event.end();
+
+        if(event.shouldCommit()){
+            event.issues = issues;
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.uipath.sonar.plugin.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.uipath.sonar.IssueFlush")
+@Label("Issue Flush")
+@Description("Queued issues saved to the sensor context.")
+@Category({"UiPath", "Analysis"})
+@StackTrace(false)
+final class IssueFlushEvent extends Event {
+
+    @Label("Issues")
+    @Description("The number of issues saved.")
+    int issues;
+}
@@ -0,0 +1,30 @@
+package com.uipath.sonar.plugin.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.uipath.sonar.WorkflowParse")
+@Label("Workflow Parse")
+@Description("A workflow XAML file parsed into a document, or loaded from the parse cache.")
+@Category({"UiPath", "Analysis"})
+@StackTrace(false)
+final class WorkflowParseEvent extends Event {
+
+    @Label("Workflow")
+    @Description("The path of the workflow file.")
+    String workflow;
+
+    @Label("Elements")
+    @Description("The number of elements of the document.")
+    int elements;
+
+    @Label("Size")
+    @Description("The size of the workflow file.")
+    @DataAmount
+    long bytes;
+}
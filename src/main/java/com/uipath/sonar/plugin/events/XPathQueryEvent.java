@@ -0,0 +1,23 @@
+package com.uipath.sonar.plugin.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.uipath.sonar.XPathQuery")
+@Label("XPath Query")
+@Description("The evaluation of a compiled XamlQuery.")
+@Category({"UiPath", "Analysis"})
+@StackTrace(false)
+final class XPathQueryEvent extends Event {
+
+    @Label("Expression")
+    String expression;
+
+    @Label("Nodes")
+    @Description("The number of nodes selected by the query.")
+    int nodes;
+}
@@ -0,0 +1,76 @@
+package com.uipath.sonar.plugin.languages;
+
+import com.uipath.sonar.plugin.UiPathPlugin;
+import com.uipath.sonar.plugin.settings.UiPathLanguageProperties;
+import org.apache.commons.lang.StringUtils;
+import org.sonar.api.config.Configuration;
+import org.sonar.api.utils.log.Logger;
+import org.sonar.api.utils.log.Loggers;
+
+import java.util.Map;
+
+/**
+ * UiPathFilePatterns decides which files the scanner indexes as UiPath, before the modules are indexed.
+ *
+ * Language suffixes can't name a file, so claiming project.json by suffix would claim every JSON file of every module.
+ * Unless the file suffixes or the language patterns are set, each module gets sonar.lang.patterns.uipath built from
+ * the workflow and project file predicates, so that only workflows and project files are indexed as UiPath.
+ *
+ * ProjectBuilder is deprecated, but it is the only extension run before files are indexed that can set module
+ * properties.
+ */
+@SuppressWarnings("deprecation")
+public class UiPathFilePatterns extends org.sonar.api.batch.bootstrap.ProjectBuilder {
+
+    private static final Logger LOG = Loggers.get(UiPathFilePatterns.class);
+
+    private final Configuration configuration;
+
+    public UiPathFilePatterns(Configuration configuration){
+        this.configuration = configuration;
+    }
+
+    @Override
+    public void build(Context context){
+        for(org.sonar.api.batch.bootstrap.ProjectDefinition module : context.projectReactor().getProjects()){
+            Map<String, String> properties = module.properties();
+            String suffixes = get(properties, UiPathPlugin.FILE_SUFFIXES_KEY, "");
+            String patterns = get(properties, UiPathLanguageProperties.LANGUAGE_PATTERNS_KEY, "");
+
+            if(!patterns.isEmpty()){
+                if(!suffixes.isEmpty()){
+                    LOG.warn(String.format("%s is ignored on module '%s', since %s is set.",
+                        UiPathPlugin.FILE_SUFFIXES_KEY, module.getKey(), UiPathLanguageProperties.LANGUAGE_PATTERNS_KEY));
+                }
+                continue;
+            }
+
+            if(!suffixes.isEmpty()){
+                continue;
+            }
+
+            module.setProperty(UiPathLanguageProperties.LANGUAGE_PATTERNS_KEY, getDefaultPatterns(properties));
+        }
+    }
+
+    /**
+     * Returns the workflow and project file predicates of a module, as language patterns.
+     */
+    String getDefaultPatterns(Map<String, String> properties){
+        return get(properties, UiPathLanguageProperties.WORKFLOW_FILE_PREDICATE_KEY, UiPathLanguageProperties.WORKFLOW_FILE_PREDICATE_DEFAULT_VALUE)
+            + "," + get(properties, UiPathLanguageProperties.PROJECT_FILE_PREDICATE_KEY, UiPathLanguageProperties.PROJECT_FILE_PREDICATE_DEFAULT_VALUE);
+    }
+
+    /**
+     * Returns a module property, else the analysis setting, else the default value.
+     */
+    private String get(Map<String, String> properties, String key, String defaultValue){
+        String value = properties.get(key);
+
+        if(StringUtils.isBlank(value)){
+            value = configuration.get(key).orElse(defaultValue);
+        }
+
+        return StringUtils.isBlank(value) ? defaultValue : value.trim();
+    }
+}
@@ -11,9 +11,12 @@ import java.util.List;
 /**
  * UiPathLanguage defines "UiPath" as a language in SonarQube, so that rules can be created on the language.
  * This class doesn't do much other than that.
+ *
+ * Only workflows are claimed by suffix. Unless the suffixes are set, UiPathFilePatterns replaces them with language
+ * patterns that also claim project.json, but no other JSON file.
  */
 public class UiPathLanguage extends AbstractLanguage {
-    private static final String[] DEFAULT_SUFFIXES = {".json", ".xaml"};
+    private static final String[] DEFAULT_SUFFIXES = {".xaml"};
 
     public static final String KEY = "uipath";
 
@@ -0,0 +1,95 @@
+package com.uipath.sonar.plugin.naming;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * CharSet is an immutable set of UTF-16 chars, held as sorted, disjoint and non-adjacent ranges.
+ */
+final class CharSet {
+
+    static final CharSet DIGITS = range('0', '9');
+    static final CharSet WORD = range('a', 'z').union(range('A', 'Z')).union(range('0', '9')).union(single('_'));
+    static final CharSet SPACES = single(' ').union(range('\t', '\r'));
+    static final CharSet LINE_TERMINATORS = single('\n').union(single('\r')).union(single('\u0085')).union(range('\u2028', '\u2029'));
+    static final CharSet ANY_BUT_LINE_TERMINATORS = LINE_TERMINATORS.complement();
+
+    // Lower and upper bounds of each range, both inclusive: [lo0, hi0, lo1, hi1, ...]
+    private final int[] bounds;
+
+    private CharSet(int[] bounds){
+        this.bounds = bounds;
+    }
+
+    static CharSet empty(){
+        return new CharSet(new int[0]);
+    }
+
+    static CharSet single(char c){
+        return range(c, c);
+    }
+
+    static CharSet range(char lo, char hi){
+        return new CharSet(new int[] { lo, hi });
+    }
+
+    boolean contains(char c){
+        // Ranges are few, a linear scan is as fast as a binary search.
+        for(int i = 0; i < bounds.length && bounds[i] <= c; i += 2){
+            if(c <= bounds[i + 1]){
+                return true;
+            }
+        }
+        return false;
+    }
+
+    CharSet union(CharSet other){
+        List<int[]> ranges = new ArrayList<>();
+
+        for(int i = 0; i < bounds.length; i += 2){
+            ranges.add(new int[] { bounds[i], bounds[i + 1] });
+        }
+        for(int i = 0; i < other.bounds.length; i += 2){
+            ranges.add(new int[] { other.bounds[i], other.bounds[i + 1] });
+        }
+
+        ranges.sort((a, b) -> Integer.compare(a[0], b[0]));
+
+        int[] merged = new int[ranges.size() * 2];
+        int size = 0;
+
+        for(int[] range : ranges){
+            if(size > 0 && range[0] <= merged[size - 1] + 1){
+                merged[size - 1] = Math.max(merged[size - 1], range[1]);
+            }
+            else {
+                merged[size++] = range[0];
+                merged[size++] = range[1];
+            }
+        }
+
+        return new CharSet(Arrays.copyOf(merged, size));
+    }
+
+    CharSet complement(){
+        int[] result = new int[bounds.length + 2];
+        int size = 0;
+        int next = Character.MIN_VALUE;
+
+        for(int i = 0; i < bounds.length; i += 2){
+            if(bounds[i] > next){
+                result[size++] = next;
+                result[size++] = bounds[i] - 1;
+            }
+            next = bounds[i + 1] + 1;
+        }
+
+        if(next <= Character.MAX_VALUE){
+            result[size++] = next;
+            result[size++] = Character.MAX_VALUE;
+        }
+
+        return new CharSet(Arrays.copyOf(result, size));
+    }
+}
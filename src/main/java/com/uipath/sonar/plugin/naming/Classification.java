@@ -0,0 +1,31 @@
+package com.uipath.sonar.plugin.naming;
+
+import java.util.BitSet;
+
+/**
+ * Classification tells which of the patterns of a NamingConventions matched an identifier.
+ */
+public final class Classification {
+
+    private final BitSet matches;
+    private final BitSet undetermined;
+
+    Classification(BitSet matches, BitSet undetermined){
+        this.matches = matches;
+        this.undetermined = undetermined;
+    }
+
+    /**
+     * Returns true if the pattern matches a substring of the identifier, as Matcher.find() would.
+     */
+    public boolean matches(int pattern){
+        return matches.get(pattern);
+    }
+
+    /**
+     * Returns true if the pattern could not be evaluated in time. Such a pattern doesn't match either.
+     */
+    public boolean isUndetermined(int pattern){
+        return undetermined.get(pattern);
+    }
+}
@@ -0,0 +1,176 @@
+package com.uipath.sonar.plugin.naming;
+
+import org.sonar.api.utils.log.Logger;
+import org.sonar.api.utils.log.Loggers;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+/**
+ * NamingConventions evaluates several naming convention patterns against identifiers, in time linear in the length
+ * of the identifier.
+ *
+ * The patterns are compiled into a single Nfa, which classifies an identifier against all of them in one pass,
+ * without backtracking. A pattern like '^(a+)+$' can't freeze the analysis, whatever the identifier.
+ *
+ * Patterns using features the automaton doesn't support (see RegexCompiler) are evaluated with java.util.regex, but
+ * with a time limit. When the limit is exceeded the result is undetermined, and a warning is logged once per pattern.
+ * After MAX_TIMEOUTS timeouts a pattern is no longer evaluated at all: it stays undetermined for every identifier
+ * classified by this instance, which lives as long as the analysis configuration. This bounds the total time a
+ * pattern can cost, rather than only the time per identifier.
+ *
+ * Instances can be shared between threads.
+ */
+public final class NamingConventions {
+
+    private static final Logger LOG = Loggers.get(NamingConventions.class);
+
+    static final long DEFAULT_TIMEOUT_MILLIS = 100;
+    static final int MAX_TIMEOUTS = 3;
+
+    private final List<Pattern> patterns;
+    private final Nfa nfa;
+    private final TimeBoundedMatcher[] fallbacks;
+    private final AtomicInteger[] timeouts;
+    private final long timeoutMillis;
+
+    NamingConventions(List<Pattern> patterns, long timeoutMillis){
+        this.patterns = new ArrayList<>(patterns);
+        this.timeoutMillis = timeoutMillis;
+
+        List<Nfa.State> states = new ArrayList<>();
+        Nfa.State[] startStates = new Nfa.State[patterns.size()];
+        fallbacks = new TimeBoundedMatcher[patterns.size()];
+        timeouts = new AtomicInteger[patterns.size()];
+
+        for(int i = 0; i < patterns.size(); i++){
+            Pattern pattern = patterns.get(i);
+            timeouts[i] = new AtomicInteger();
+
+            if(pattern == null){
+                continue;
+            }
+
+            try{
+                if(pattern.flags() != 0){
+                    throw new UnsupportedRegexException("flags");
+                }
+                startStates[i] = RegexCompiler.compile(pattern.pattern(), i, states);
+            }
+            catch(UnsupportedRegexException e){
+                LOG.info(String.format("Naming convention '%s' uses %s, and will be evaluated with a time limit of %d ms.",
+                    pattern.pattern(), e.getMessage(), timeoutMillis));
+                fallbacks[i] = new TimeBoundedMatcher(pattern, timeoutMillis);
+            }
+        }
+
+        nfa = new Nfa(states, startStates);
+    }
+
+    /**
+     * Compiles naming convention patterns.
+     * @param patterns The patterns, in the order Classification refers to them. A null pattern is undefined: it never
+     *                 matches.
+     */
+    public static NamingConventions compile(List<Pattern> patterns){
+        return new NamingConventions(patterns, DEFAULT_TIMEOUT_MILLIS);
+    }
+
+    public int size(){
+        return patterns.size();
+    }
+
+    public boolean isDefined(int pattern){
+        return patterns.get(pattern) != null;
+    }
+
+    /**
+     * Returns true if the pattern is evaluated in linear time, false if it needs the time-bounded fallback or is
+     * undefined.
+     */
+    public boolean isLinear(int pattern){
+        return isDefined(pattern) && fallbacks[pattern] == null;
+    }
+
+    /**
+     * Matches an identifier against every pattern.
+     */
+    public Classification classify(CharSequence identifier){
+        boolean[] matched = new boolean[patterns.size()];
+        BitSet undetermined = new BitSet();
+
+        // The automaton works on chars, and java.util.regex on code points: identifiers with surrogates are left to
+        // the latter.
+        boolean supplementary = hasSurrogates(identifier);
+
+        if(!supplementary){
+            nfa.run(identifier, matched);
+        }
+
+        for(int i = 0; i < patterns.size(); i++){
+            TimeBoundedMatcher fallback = fallbacks[i];
+
+            if(fallback == null && supplementary && isDefined(i)){
+                fallback = new TimeBoundedMatcher(patterns.get(i), timeoutMillis);
+            }
+
+            if(fallback != null){
+                Optional<Boolean> result = isTripped(i) ? Optional.empty() : fallback.find(identifier);
+
+                if(result.isPresent()){
+                    matched[i] = result.get();
+                }
+                else {
+                    undetermined.set(i);
+                    recordTimeout(i, identifier);
+                }
+            }
+        }
+
+        BitSet matches = new BitSet();
+        for(int i = 0; i < matched.length; i++){
+            if(matched[i]){
+                matches.set(i);
+            }
+        }
+
+        return new Classification(matches, undetermined);
+    }
+
+    /**
+     * Returns true once a pattern timed out MAX_TIMEOUTS times, after which it is no longer evaluated.
+     */
+    public boolean isTripped(int pattern){
+        return timeouts[pattern].get() >= MAX_TIMEOUTS;
+    }
+
+    private void recordTimeout(int pattern, CharSequence identifier){
+        if(isTripped(pattern)){
+            return;
+        }
+
+        int count = timeouts[pattern].incrementAndGet();
+
+        if(count == 1){
+            LOG.warn(String.format("Naming convention '%s' took more than %d ms on '%s'. Identifiers it can't evaluate in time are not reported.",
+                patterns.get(pattern).pattern(), timeoutMillis, identifier));
+        }
+        else if(count == MAX_TIMEOUTS){
+            LOG.warn(String.format("Naming convention '%s' timed out %d times, and is no longer evaluated for the rest of the analysis.",
+                patterns.get(pattern).pattern(), MAX_TIMEOUTS));
+        }
+    }
+
+    private static boolean hasSurrogates(CharSequence identifier){
+        for(int i = 0; i < identifier.length(); i++){
+            if(Character.isSurrogate(identifier.charAt(i))){
+                return true;
+            }
+        }
+        return false;
+    }
+}
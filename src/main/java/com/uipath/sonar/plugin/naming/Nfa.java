@@ -0,0 +1,199 @@
+package com.uipath.sonar.plugin.naming;
+
+import java.util.List;
+
+/**
+ * Nfa is a Thompson automaton holding several patterns at once. Each pattern has its own start state and its own
+ * match state, so a single simulation over an identifier tells which of the patterns match it.
+ *
+ * The simulation tracks the set of active states rather than backtracking: its cost is proportional to the length of
+ * the identifier times the number of states, whatever the patterns.
+ */
+final class Nfa {
+
+    static final int CHAR = 0;
+    static final int SPLIT = 1;
+    static final int EPSILON = 2;
+    static final int BEGIN = 3;
+    static final int END = 4;
+    static final int MATCH = 5;
+
+    static final class State {
+        final int kind;
+        final CharSet chars;
+        final int pattern;
+        State out;
+        State out1;
+        int id;
+
+        State(int kind, CharSet chars, int pattern){
+            this.kind = kind;
+            this.chars = chars;
+            this.pattern = pattern;
+        }
+    }
+
+    private final int[] kinds;
+    private final CharSet[] chars;
+    private final int[] outs;
+    private final int[] outs1;
+    private final int[] patterns;
+    // Start state of each pattern, or -1 for patterns that are not part of the automaton.
+    private final int[] starts;
+
+    /**
+     * @param starts The start state of each pattern, or null for patterns that are not part of the automaton.
+     */
+    Nfa(List<State> states, State[] starts){
+        int size = states.size();
+        kinds = new int[size];
+        chars = new CharSet[size];
+        outs = new int[size];
+        outs1 = new int[size];
+        patterns = new int[size];
+
+        for(int i = 0; i < size; i++){
+            states.get(i).id = i;
+        }
+
+        for(int i = 0; i < size; i++){
+            State state = states.get(i);
+            kinds[i] = state.kind;
+            chars[i] = state.chars;
+            outs[i] = state.out == null ? -1 : state.out.id;
+            outs1[i] = state.out1 == null ? -1 : state.out1.id;
+            patterns[i] = state.pattern;
+        }
+
+        this.starts = new int[starts.length];
+        for(int i = 0; i < starts.length; i++){
+            this.starts[i] = starts[i] == null ? -1 : starts[i].id;
+        }
+    }
+
+    int size(){
+        return kinds.length;
+    }
+
+    /**
+     * Runs the automaton over an identifier, with the semantics of Matcher.find(): a pattern matches if it matches
+     * any substring of the identifier.
+     * @param matched Set to true for each pattern that matches. Patterns already set are not evaluated.
+     */
+    void run(CharSequence input, boolean[] matched){
+        int length = input.length();
+        int[] current = new int[kinds.length];
+        int[] next = new int[kinds.length];
+        int[] marks = new int[kinds.length];
+        // A state is expanded at most once per position, and pushes at most two states.
+        int[] stack = new int[2 * kinds.length + 1];
+        int currentSize = 0;
+        int generation = 1;
+
+        for(int position = 0; ; position++){
+
+            // Start every pattern that hasn't matched yet at this position, as find() would.
+            boolean pending = false;
+            for(int pattern = 0; pattern < starts.length; pattern++){
+                if(starts[pattern] >= 0 && !matched[pattern]){
+                    pending = true;
+                    currentSize = add(current, currentSize, starts[pattern], input, position, generation, marks, stack, matched);
+                }
+            }
+
+            if(!pending || position == length){
+                return;
+            }
+
+            char c = input.charAt(position);
+            int nextSize = 0;
+            generation++;
+
+            for(int i = 0; i < currentSize; i++){
+                int state = current[i];
+
+                if(kinds[state] == CHAR && !matched[patterns[state]] && chars[state].contains(c)){
+                    nextSize = add(next, nextSize, outs[state], input, position + 1, generation, marks, stack, matched);
+                }
+            }
+
+            int[] swap = current;
+            current = next;
+            next = swap;
+            currentSize = nextSize;
+        }
+    }
+
+    /**
+     * Adds a state and the states reachable from it without consuming a char to a state list.
+     */
+    private int add(int[] list, int size, int state, CharSequence input, int position, int generation,
+                    int[] marks, int[] stack, boolean[] matched){
+        int top = 0;
+        stack[top++] = state;
+
+        while(top > 0){
+            int s = stack[--top];
+
+            if(marks[s] == generation){
+                continue;
+            }
+            marks[s] = generation;
+
+            switch(kinds[s]){
+                case CHAR:
+                    list[size++] = s;
+                    break;
+                case MATCH:
+                    matched[patterns[s]] = true;
+                    break;
+                case SPLIT:
+                    // Push the second branch first, so the first one is explored first.
+                    stack[top++] = outs1[s];
+                    stack[top++] = outs[s];
+                    break;
+                case EPSILON:
+                    stack[top++] = outs[s];
+                    break;
+                case BEGIN:
+                    if(position == 0){
+                        stack[top++] = outs[s];
+                    }
+                    break;
+                case END:
+                    if(isEnd(input, position)){
+                        stack[top++] = outs[s];
+                    }
+                    break;
+                default:
+                    throw new IllegalStateException("Unknown state kind " + kinds[s]);
+            }
+        }
+
+        return size;
+    }
+
+    /**
+     * Returns true where '$' matches without the MULTILINE flag: at the end of the input, or before a line terminator
+     * that ends the input.
+     */
+    private static boolean isEnd(CharSequence input, int position){
+        int length = input.length();
+
+        if(position == length){
+            return true;
+        }
+
+        if(position == length - 2){
+            return input.charAt(position) == '\r' && input.charAt(position + 1) == '\n';
+        }
+
+        if(position == length - 1){
+            char c = input.charAt(position);
+            boolean splitsCrLf = c == '\n' && position > 0 && input.charAt(position - 1) == '\r';
+            return CharSet.LINE_TERMINATORS.contains(c) && !splitsCrLf;
+        }
+
+        return false;
+    }
+}
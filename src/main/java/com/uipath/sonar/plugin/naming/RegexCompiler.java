@@ -0,0 +1,403 @@
+package com.uipath.sonar.plugin.naming;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * RegexCompiler turns a java.util.regex expression into Nfa states, with Thompson's construction.
+ *
+ * It supports literals, '.', character classes with ranges and the \d, \w and \s classes, groups, alternations, the
+ * '*', '+', '?' and '{n,m}' quantifiers (greedy or lazy, which doesn't change whether a pattern matches), and the '^'
+ * and '$' anchors. Anything else, such as back references, look-arounds, possessive quantifiers, flags or nested
+ * classes, throws an UnsupportedRegexException.
+ *
+ * The expression is expected to be valid for java.util.regex.Pattern already.
+ */
+final class RegexCompiler {
+
+    // Bounded repetitions copy their operand, this keeps a pattern like 'a{1000}{1000}' from blowing up.
+    static final int MAX_STATES = 10_000;
+
+    private final String regex;
+    private final int pattern;
+    private final List<Nfa.State> states = new ArrayList<>();
+    private int position;
+
+    // The char of the last escape parsed, or -1 when it denoted a class such as \d.
+    private int lastEscapedChar;
+
+    private RegexCompiler(String regex, int pattern){
+        this.regex = regex;
+        this.pattern = pattern;
+    }
+
+    /**
+     * Compiles an expression.
+     * @param pattern The index of the pattern, recorded in its states.
+     * @param states The list the new states are added to.
+     * @return The start state of the pattern.
+     */
+    static Nfa.State compile(String regex, int pattern, List<Nfa.State> states) throws UnsupportedRegexException {
+        RegexCompiler compiler = new RegexCompiler(regex, pattern);
+        Fragment fragment = compiler.parseAlternation();
+
+        if(compiler.position != regex.length()){
+            throw new UnsupportedRegexException("unbalanced ')'");
+        }
+
+        fragment.end.out = compiler.newState(Nfa.MATCH, null);
+        states.addAll(compiler.states);
+
+        return fragment.start;
+    }
+
+    private Fragment parseAlternation() throws UnsupportedRegexException {
+        Fragment fragment = parseSequence();
+
+        while(position < regex.length() && regex.charAt(position) == '|'){
+            position++;
+            Fragment other = parseSequence();
+
+            Nfa.State split = newState(Nfa.SPLIT, null);
+            Nfa.State end = newState(Nfa.EPSILON, null);
+            split.out = fragment.start;
+            split.out1 = other.start;
+            fragment.end.out = end;
+            other.end.out = end;
+            fragment = new Fragment(split, end);
+        }
+
+        return fragment;
+    }
+
+    private Fragment parseSequence() throws UnsupportedRegexException {
+        Fragment fragment = empty();
+
+        while(position < regex.length() && regex.charAt(position) != '|' && regex.charAt(position) != ')'){
+            fragment = concat(fragment, parseRepetition());
+        }
+
+        return fragment;
+    }
+
+    private Fragment parseRepetition() throws UnsupportedRegexException {
+        int atomStart = position;
+        Fragment atom = parseAtom();
+
+        if(position >= regex.length()){
+            return atom;
+        }
+
+        int min;
+        int max;  // -1 for no upper bound
+
+        switch(regex.charAt(position)){
+            case '*': min = 0; max = -1; position++; break;
+            case '+': min = 1; max = -1; position++; break;
+            case '?': min = 0; max = 1; position++; break;
+            case '{':
+                int[] bounds = parseBounds();
+                min = bounds[0];
+                max = bounds[1];
+                break;
+            default:
+                return atom;
+        }
+
+        if(position < regex.length() && regex.charAt(position) == '+'){
+            throw new UnsupportedRegexException("possessive quantifiers");
+        }
+        if(position < regex.length() && regex.charAt(position) == '?'){
+            position++;
+        }
+        if(position < regex.length() && "*+?{".indexOf(regex.charAt(position)) >= 0){
+            throw new UnsupportedRegexException("consecutive quantifiers");
+        }
+
+        return repeat(atom, atomStart, min, max);
+    }
+
+    private int[] parseBounds() throws UnsupportedRegexException {
+        int close = regex.indexOf('}', position);
+        if(close < 0){
+            throw new UnsupportedRegexException("'{' without '}'");
+        }
+
+        String[] bounds = regex.substring(position + 1, close).split(",", -1);
+        position = close + 1;
+
+        try{
+            int min = Integer.parseInt(bounds[0].trim());
+            int max = bounds.length == 1 ? min
+                : bounds[1].trim().isEmpty() ? -1
+                : Integer.parseInt(bounds[1].trim());
+
+            if(bounds.length > 2 || min < 0 || (max >= 0 && max < min)){
+                throw new UnsupportedRegexException("malformed repetition");
+            }
+
+            return new int[] { min, max };
+        }
+        catch(NumberFormatException e){
+            throw new UnsupportedRegexException("malformed repetition");
+        }
+    }
+
+    /**
+     * Repeats the atom that starts at atomStart. The first copy has already been parsed; other copies are parsed
+     * again from the expression.
+     */
+    private Fragment repeat(Fragment atom, int atomStart, int min, int max) throws UnsupportedRegexException {
+        Fragment result = empty();
+        Fragment next = atom;
+
+        for(int i = 0; i < min; i++){
+            result = concat(result, next);
+            next = copy(atomStart);
+        }
+
+        if(max < 0){
+            return concat(result, star(next));
+        }
+
+        for(int i = min; i < max; i++){
+            result = concat(result, optional(next));
+            next = copy(atomStart);
+        }
+
+        return result;
+    }
+
+    private Fragment copy(int atomStart) throws UnsupportedRegexException {
+        int saved = position;
+        position = atomStart;
+        Fragment copy = parseAtom();
+        position = saved;
+        return copy;
+    }
+
+    private Fragment parseAtom() throws UnsupportedRegexException {
+        char c = regex.charAt(position++);
+
+        switch(c){
+            case '(':
+                if(regex.startsWith("?:", position)){
+                    position += 2;
+                }
+                else if(position < regex.length() && regex.charAt(position) == '?'){
+                    throw new UnsupportedRegexException("special groups, look-arounds or flags");
+                }
+
+                Fragment group = parseAlternation();
+
+                if(position >= regex.length() || regex.charAt(position) != ')'){
+                    throw new UnsupportedRegexException("unbalanced '('");
+                }
+                position++;
+                return group;
+            case '[':
+                return chars(parseClass());
+            case '.':
+                return chars(CharSet.ANY_BUT_LINE_TERMINATORS);
+            case '^':
+                return single(newState(Nfa.BEGIN, null));
+            case '$':
+                return single(newState(Nfa.END, null));
+            case '\\':
+                return chars(parseEscape(false));
+            case '*':
+            case '+':
+            case '?':
+            case '{':
+                throw new UnsupportedRegexException("dangling quantifier");
+            default:
+                if(Character.isSurrogate(c)){
+                    throw new UnsupportedRegexException("supplementary characters");
+                }
+                return chars(CharSet.single(c));
+        }
+    }
+
+    private CharSet parseClass() throws UnsupportedRegexException {
+        boolean negated = position < regex.length() && regex.charAt(position) == '^';
+        if(negated){
+            position++;
+        }
+
+        if(position < regex.length() && regex.charAt(position) == ']'){
+            throw new UnsupportedRegexException("']' at the start of a class");
+        }
+
+        CharSet set = CharSet.empty();
+
+        while(true){
+            if(position >= regex.length()){
+                throw new UnsupportedRegexException("unclosed class");
+            }
+
+            char c = regex.charAt(position++);
+
+            if(c == ']'){
+                break;
+            }
+            if(c == '[' || (c == '&' && position < regex.length() && regex.charAt(position) == '&')){
+                throw new UnsupportedRegexException("nested classes or intersections");
+            }
+            if(Character.isSurrogate(c)){
+                throw new UnsupportedRegexException("supplementary characters");
+            }
+
+            CharSet item = c == '\\' ? parseEscape(true) : CharSet.single(c);
+
+            // A range, unless the '-' is the last char of the class.
+            if(position + 1 < regex.length() && regex.charAt(position) == '-' && regex.charAt(position + 1) != ']'){
+                char low = singleChar(c);
+                position++;
+                char next = regex.charAt(position++);
+
+                if(next == '[' || Character.isSurrogate(next)){
+                    throw new UnsupportedRegexException("nested classes or supplementary characters");
+                }
+                if(next == '\\'){
+                    parseEscape(true);
+                }
+
+                char high = singleChar(next);
+
+                item = CharSet.range(low, high);
+            }
+
+            set = set.union(item);
+        }
+
+        return negated ? set.complement() : set;
+    }
+
+    private char singleChar(char c) throws UnsupportedRegexException {
+        if(c != '\\'){
+            return c;
+        }
+
+        // Escapes of a single char were recorded by parseEscape.
+        if(lastEscapedChar < 0){
+            throw new UnsupportedRegexException("class escapes in a range");
+        }
+        return (char) lastEscapedChar;
+    }
+
+    private CharSet parseEscape(boolean inClass) throws UnsupportedRegexException {
+        if(position >= regex.length()){
+            throw new UnsupportedRegexException("trailing '\\'");
+        }
+
+        char c = regex.charAt(position++);
+        lastEscapedChar = -1;
+
+        switch(c){
+            case 'd': return CharSet.DIGITS;
+            case 'D': return CharSet.DIGITS.complement();
+            case 'w': return CharSet.WORD;
+            case 'W': return CharSet.WORD.complement();
+            case 's': return CharSet.SPACES;
+            case 'S': return CharSet.SPACES.complement();
+            case 't': return escaped('\t');
+            case 'n': return escaped('\n');
+            case 'r': return escaped('\r');
+            case 'f': return escaped('\f');
+            case 'a': return escaped('\u0007');
+            case 'e': return escaped('\u001B');
+            case 'x': return escaped(parseHex(2));
+            case 'u': return escaped(parseHex(4));
+            default:
+                if(Character.isLetterOrDigit(c) || Character.isSurrogate(c)){
+                    throw new UnsupportedRegexException("'\\" + c + "'" + (inClass ? " in a class" : ""));
+                }
+                return escaped(c);
+        }
+    }
+
+    private CharSet escaped(char c){
+        lastEscapedChar = c;
+        return CharSet.single(c);
+    }
+
+    private char parseHex(int digits) throws UnsupportedRegexException {
+        if(position + digits > regex.length()){
+            throw new UnsupportedRegexException("malformed hexadecimal escape");
+        }
+
+        try{
+            char c = (char) Integer.parseInt(regex.substring(position, position + digits), 16);
+            position += digits;
+
+            if(Character.isSurrogate(c)){
+                throw new UnsupportedRegexException("supplementary characters");
+            }
+            return c;
+        }
+        catch(NumberFormatException e){
+            throw new UnsupportedRegexException("malformed hexadecimal escape");
+        }
+    }
+
+    private Nfa.State newState(int kind, CharSet chars) throws UnsupportedRegexException {
+        if(states.size() >= MAX_STATES){
+            throw new UnsupportedRegexException("more than " + MAX_STATES + " states");
+        }
+
+        Nfa.State state = new Nfa.State(kind, chars, pattern);
+        states.add(state);
+        return state;
+    }
+
+    private Fragment empty() throws UnsupportedRegexException {
+        Nfa.State state = newState(Nfa.EPSILON, null);
+        return new Fragment(state, state);
+    }
+
+    private Fragment chars(CharSet set) throws UnsupportedRegexException {
+        return single(newState(Nfa.CHAR, set));
+    }
+
+    private Fragment single(Nfa.State state) throws UnsupportedRegexException {
+        Nfa.State end = newState(Nfa.EPSILON, null);
+        state.out = end;
+        return new Fragment(state, end);
+    }
+
+    private static Fragment concat(Fragment first, Fragment second){
+        first.end.out = second.start;
+        return new Fragment(first.start, second.end);
+    }
+
+    private Fragment star(Fragment fragment) throws UnsupportedRegexException {
+        Nfa.State split = newState(Nfa.SPLIT, null);
+        Nfa.State end = newState(Nfa.EPSILON, null);
+        split.out = fragment.start;
+        split.out1 = end;
+        fragment.end.out = split;
+        return new Fragment(split, end);
+    }
+
+    private Fragment optional(Fragment fragment) throws UnsupportedRegexException {
+        Nfa.State split = newState(Nfa.SPLIT, null);
+        Nfa.State end = newState(Nfa.EPSILON, null);
+        split.out = fragment.start;
+        split.out1 = end;
+        fragment.end.out = end;
+        return new Fragment(split, end);
+    }
+
+    /**
+     * A part of the automaton with a single entry and a single exit, whose 'out' is set when the fragment is followed.
+     */
+    private static final class Fragment {
+        private final Nfa.State start;
+        private final Nfa.State end;
+
+        Fragment(Nfa.State start, Nfa.State end){
+            this.start = start;
+            this.end = end;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.uipath.sonar.plugin.naming;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * TimeBoundedMatcher evaluates a pattern with java.util.regex, and gives up once a time limit is exceeded.
+ *
+ * java.util.regex can't be interrupted, but it reads its input through CharSequence.charAt, so the input is wrapped
+ * in a sequence that checks the deadline as the matcher reads it.
+ */
+final class TimeBoundedMatcher {
+
+    // Checking the clock on every char would dominate the cost of simple patterns.
+    private static final int CHECK_INTERVAL = 1024;
+
+    private final Pattern pattern;
+    private final long timeoutNanos;
+
+    TimeBoundedMatcher(Pattern pattern, long timeoutMillis){
+        this.pattern = pattern;
+        this.timeoutNanos = TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+    }
+
+    /**
+     * Returns whether the pattern matches a substring of the input, as Matcher.find() does, or empty when the time
+     * limit was exceeded.
+     */
+    Optional<Boolean> find(CharSequence input){
+        try{
+            return Optional.of(pattern.matcher(new DeadlineCharSequence(input, System.nanoTime() + timeoutNanos)).find());
+        }
+        catch(TimeoutException e){
+            return Optional.empty();
+        }
+    }
+
+    private static final class DeadlineCharSequence implements CharSequence {
+        private final CharSequence input;
+        private final long deadline;
+        private int reads;
+
+        DeadlineCharSequence(CharSequence input, long deadline){
+            this.input = input;
+            this.deadline = deadline;
+        }
+
+        @Override
+        public char charAt(int index){
+            if(++reads % CHECK_INTERVAL == 0 && System.nanoTime() - deadline > 0){
+                throw new TimeoutException();
+            }
+            return input.charAt(index);
+        }
+
+        @Override
+        public int length(){
+            return input.length();
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end){
+            return new DeadlineCharSequence(input.subSequence(start, end), deadline);
+        }
+
+        @Override
+        public String toString(){
+            return input.toString();
+        }
+    }
+
+    private static final class TimeoutException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        TimeoutException(){
+            super("Regular expression timed out", null, false, false);
+        }
+    }
+}
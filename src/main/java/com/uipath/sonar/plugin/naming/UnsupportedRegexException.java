@@ -0,0 +1,14 @@
+package com.uipath.sonar.plugin.naming;
+
+/**
+ * Thrown when a regular expression uses a feature the automaton doesn't support, such as back references or
+ * look-arounds. Such expressions are evaluated by a TimeBoundedMatcher instead.
+ */
+class UnsupportedRegexException extends Exception {
+
+    private static final long serialVersionUID = 1L;
+
+    UnsupportedRegexException(String message){
+        super(message);
+    }
+}
@@ -1,5 +1,7 @@
 package com.uipath.sonar.plugin.settings;
 
+import com.uipath.sonar.plugin.languages.UiPathLanguage;
+import org.sonar.api.PropertyType;
 import org.sonar.api.config.PropertyDefinition;
 
 import java.util.Arrays;
@@ -9,12 +11,41 @@ public class UiPathLanguageProperties {
 
     public static final String CATEGORY = "UiPath";
 
+    public static final String LANGUAGE_PATTERNS_KEY = "sonar.lang.patterns." + UiPathLanguage.KEY;
+
     public static final String PROJECT_FILE_PREDICATE_KEY = "uipath.project.file.predicate";
     public static final String PROJECT_FILE_PREDICATE_DEFAULT_VALUE = "**/project.json";
 
     public static final String WORKFLOW_FILE_PREDICATE_KEY = "uipath.workflow.file.predicate";
     public static final String WORKFLOW_FILE_PREDICATE_DEFAULT_VALUE = "**/*.xaml";
 
+    public static final String ANALYSIS_THREADS_KEY = "uipath.analysis.threads";
+    public static final String ANALYSIS_THREADS_DEFAULT_VALUE = "1";
+
+    public static final String DOCUMENT_CACHE_SIZE_KEY = "uipath.analysis.documentcache.size";
+    public static final String DOCUMENT_CACHE_SIZE_DEFAULT_VALUE = "256";
+
+    public static final String PARSE_CACHE_ENABLED_KEY = "uipath.analysis.parsecache.enabled";
+    public static final String PARSE_CACHE_ENABLED_DEFAULT_VALUE = "false";
+
+    public static final String PARSE_CACHE_PATH_KEY = "uipath.analysis.parsecache.path";
+    public static final String PARSE_CACHE_PATH_DEFAULT_VALUE = "";
+
+    public static final String PARSE_CACHE_SIZE_KEY = "uipath.analysis.parsecache.size";
+    public static final String PARSE_CACHE_SIZE_DEFAULT_VALUE = "512";
+
+    public static final String RESULT_CACHE_ENABLED_KEY = "uipath.analysis.resultcache.enabled";
+    public static final String RESULT_CACHE_ENABLED_DEFAULT_VALUE = "false";
+
+    public static final String RESULT_CACHE_SIZE_KEY = "uipath.analysis.resultcache.size";
+    public static final String RESULT_CACHE_SIZE_DEFAULT_VALUE = "64";
+
+    public static final String PROFILE_ENABLED_KEY = "uipath.analysis.profile.enabled";
+    public static final String PROFILE_ENABLED_DEFAULT_VALUE = "false";
+
+    public static final String PROFILE_TOP_KEY = "uipath.analysis.profile.top";
+    public static final String PROFILE_TOP_DEFAULT_VALUE = "10";
+
     private UiPathLanguageProperties() {}
 
     public static List<PropertyDefinition> getProperties() {
@@ -31,6 +62,59 @@ public class UiPathLanguageProperties {
                 //.category(UiPathLanguage.UIPATH_LANGUAGE_NAME)
                 .name("Workflow File Predicate")
                 .description("Predicate pattern used to identify workflow files.")
+                .build(),
+            PropertyDefinition.builder(ANALYSIS_THREADS_KEY)
+                .defaultValue(ANALYSIS_THREADS_DEFAULT_VALUE)
+                .type(PropertyType.INTEGER)
+                .name("Analysis Threads")
+                .description("Number of threads used to load and analyze workflows. Use 0 to use one thread per available processor.")
+                .build(),
+            PropertyDefinition.builder(DOCUMENT_CACHE_SIZE_KEY)
+                .defaultValue(DOCUMENT_CACHE_SIZE_DEFAULT_VALUE)
+                .type(PropertyType.INTEGER)
+                .name("Workflow Document Cache Size")
+                .description("Estimated memory, in MB, that parsed workflow documents may use before the least recently used ones are released. Use 0 to keep every document.")
+                .build(),
+            PropertyDefinition.builder(PARSE_CACHE_ENABLED_KEY)
+                .defaultValue(PARSE_CACHE_ENABLED_DEFAULT_VALUE)
+                .type(PropertyType.BOOLEAN)
+                .name("Parse Cache Enabled")
+                .description("Stores parsed workflows on disk so that unchanged workflows are not parsed again by the next analysis. Off by default.")
+                .build(),
+            PropertyDefinition.builder(PARSE_CACHE_PATH_KEY)
+                .defaultValue(PARSE_CACHE_PATH_DEFAULT_VALUE)
+                .name("Parse Cache Directory")
+                .description("Directory of the parse and result caches. Leave blank to use the 'uipath-cache' directory in the scanner working directory.")
+                .build(),
+            PropertyDefinition.builder(PARSE_CACHE_SIZE_KEY)
+                .defaultValue(PARSE_CACHE_SIZE_DEFAULT_VALUE)
+                .type(PropertyType.INTEGER)
+                .name("Parse Cache Size")
+                .description("Maximum size, in MB, of the parse cache. The least recently used entries are deleted past this size.")
+                .build(),
+            PropertyDefinition.builder(RESULT_CACHE_ENABLED_KEY)
+                .defaultValue(RESULT_CACHE_ENABLED_DEFAULT_VALUE)
+                .type(PropertyType.BOOLEAN)
+                .name("Result Cache Enabled")
+                .description("Stores the issues of every workflow so that the next analysis replays them, instead of checking again, when neither the workflow, the workflows it invokes, the check settings nor the plugin build changed. Off by default.")
+                .build(),
+            PropertyDefinition.builder(RESULT_CACHE_SIZE_KEY)
+                .defaultValue(RESULT_CACHE_SIZE_DEFAULT_VALUE)
+                .type(PropertyType.INTEGER)
+                .name("Result Cache Size")
+                .description("Maximum size, in MB, of the result cache. The entries of deleted workflows, then the least recently used entries past this size, are deleted after each analysis.")
+                .build(),
+            PropertyDefinition.builder(PROFILE_ENABLED_KEY)
+                .defaultValue(PROFILE_ENABLED_DEFAULT_VALUE)
+                .type(PropertyType.BOOLEAN)
+                .name("Analysis Profile Enabled")
+                .description("Records the time spent in every analysis phase, check and workflow. The slowest checks and workflows are logged at the end of the analysis, and the full profile is written to 'uipath-profile.json' in the scanner working directory.")
+                .build(),
+            PropertyDefinition.builder(PROFILE_TOP_KEY)
+                .defaultValue(PROFILE_TOP_DEFAULT_VALUE)
+                .type(PropertyType.INTEGER)
+                .name("Analysis Profile Summary Size")
+                .description("Number of slowest checks, and of slowest workflows, logged when the analysis profile is enabled.")
                 .build()
         );
     }
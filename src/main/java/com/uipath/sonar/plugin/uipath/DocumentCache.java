@@ -0,0 +1,220 @@
+package com.uipath.sonar.plugin.uipath;
+
+import com.uipath.sonar.plugin.AnalysisProfiler;
+import com.uipath.sonar.plugin.events.AnalysisEvents;
+import org.dom4j.Document;
+import org.dom4j.DocumentException;
+import org.dom4j.Element;
+
+import java.lang.ref.SoftReference;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * DocumentCache holds the XAML documents of a Project's workflows.
+ *
+ * Documents are parsed on first access. The most recently used documents are kept in memory up to a budget, estimated
+ * from the size of their files. Documents evicted from that budget are only softly referenced: the garbage collector
+ * may reclaim them when memory runs low, in which case they are parsed again on their next access.
+ *
+ * The ElementIndex of a document is built when the document is parsed, and is cached along with it, as are the
+ * ElementPositions recorded by the parser. Both are also attached to the WorkflowDocument, so that the position of an
+ * element a check still holds is found without parsing the workflow again, even after the document was collected.
+ */
+public class DocumentCache {
+
+    // A dom4j tree takes several times the size of its XML file in memory.
+    private static final long ESTIMATED_BYTES_PER_FILE_BYTE = 8;
+    private static final AnalysisEvents EVENTS = AnalysisEvents.get();
+
+    private final long budgetBytes;
+    private long usedBytes;
+
+    private final Map<Workflow, SoftReference<Parsed>> references = new ConcurrentHashMap<>();
+    private final LinkedHashMap<Workflow, Resident> residents = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final AtomicLong parseCount = new AtomicLong();
+    private final AtomicLong reparseCount = new AtomicLong();
+    private final AtomicLong evictionCount = new AtomicLong();
+
+    /**
+     * @param budgetBytes The estimated amount of memory, in bytes, the cached documents may use. 0 or less keeps every
+     *                    document in memory.
+     */
+    public DocumentCache(long budgetBytes){
+        this.budgetBytes = budgetBytes <= 0 ? Long.MAX_VALUE : budgetBytes;
+    }
+
+    public static DocumentCache withBudgetMegabytes(long budgetMegabytes){
+        return new DocumentCache(budgetMegabytes * 1024 * 1024);
+    }
+
+    public Document get(Workflow workflow){
+        return load(workflow).document;
+    }
+
+    public ElementIndex getIndex(Workflow workflow){
+        return load(workflow).index;
+    }
+
+    public ElementPositions getPositions(Workflow workflow){
+        return load(workflow).positions;
+    }
+
+    /**
+     * Returns the line where an element of the document of a workflow ends its start tag, or 0 if the element is not
+     * part of that document.
+     */
+    public int getLine(Workflow workflow, Element element){
+        WorkflowDocument document = WorkflowDocument.of(workflow, element);
+
+        if(document != null){
+            return document.getPositions().getLine(document.getIndex().getOrdinal(element));
+        }
+
+        Parsed parsed = load(workflow);
+        return parsed.positions.getLine(parsed.index.getOrdinal(element));
+    }
+
+    /**
+     * Returns the column just past the start tag of an element of the document of a workflow, or 0 if the element is
+     * not part of that document.
+     */
+    public int getColumn(Workflow workflow, Element element){
+        WorkflowDocument document = WorkflowDocument.of(workflow, element);
+
+        if(document != null){
+            return document.getPositions().getColumn(document.getIndex().getOrdinal(element));
+        }
+
+        Parsed parsed = load(workflow);
+        return parsed.positions.getColumn(parsed.index.getOrdinal(element));
+    }
+
+    private Parsed load(Workflow workflow){
+
+        synchronized (workflow.getDocumentLock()){
+            SoftReference<Parsed> reference = references.get(workflow);
+            Parsed parsed = reference == null ? null : reference.get();
+
+            if(parsed == null){
+                if(reference != null){
+                    reparseCount.incrementAndGet();
+                }
+
+                parsed = parse(workflow);
+                references.put(workflow, new SoftReference<>(parsed));
+            }
+
+            retain(workflow, parsed);
+            return parsed;
+        }
+    }
+
+    private Parsed parse(Workflow workflow){
+        try{
+            parseCount.incrementAndGet();
+            AnalysisProfiler profiler = workflow.getProject().getProfiler();
+            AnalysisProfiler.Sample sample = profiler.start();
+            Object event = EVENTS.beginParse();
+
+            ParsedDocument parsed = workflow.parseXamlDocument();
+            Document document = parsed.getDocument();
+            Parsed result = new Parsed(document, ElementIndex.build(document), parsed.getPositions());
+
+            if(document instanceof WorkflowDocument){
+                ((WorkflowDocument)document).attach(workflow, result.index, result.positions);
+            }
+
+            workflow.setElementCount(parsed.getPositions().size());
+            profiler.recordParse(workflow, sample, parsed.getPositions().size());
+            EVENTS.commitParse(event, workflow, parsed.getPositions().size());
+            return result;
+        }
+        catch(DocumentException e){
+            throw new IllegalStateException("Could not parse workflow '" + workflow.getFile() + "'.", e);
+        }
+    }
+
+    private synchronized void retain(Workflow workflow, Parsed parsed){
+
+        // Looking the workflow up also marks it as the most recently used.
+        if(residents.get(workflow) != null){
+            return;
+        }
+
+        Resident resident = new Resident(parsed, workflow.getFile().length() * ESTIMATED_BYTES_PER_FILE_BYTE);
+        residents.put(workflow, resident);
+        usedBytes += resident.size;
+
+        Iterator<Map.Entry<Workflow, Resident>> eldest = residents.entrySet().iterator();
+
+        while(usedBytes > budgetBytes && residents.size() > 1){
+            Map.Entry<Workflow, Resident> entry = eldest.next();
+
+            if(entry.getKey() != workflow){
+                usedBytes -= entry.getValue().size;
+                eldest.remove();
+                evictionCount.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Clears the soft references of the documents evicted from the budget, as the garbage collector does when memory
+     * runs low. Documents still held elsewhere stay in memory, but are parsed again on their next access.
+     */
+    void clearEvicted(){
+        synchronized (this){
+            for(Map.Entry<Workflow, SoftReference<Parsed>> entry : references.entrySet()){
+                if(!residents.containsKey(entry.getKey())){
+                    entry.getValue().clear();
+                }
+            }
+        }
+    }
+
+    public long getParseCount(){
+        return parseCount.get();
+    }
+
+    public long getReparseCount(){
+        return reparseCount.get();
+    }
+
+    public long getEvictionCount(){
+        return evictionCount.get();
+    }
+
+    @Override
+    public String toString(){
+        return String.format("%d document(s) parsed, %d re-parsed after being collected, %d evicted from the cache",
+            getParseCount(), getReparseCount(), getEvictionCount());
+    }
+
+    private static class Parsed {
+        private final Document document;
+        private final ElementIndex index;
+        private final ElementPositions positions;
+
+        Parsed(Document document, ElementIndex index, ElementPositions positions){
+            this.document = document;
+            this.index = index;
+            this.positions = positions;
+        }
+    }
+
+    private static class Resident {
+        // Strong reference, which keeps the document from being collected while it is within the budget.
+        private final Parsed parsed;
+        private final long size;
+
+        Resident(Parsed parsed, long size){
+            this.parsed = parsed;
+            this.size = size;
+        }
+    }
+}
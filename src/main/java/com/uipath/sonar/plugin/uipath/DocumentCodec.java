@@ -0,0 +1,244 @@
+package com.uipath.sonar.plugin.uipath;
+
+import org.dom4j.Attribute;
+import org.dom4j.Branch;
+import org.dom4j.Document;
+import org.dom4j.DocumentFactory;
+import org.dom4j.Element;
+import org.dom4j.Namespace;
+import org.dom4j.Node;
+import org.dom4j.ProcessingInstruction;
+import org.dom4j.QName;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * DocumentCodec writes a dom4j Document to a compact binary form, and reads it back.
+ *
+ * Strings are written once and referred to by index afterwards, so the element names, namespaces and attribute names
+ * that make up most of a XAML file cost a few bytes each. Reading a document back does not involve any XML parsing.
+ */
+public final class DocumentCodec {
+
+    private static final int END = 0;
+    private static final int ELEMENT = 1;
+    private static final int TEXT = 2;
+    private static final int CDATA = 3;
+    private static final int COMMENT = 4;
+    private static final int PROCESSING_INSTRUCTION = 5;
+    private static final int NAMESPACE = 6;
+
+    private DocumentCodec(){}
+
+    public static void write(Document document, DataOutputStream out) throws IOException {
+        Writer writer = new Writer(out);
+        writer.writeContent(document);
+    }
+
+    public static Document read(DataInputStream in) throws IOException {
+        Reader reader = new Reader(in);
+        Document document = reader.factory.createDocument();
+        reader.readContent(document);
+        return document;
+    }
+
+    /**
+     * Writes a non-negative int in 1 to 5 bytes, 7 bits at a time.
+     */
+    static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        while((value & ~0x7F) != 0){
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    static int readVarInt(DataInputStream in) throws IOException {
+        int value = 0;
+
+        for(int shift = 0; shift < 32; shift += 7){
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+
+            if((b & 0x80) == 0){
+                return value;
+            }
+        }
+
+        throw new IOException("Malformed variable-length integer.");
+    }
+
+    private static class Writer {
+        private final DataOutputStream out;
+        private final Map<String, Integer> strings = new HashMap<>();
+
+        Writer(DataOutputStream out){
+            this.out = out;
+        }
+
+        void writeContent(Branch branch) throws IOException {
+            for(int i = 0, size = branch.nodeCount(); i < size; i++){
+                writeNode(branch.node(i));
+            }
+            writeVarInt(END);
+        }
+
+        void writeNode(Node node) throws IOException {
+            switch(node.getNodeType()){
+                case Node.ELEMENT_NODE:
+                    writeElement((Element)node);
+                    break;
+                case Node.TEXT_NODE:
+                    writeVarInt(TEXT);
+                    writeString(node.getText());
+                    break;
+                case Node.CDATA_SECTION_NODE:
+                    writeVarInt(CDATA);
+                    writeString(node.getText());
+                    break;
+                case Node.COMMENT_NODE:
+                    writeVarInt(COMMENT);
+                    writeString(node.getText());
+                    break;
+                case Node.PROCESSING_INSTRUCTION_NODE:
+                    ProcessingInstruction instruction = (ProcessingInstruction)node;
+                    writeVarInt(PROCESSING_INSTRUCTION);
+                    writeString(instruction.getTarget());
+                    writeString(instruction.getText());
+                    break;
+                case Node.NAMESPACE_NODE:
+                    Namespace namespace = (Namespace)node;
+                    writeVarInt(NAMESPACE);
+                    writeString(namespace.getPrefix());
+                    writeString(namespace.getURI());
+                    break;
+                default:
+                    // Entities and document types are not used by XAML files.
+                    break;
+            }
+        }
+
+        void writeElement(Element element) throws IOException {
+            writeVarInt(ELEMENT);
+            writeQName(element.getQName());
+
+            writeVarInt(element.attributeCount());
+            for(int i = 0, size = element.attributeCount(); i < size; i++){
+                Attribute attribute = element.attribute(i);
+                writeQName(attribute.getQName());
+                writeString(attribute.getValue());
+            }
+
+            writeContent(element);
+        }
+
+        void writeQName(QName qName) throws IOException {
+            writeString(qName.getNamespacePrefix());
+            writeString(qName.getName());
+            writeString(qName.getNamespaceURI());
+        }
+
+        void writeString(String value) throws IOException {
+            Integer index = strings.get(value);
+
+            if(index != null){
+                writeVarInt(index + 1);
+                return;
+            }
+
+            strings.put(value, strings.size());
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarInt(0);
+            writeVarInt(bytes.length);
+            out.write(bytes);
+        }
+
+        void writeVarInt(int value) throws IOException {
+            DocumentCodec.writeVarInt(out, value);
+        }
+    }
+
+    private static class Reader {
+        private final DataInputStream in;
+        private final DocumentFactory factory = WorkflowDocument.FACTORY;
+        private final List<String> strings = new ArrayList<>();
+
+        Reader(DataInputStream in){
+            this.in = in;
+        }
+
+        void readContent(Branch branch) throws IOException {
+            for(int type = readVarInt(); type != END; type = readVarInt()){
+                switch(type){
+                    case ELEMENT:
+                        readElement(branch);
+                        break;
+                    case TEXT:
+                        ((Element)branch).addText(readString());
+                        break;
+                    case CDATA:
+                        ((Element)branch).addCDATA(readString());
+                        break;
+                    case COMMENT:
+                        branch.add(factory.createComment(readString()));
+                        break;
+                    case PROCESSING_INSTRUCTION:
+                        branch.add(factory.createProcessingInstruction(readString(), readString()));
+                        break;
+                    case NAMESPACE:
+                        ((Element)branch).add(Namespace.get(readString(), readString()));
+                        break;
+                    default:
+                        throw new IOException("Unknown node type " + type + ".");
+                }
+            }
+        }
+
+        void readElement(Branch parent) throws IOException {
+            Element element = factory.createElement(readQName());
+
+            // An attribute takes at least four string references: prefix, name, namespace URI and value.
+            for(int i = 0, count = EntryInputStream.checkLength(in, readVarInt(), 4); i < count; i++){
+                element.addAttribute(readQName(), readString());
+            }
+
+            parent.add(element);
+            readContent(element);
+        }
+
+        QName readQName() throws IOException {
+            String prefix = readString();
+            String name = readString();
+            String uri = readString();
+            return factory.createQName(name, Namespace.get(prefix, uri));
+        }
+
+        String readString() throws IOException {
+            int index = readVarInt();
+
+            if(index > 0){
+                if(index > strings.size()){
+                    throw new IOException("Invalid string reference " + index + ".");
+                }
+                return strings.get(index - 1);
+            }
+
+            byte[] bytes = new byte[EntryInputStream.checkLength(in, readVarInt(), 1)];
+            in.readFully(bytes);
+            String value = new String(bytes, StandardCharsets.UTF_8);
+            strings.add(value);
+            return value;
+        }
+
+        int readVarInt() throws IOException {
+            return DocumentCodec.readVarInt(in);
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.uipath.sonar.plugin.uipath;
+
+import org.dom4j.Attribute;
+import org.dom4j.Document;
+import org.dom4j.Element;
+import org.dom4j.QName;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * ElementIndex holds the elements of a workflow document by namespace URI and by QName, in document order.
+ *
+ * The index is built by the DocumentCache in a single walk, when the document is parsed, and lives as long as the
+ * document. The ActivityVisitor collects the elements of activity checks from it, and checks can use it to skip a
+ * workflow that doesn't use a namespace at all, rather than running an XPath query on it: in that case every lookup
+ * returns an empty list immediately.
+ *
+ * The index also gives the ordinal of an element, its position in document order, which keys its ElementPositions.
+ */
+public class ElementIndex {
+
+    private final Map<String, List<Element>> byNamespace = new HashMap<>();
+    private final Map<QName, List<Element>> byQName = new HashMap<>();
+    private final Set<String> attributeNamespaces = new HashSet<>();
+    private final List<Element> elements = new ArrayList<>();
+
+    private Map<Element, Integer> ordinals;
+
+    private ElementIndex(){
+    }
+
+    public static ElementIndex build(Document document){
+        ElementIndex index = new ElementIndex();
+        Deque<Element> pending = new ArrayDeque<>();
+        pending.push(document.getRootElement());
+
+        while(!pending.isEmpty()){
+            Element element = pending.pop();
+            index.add(element);
+
+            // Push the children in reverse order, so they are popped in document order.
+            List<Element> children = element.elements();
+            for(int i = children.size() - 1; i >= 0; i--){
+                pending.push(children.get(i));
+            }
+        }
+
+        return index;
+    }
+
+    private void add(Element element){
+        elements.add(element);
+        byNamespace.computeIfAbsent(element.getNamespaceURI(), key -> new ArrayList<>()).add(element);
+        byQName.computeIfAbsent(element.getQName(), key -> new ArrayList<>()).add(element);
+
+        for(int i = 0; i < element.attributeCount(); i++){
+            Attribute attribute = element.attribute(i);
+            if(!attribute.getNamespaceURI().isEmpty()){
+                attributeNamespaces.add(attribute.getNamespaceURI());
+            }
+        }
+    }
+
+    /**
+     * Returns the elements that belong to a namespace, in document order.
+     */
+    public List<Element> getElements(String namespaceUri){
+        return Collections.unmodifiableList(byNamespace.getOrDefault(namespaceUri, Collections.emptyList()));
+    }
+
+    /**
+     * Returns the elements with a given name, in document order.
+     */
+    public List<Element> getElements(QName qName){
+        return Collections.unmodifiableList(byQName.getOrDefault(qName, Collections.emptyList()));
+    }
+
+    /**
+     * Returns the elements with one of the given names, or that belong to one of the given namespaces, in document
+     * order. An element matched both by name and by namespace is returned once.
+     */
+    public List<Element> getElements(Collection<QName> qNames, Collection<String> namespaceUris){
+        List<List<Element>> lists = new ArrayList<>();
+
+        for(String namespaceUri : namespaceUris){
+            addIfPresent(lists, byNamespace.get(namespaceUri));
+        }
+
+        for(QName qName : qNames){
+            if(!namespaceUris.contains(qName.getNamespaceURI())){
+                addIfPresent(lists, byQName.get(qName));
+            }
+        }
+
+        if(lists.isEmpty()){
+            return Collections.emptyList();
+        }
+
+        if(lists.size() == 1){
+            return Collections.unmodifiableList(lists.get(0));
+        }
+
+        // Each list is in document order already, and no element is in two of them.
+        List<Element> merged = new ArrayList<>();
+        lists.forEach(merged::addAll);
+        merged.sort(Comparator.comparingInt(this::getOrdinal));
+        return merged;
+    }
+
+    private static void addIfPresent(List<List<Element>> lists, List<Element> list){
+        if(list != null){
+            lists.add(list);
+        }
+    }
+
+    /**
+     * Returns true if at least one element or attribute of the document belongs to a namespace. Namespaces that are
+     * declared but never used don't count.
+     */
+    public boolean usesNamespace(String namespaceUri){
+        return byNamespace.containsKey(namespaceUri) || attributeNamespaces.contains(namespaceUri);
+    }
+
+    /**
+     * Returns the namespaces used by the elements and attributes of the document.
+     */
+    public Set<String> getNamespaces(){
+        Set<String> namespaces = new HashSet<>(byNamespace.keySet());
+        namespaces.addAll(attributeNamespaces);
+        return namespaces;
+    }
+
+    /**
+     * Returns the ordinal of an element of the document, or -1 if the element is not part of it. The ordinals are
+     * mapped on first use, since only issues reported on an element need them.
+     */
+    public synchronized int getOrdinal(Element element){
+        if(ordinals == null){
+            ordinals = new IdentityHashMap<>(elements.size() * 2);
+            for(int i = 0; i < elements.size(); i++){
+                ordinals.put(elements.get(i), i);
+            }
+        }
+
+        return ordinals.getOrDefault(element, -1);
+    }
+}
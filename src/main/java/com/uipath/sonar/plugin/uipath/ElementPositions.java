@@ -0,0 +1,138 @@
+package com.uipath.sonar.plugin.uipath;
+
+import org.dom4j.DocumentFactory;
+import org.dom4j.io.SAXContentHandler;
+import org.dom4j.io.SAXReader;
+import org.xml.sax.Attributes;
+import org.xml.sax.Locator;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * ElementPositions holds where the elements of a workflow document are in its XAML file, by element ordinal: the
+ * position of the element in document order, the root element being 0.
+ *
+ * Positions are recorded from the SAX Locator while the file is parsed, and are packed two ints per element (line,
+ * then column) in a single array. The position of an element is where the parser stands once it has read the start
+ * tag, that is just past its closing '>'. Lines and columns start at 1; 0 means unknown.
+ */
+public final class ElementPositions {
+
+    private final int[] data;
+    private final int size;
+
+    private ElementPositions(int[] data, int size){
+        this.data = data;
+        this.size = size;
+    }
+
+    /**
+     * Returns the number of elements with a position.
+     */
+    public int size(){
+        return size;
+    }
+
+    public int getLine(int ordinal){
+        return ordinal >= 0 && ordinal < size ? data[2 * ordinal] : 0;
+    }
+
+    public int getColumn(int ordinal){
+        return ordinal >= 0 && ordinal < size ? data[2 * ordinal + 1] : 0;
+    }
+
+    /**
+     * Returns a SAXReader that records the position of every element it reads in the given Builder.
+     */
+    static SAXReader recordingReader(Builder builder){
+        return new SAXReader(){
+            @Override
+            protected SAXContentHandler createContentHandler(XMLReader reader){
+                return new RecordingContentHandler(getDocumentFactory(), builder);
+            }
+        };
+    }
+
+    /**
+     * Writes the positions with DocumentCodec variable-length ints. Lines are written as the difference with the line
+     * of the previous element, which never decreases in document order and is mostly 0 or 1.
+     */
+    void write(DataOutputStream out) throws IOException {
+        DocumentCodec.writeVarInt(out, size);
+
+        int previousLine = 0;
+        for(int i = 0; i < size; i++){
+            int line = data[2 * i];
+            DocumentCodec.writeVarInt(out, line - previousLine);
+            DocumentCodec.writeVarInt(out, data[2 * i + 1]);
+            previousLine = line;
+        }
+    }
+
+    static ElementPositions read(DataInputStream in) throws IOException {
+        // Each position takes at least two bytes, one per variable-length int.
+        int size = EntryInputStream.checkLength(in, DocumentCodec.readVarInt(in), 2);
+        int[] data = new int[2 * size];
+
+        int line = 0;
+        for(int i = 0; i < size; i++){
+            line += DocumentCodec.readVarInt(in);
+            data[2 * i] = line;
+            data[2 * i + 1] = DocumentCodec.readVarInt(in);
+        }
+
+        return new ElementPositions(data, size);
+    }
+
+    static class Builder {
+        private int[] data = new int[256];
+        private int size;
+
+        void add(int line, int column){
+            if(2 * size + 1 >= data.length){
+                data = Arrays.copyOf(data, data.length * 2);
+            }
+
+            data[2 * size] = Math.max(line, 0);
+            data[2 * size + 1] = Math.max(column, 0);
+            size++;
+        }
+
+        ElementPositions build(){
+            return new ElementPositions(Arrays.copyOf(data, 2 * size), size);
+        }
+    }
+
+    private static class RecordingContentHandler extends SAXContentHandler {
+        private final Builder builder;
+        private Locator locator;
+
+        RecordingContentHandler(DocumentFactory documentFactory, Builder builder){
+            super(documentFactory);
+            this.builder = builder;
+        }
+
+        @Override
+        public void setDocumentLocator(Locator locator){
+            super.setDocumentLocator(locator);
+            this.locator = locator;
+        }
+
+        @Override
+        public void startElement(String namespaceURI, String localName, String qualifiedName, Attributes attributes) throws SAXException {
+            super.startElement(namespaceURI, localName, qualifiedName, attributes);
+
+            if(locator != null){
+                builder.add(locator.getLineNumber(), locator.getColumnNumber());
+            }
+            else {
+                builder.add(0, 0);
+            }
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.uipath.sonar.plugin.uipath;
+
+import java.io.DataInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * EntryInputStream reads a cache entry of a known length. Lengths and counts read from the entry are checked against
+ * the bytes left in it, so that a corrupt entry fails with an IOException instead of asking for an allocation that no
+ * entry of that size could fill.
+ */
+final class EntryInputStream extends DataInputStream {
+
+    EntryInputStream(InputStream in, long length){
+        super(new Remaining(in, length));
+    }
+
+    long remaining(){
+        return ((Remaining)in).remaining;
+    }
+
+    /**
+     * Checks a length or count read from an entry, each item of which takes at least bytesPerItem bytes in the entry.
+     * Only the sign is checked when the stream is not an EntryInputStream.
+     */
+    static int checkLength(DataInputStream in, int length, int bytesPerItem) throws IOException {
+        long remaining = in instanceof EntryInputStream ? ((EntryInputStream)in).remaining() : Long.MAX_VALUE;
+
+        if(length < 0 || (long)length * bytesPerItem > remaining){
+            throw new IOException(String.format("Invalid length %d, with %d byte(s) left in the entry.", length, remaining));
+        }
+
+        return length;
+    }
+
+    private static final class Remaining extends FilterInputStream {
+        private long remaining;
+
+        Remaining(InputStream in, long length){
+            super(in);
+            this.remaining = length;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if(b >= 0){
+                remaining--;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int count = super.read(buffer, offset, length);
+            if(count > 0){
+                remaining -= count;
+            }
+            return count;
+        }
+
+        @Override
+        public long skip(long count) throws IOException {
+            long skipped = super.skip(count);
+            remaining -= skipped;
+            return skipped;
+        }
+
+        @Override
+        public boolean markSupported(){
+            return false;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.uipath.sonar.plugin.uipath;
+
+import org.dom4j.Element;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Invocation is an edge of the InvocationGraph: an 'Invoke Workflow File' activity of a caller workflow.
+ *
+ * The activity is located by its index among the 'Invoke Workflow File' activities of the caller, in document order,
+ * rather than by holding its element, so the graph doesn't keep workflow documents out of the DocumentCache.
+ */
+public class Invocation {
+
+    private final Workflow caller;
+    private final int index;
+    private final String activityName;
+    private final String path;
+    private final boolean literal;
+    private final Workflow target;
+    private final List<WorkflowArgument> suppliedArguments;
+
+    Invocation(Workflow caller, int index, String activityName, String path, boolean literal, Workflow target, List<WorkflowArgument> suppliedArguments){
+        this.caller = caller;
+        this.index = index;
+        this.activityName = activityName;
+        this.path = path;
+        this.literal = literal;
+        this.target = target;
+        this.suppliedArguments = Collections.unmodifiableList(new ArrayList<>(suppliedArguments));
+    }
+
+    public Workflow getCaller(){
+        return caller;
+    }
+
+    /**
+     * Returns the index of the activity among the 'Invoke Workflow File' activities of the caller, in document order.
+     */
+    public int getIndex(){
+        return index;
+    }
+
+    /**
+     * Returns the activity element, from the current document of the caller.
+     */
+    public Element getElement(){
+        List<Element> elements = InvocationGraph.invokeElements(caller);
+
+        if(index < elements.size()){
+            return elements.get(index);
+        }
+
+        throw new IllegalStateException("Workflow '" + caller.getName() + "' has no invocation #" + index + ".");
+    }
+
+    /**
+     * Returns the DisplayName of the activity.
+     */
+    public String getActivityName(){
+        return activityName;
+    }
+
+    /**
+     * Returns the WorkflowFileName of the activity, as written in the XAML.
+     */
+    public String getPath(){
+        return path;
+    }
+
+    /**
+     * Returns true if the path is a literal string, false if it is an expression evaluated at run time.
+     */
+    public boolean isLiteral(){
+        return literal;
+    }
+
+    /**
+     * Returns the invoked workflow. This is empty for an expression, or when the path doesn't resolve to a workflow of
+     * the project.
+     * Like Project.getWorkflowWithPath, the lookup is recorded by Project.recordLookups.
+     */
+    public Optional<Workflow> getTarget(){
+        if(literal){
+            caller.getProject().recordLookup(path, Optional.ofNullable(target));
+        }
+
+        return Optional.ofNullable(target);
+    }
+
+    public List<WorkflowArgument> getSuppliedArguments(){
+        return suppliedArguments;
+    }
+
+    @Override
+    public String toString(){
+        return String.format("{ caller: %s, activity: %s, path: %s, literal: %s }", caller.getName(), activityName, path, literal);
+    }
+}
@@ -0,0 +1,276 @@
+package com.uipath.sonar.plugin.uipath;
+
+import org.dom4j.Element;
+import org.dom4j.QName;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * InvocationGraph holds the 'Invoke Workflow File' activities of a Project, as caller to callee Invocation edges.
+ *
+ * The invocations of a caller are read in a single walk of its document, the first time they are asked for, and are
+ * then shared by every check. Workflows whose check results are replayed from the ResultCache are therefore never
+ * parsed for the graph. Queries over the whole graph (callers, fan-in, transitive closure and cycles) read the
+ * invocations of every workflow once, and their results are cached.
+ *
+ * The graph can be used from several threads at the same time.
+ */
+public class InvocationGraph {
+
+    private static final QName INVOKE_WORKFLOW_FILE = XamlNamespaces.uipath("InvokeWorkflowFile");
+    private static final QName INVOKE_WORKFLOW_FILE_ARGUMENTS = XamlNamespaces.uipath("InvokeWorkflowFile.Arguments");
+
+    private static final List<String> ARG_ELEMENT_NAMES = Arrays.asList( "InArgument", "OutArgument", "InOutArgument" );
+
+    private final Project project;
+    private final Map<Workflow, List<Invocation>> invocations = new ConcurrentHashMap<>();
+    private final Map<Workflow, Set<Workflow>> reachable = new ConcurrentHashMap<>();
+
+    private Map<Workflow, List<Workflow>> callers;
+    private List<List<Workflow>> cycles;
+
+    InvocationGraph(Project project){
+        this.project = project;
+    }
+
+    /**
+     * Returns the invocations made by a workflow, in document order.
+     */
+    public List<Invocation> getInvocations(Workflow caller){
+        List<Invocation> result = invocations.get(caller);
+
+        if(result == null){
+            result = read(caller);
+            List<Invocation> existing = invocations.putIfAbsent(caller, result);
+            if(existing != null){
+                result = existing;
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns the distinct workflows invoked by a workflow, in order of first invocation.
+     */
+    public List<Workflow> getCallees(Workflow caller){
+        Set<Workflow> callees = new LinkedHashSet<>();
+
+        for(Invocation invocation : getInvocations(caller)){
+            invocation.getTarget().ifPresent(callees::add);
+        }
+
+        return new ArrayList<>(callees);
+    }
+
+    /**
+     * Returns the distinct workflows that invoke a workflow, in Project order.
+     */
+    public List<Workflow> getCallers(Workflow callee){
+        return getCallersByCallee().getOrDefault(callee, Collections.emptyList());
+    }
+
+    public int getFanOut(Workflow caller){
+        return getCallees(caller).size();
+    }
+
+    public int getFanIn(Workflow callee){
+        return getCallers(callee).size();
+    }
+
+    /**
+     * Returns every workflow reachable from a workflow through one or more invocations. The workflow itself is only
+     * included when it is part of a cycle.
+     */
+    public Set<Workflow> getReachable(Workflow caller){
+        Set<Workflow> result = reachable.get(caller);
+
+        if(result == null){
+            Set<Workflow> visited = new LinkedHashSet<>();
+            Deque<Workflow> pending = new ArrayDeque<>(getCallees(caller));
+
+            while(!pending.isEmpty()){
+                Workflow workflow = pending.pop();
+
+                if(visited.add(workflow)){
+                    pending.addAll(getCallees(workflow));
+                }
+            }
+
+            result = Collections.unmodifiableSet(visited);
+            reachable.putIfAbsent(caller, result);
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns the groups of workflows that invoke each other, directly or not. A workflow that invokes itself is a
+     * group of its own.
+     */
+    public synchronized List<List<Workflow>> getCycles(){
+        if(cycles == null){
+            cycles = Collections.unmodifiableList(new Tarjan().run());
+        }
+
+        return cycles;
+    }
+
+    public boolean isInCycle(Workflow workflow){
+        return getReachable(workflow).contains(workflow);
+    }
+
+    private synchronized Map<Workflow, List<Workflow>> getCallersByCallee(){
+        if(callers == null){
+            Map<Workflow, List<Workflow>> result = new HashMap<>();
+
+            for(Workflow caller : project.getWorkflows()){
+                for(Workflow callee : getCallees(caller)){
+                    result.computeIfAbsent(callee, key -> new ArrayList<>()).add(caller);
+                }
+            }
+
+            callers = result;
+        }
+
+        return callers;
+    }
+
+    private List<Invocation> read(Workflow caller){
+        List<Invocation> result = new ArrayList<>();
+        int index = 0;
+
+        for(Element element : invokeElements(caller)){
+            String path = element.attributeValue("WorkflowFileName");
+            boolean literal = path != null && Utils.nodeIsPlainText(path);
+            Workflow target = literal ? project.findWorkflowWithPath(path).orElse(null) : null;
+
+            result.add(new Invocation(caller, index++, element.attributeValue("DisplayName"), path, literal, target, readArguments(element)));
+        }
+
+        return Collections.unmodifiableList(result);
+    }
+
+    private static List<WorkflowArgument> readArguments(Element invokeElement){
+        List<WorkflowArgument> arguments = new ArrayList<>();
+
+        for(Element argumentsElement : invokeElement.elements(INVOKE_WORKFLOW_FILE_ARGUMENTS)){
+            for(Element argument : argumentsElement.elements()){
+
+                if (ARG_ELEMENT_NAMES.contains(argument.getName())) {
+
+                    String name = argument.attributeValue("Key");
+                    String type = argument.attributeValue("TypeArguments");
+
+                    WorkflowArgument.Direction direction =
+                        argument.getName().equals("InArgument") ? WorkflowArgument.Direction.In
+                            : argument.getName().equals("OutArgument") ? WorkflowArgument.Direction.Out
+                            : WorkflowArgument.Direction.InOut;
+
+                    arguments.add(new WorkflowArgument(name, type, direction));
+                }
+            }
+        }
+
+        return arguments;
+    }
+
+    /**
+     * Returns the 'Invoke Workflow File' elements of a workflow, in document order, from its ElementIndex.
+     */
+    static List<Element> invokeElements(Workflow workflow){
+        return workflow.getElementIndex().getElements(INVOKE_WORKFLOW_FILE);
+    }
+
+    /**
+     * Tarjan's strongly connected components algorithm, without recursion.
+     */
+    private class Tarjan {
+        private final Map<Workflow, Integer> indexes = new HashMap<>();
+        private final Map<Workflow, Integer> lowLinks = new HashMap<>();
+        private final Deque<Workflow> stack = new ArrayDeque<>();
+        private final Set<Workflow> onStack = new HashSet<>();
+        private final List<List<Workflow>> components = new ArrayList<>();
+
+        List<List<Workflow>> run(){
+            for(Workflow workflow : project.getWorkflows()){
+                if(!indexes.containsKey(workflow)){
+                    connect(workflow);
+                }
+            }
+
+            return components;
+        }
+
+        private void connect(Workflow root){
+            Deque<Iterator<Workflow>> iterators = new ArrayDeque<>();
+            Deque<Workflow> path = new ArrayDeque<>();
+
+            visit(root);
+            path.push(root);
+            iterators.push(getCallees(root).iterator());
+
+            while(!path.isEmpty()){
+                Workflow workflow = path.peek();
+                Iterator<Workflow> callees = iterators.peek();
+
+                if(callees.hasNext()){
+                    Workflow callee = callees.next();
+
+                    if(!indexes.containsKey(callee)){
+                        visit(callee);
+                        path.push(callee);
+                        iterators.push(getCallees(callee).iterator());
+                    }
+                    else if(onStack.contains(callee)){
+                        lowLinks.put(workflow, Math.min(lowLinks.get(workflow), indexes.get(callee)));
+                    }
+                    continue;
+                }
+
+                path.pop();
+                iterators.pop();
+
+                if(!path.isEmpty()){
+                    Workflow parent = path.peek();
+                    lowLinks.put(parent, Math.min(lowLinks.get(parent), lowLinks.get(workflow)));
+                }
+
+                if(lowLinks.get(workflow).equals(indexes.get(workflow))){
+                    List<Workflow> component = new ArrayList<>();
+                    Workflow member;
+
+                    do{
+                        member = stack.pop();
+                        onStack.remove(member);
+                        component.add(member);
+                    } while(member != workflow);
+
+                    if(component.size() > 1 || getCallees(workflow).contains(workflow)){
+                        Collections.reverse(component);
+                        components.add(Collections.unmodifiableList(component));
+                    }
+                }
+            }
+        }
+
+        private void visit(Workflow workflow){
+            indexes.put(workflow, indexes.size());
+            lowLinks.put(workflow, indexes.get(workflow));
+            stack.push(workflow);
+            onStack.add(workflow);
+        }
+    }
+}
@@ -0,0 +1,285 @@
+package com.uipath.sonar.plugin.uipath;
+
+import com.google.common.hash.Hashing;
+import org.dom4j.Document;
+import org.sonar.api.utils.log.Logger;
+import org.sonar.api.utils.log.Loggers;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * ParseCache stores parsed workflows on disk, so that unchanged XAML files don't need to be parsed again by the next
+ * analysis.
+ *
+ * Entries are keyed by the SHA-256 hash of the XAML file content and by the plugin version and build. An entry holds
+ * the WorkflowSignature followed by the document, written with DocumentCodec, and by its ElementPositions. The
+ * signature can be read without decoding the document.
+ * Any entry that can't be read is deleted and the workflow is parsed normally. The total size of the entries is
+ * bounded: prune() deletes the least recently used entries once the cache grows past its maximum size.
+ */
+public class ParseCache {
+
+    private static final Logger LOG = Loggers.get(ParseCache.class);
+
+    private static final int MAGIC = 0x55495043;  // "UIPC"
+    private static final int FORMAT_VERSION = 3;
+    private static final String ENTRY_EXTENSION = ".bin";
+
+    private static final ParseCache DISABLED = new ParseCache(null, 0, "");
+
+    private final File directory;
+    private final long maxSizeBytes;
+    private final String pluginBuild;
+
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong writeCount = new AtomicLong();
+    private final AtomicLong corruptCount = new AtomicLong();
+
+    public ParseCache(File directory, long maxSizeBytes, String pluginBuild){
+        this.directory = directory;
+        this.maxSizeBytes = maxSizeBytes;
+        this.pluginBuild = pluginBuild;
+    }
+
+    /**
+     * Returns a ParseCache that never stores anything.
+     */
+    public static ParseCache disabled(){
+        return DISABLED;
+    }
+
+    public boolean isEnabled(){
+        return directory != null;
+    }
+
+    /**
+     * Computes the content hash used as a cache key for a file.
+     */
+    public static String hash(File file) throws IOException {
+        return com.google.common.io.Files.asByteSource(file).hash(Hashing.sha256()).toString();
+    }
+
+    public Optional<WorkflowSignature> loadSignature(Workflow workflow){
+        if(!isEnabled()){
+            return Optional.empty();
+        }
+
+        return readEntry(workflow, in -> readSignature(in, workflow.getPath()));
+    }
+
+    public Optional<ParsedDocument> loadDocument(Workflow workflow){
+        if(!isEnabled()){
+            return Optional.empty();
+        }
+
+        Optional<ParsedDocument> document = readEntry(workflow, in -> {
+            readSignature(in, workflow.getPath());
+            Document read = DocumentCodec.read(in);
+            return new ParsedDocument(read, ElementPositions.read(in));
+        });
+
+        if(document.isPresent()){
+            hitCount.incrementAndGet();
+        }
+        else {
+            missCount.incrementAndGet();
+        }
+
+        return document;
+    }
+
+    public void store(Workflow workflow, ParsedDocument document){
+        if(!isEnabled()){
+            return;
+        }
+
+        File entry = getEntryFile(workflow);
+        File temporary = new File(directory, entry.getName() + "." + Thread.currentThread().getId() + ".tmp");
+
+        try{
+            Files.createDirectories(directory.toPath());
+
+            try(DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary.toPath())))){
+                writeHeader(out, workflow.getContentHash());
+                writeSignature(out, workflow.getSignature());
+                DocumentCodec.write(document.getDocument(), out);
+                document.getPositions().write(out);
+            }
+
+            move(temporary.toPath(), entry.toPath());
+            writeCount.incrementAndGet();
+        }
+        catch(IOException | RuntimeException e){
+            LOG.debug("Could not write the parse cache entry of '" + workflow.getFile() + "'.", e);
+            delete(temporary);
+        }
+    }
+
+    /**
+     * Deletes the least recently used entries until the cache fits in its maximum size.
+     */
+    public void prune(){
+        if(isEnabled()){
+            prune(directory, maxSizeBytes, entry -> false);
+        }
+    }
+
+    /**
+     * Deletes the obsolete entries of a cache directory, then the least recently used ones until the remaining entries
+     * fit in the maximum size.
+     */
+    static void prune(File directory, long maxSizeBytes, Predicate<File> obsolete){
+        if(!directory.isDirectory()){
+            return;
+        }
+
+        try(Stream<Path> paths = Files.list(directory.toPath())){
+            List<File> entries = paths
+                .map(Path::toFile)
+                .filter(file -> file.getName().endsWith(ENTRY_EXTENSION))
+                .sorted(Comparator.comparingLong(File::lastModified))
+                .collect(Collectors.toCollection(ArrayList::new));
+
+            long totalSize = entries.stream().mapToLong(File::length).sum();
+
+            for(File entry : entries){
+                if(totalSize > maxSizeBytes || obsolete.test(entry)){
+                    totalSize -= entry.length();
+                    delete(entry);
+                }
+            }
+        }
+        catch(IOException e){
+            LOG.warn("Could not prune the cache in '" + directory + "'.", e);
+        }
+    }
+
+    @Override
+    public String toString(){
+        return String.format("%d hit(s), %d miss(es), %d write(s), %d corrupt entr(y/ies) discarded",
+            hitCount.get(), missCount.get(), writeCount.get(), corruptCount.get());
+    }
+
+    private <T> Optional<T> readEntry(Workflow workflow, EntryReader<T> entryReader){
+        File entry = getEntryFile(workflow);
+
+        if(!entry.isFile()){
+            return Optional.empty();
+        }
+
+        try(DataInputStream in = new EntryInputStream(new BufferedInputStream(Files.newInputStream(entry.toPath())), entry.length())){
+            if(!readHeader(in, workflow.getContentHash())){
+                return Optional.empty();
+            }
+
+            T value = entryReader.read(in);
+
+            // Marks the entry as recently used, for prune().
+            entry.setLastModified(System.currentTimeMillis());
+
+            return Optional.of(value);
+        }
+        catch(Exception e){
+            LOG.debug("Discarding corrupt parse cache entry '" + entry + "'.", e);
+            corruptCount.incrementAndGet();
+            delete(entry);
+            return Optional.empty();
+        }
+    }
+
+    private File getEntryFile(Workflow workflow){
+        String key = Hashing.sha256()
+            .hashString(pluginBuild + "/" + FORMAT_VERSION + "/" + workflow.getContentHash(), StandardCharsets.UTF_8)
+            .toString();
+
+        return new File(directory, key + ENTRY_EXTENSION);
+    }
+
+    private void writeHeader(DataOutputStream out, String contentHash) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT_VERSION);
+        out.writeUTF(pluginBuild);
+        out.writeUTF(contentHash);
+    }
+
+    private boolean readHeader(DataInputStream in, String contentHash) throws IOException {
+        if(in.readInt() != MAGIC){
+            throw new IOException("Not a parse cache entry.");
+        }
+
+        return in.readInt() == FORMAT_VERSION
+            && in.readUTF().equals(pluginBuild)
+            && in.readUTF().equals(contentHash);
+    }
+
+    private static void writeSignature(DataOutputStream out, WorkflowSignature signature) throws IOException {
+        out.writeInt(signature.getArguments().size());
+
+        for(WorkflowArgument argument : signature.getArguments()){
+            out.writeUTF(argument.getRawXml());
+            out.writeUTF(argument.getName());
+            out.writeUTF(argument.getRawType());
+            out.writeUTF(argument.getArgType());
+            out.writeUTF(argument.getDirection().name());
+        }
+    }
+
+    private static WorkflowSignature readSignature(DataInputStream in, Path path) throws IOException {
+        // Each argument takes at least five empty UTF strings.
+        int count = EntryInputStream.checkLength(in, in.readInt(), 10);
+        List<WorkflowArgument> arguments = new ArrayList<>(count);
+
+        for(int i = 0; i < count; i++){
+            String rawXml = in.readUTF();
+            String name = in.readUTF();
+            String rawType = in.readUTF();
+            String rawArgType = in.readUTF();
+            WorkflowArgument.Direction direction = WorkflowArgument.Direction.valueOf(in.readUTF());
+
+            arguments.add(new WorkflowArgument(rawXml, name, rawType, rawArgType, direction));
+        }
+
+        return new WorkflowSignature(path, arguments);
+    }
+
+    static void move(Path source, Path target) throws IOException {
+        try{
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        }
+        catch(AtomicMoveNotSupportedException e){
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    static void delete(File file){
+        try{
+            Files.deleteIfExists(file.toPath());
+        }
+        catch(IOException e){
+            LOG.debug("Could not delete '" + file + "'.", e);
+        }
+    }
+
+    private interface EntryReader<T> {
+        T read(DataInputStream in) throws IOException;
+    }
+}
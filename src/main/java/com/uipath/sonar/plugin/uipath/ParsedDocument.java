@@ -0,0 +1,25 @@
+package com.uipath.sonar.plugin.uipath;
+
+import org.dom4j.Document;
+
+/**
+ * ParsedDocument is a workflow document along with the ElementPositions recorded while parsing it.
+ */
+public final class ParsedDocument {
+
+    private final Document document;
+    private final ElementPositions positions;
+
+    ParsedDocument(Document document, ElementPositions positions){
+        this.document = document;
+        this.positions = positions;
+    }
+
+    public Document getDocument(){
+        return document;
+    }
+
+    public ElementPositions getPositions(){
+        return positions;
+    }
+}
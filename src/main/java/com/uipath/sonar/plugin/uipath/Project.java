@@ -1,19 +1,32 @@
 package com.uipath.sonar.plugin.uipath;
 
 import com.google.gson.Gson;
+import com.uipath.sonar.plugin.AnalysisProfiler;
 import com.uipath.sonar.plugin.HasInputFile;
+import com.uipath.sonar.plugin.IssueSink;
 import com.uipath.sonar.plugin.UiPathSensor;
+import com.uipath.sonar.plugin.WorkflowData;
+import com.uipath.sonar.plugin.settings.UiPathLanguageProperties;
 import org.apache.commons.io.FileUtils;
 import org.dom4j.DocumentException;
 import org.sonar.api.batch.fs.InputFile;
 import org.sonar.api.batch.sensor.SensorContext;
+import org.sonar.api.utils.log.Logger;
+import org.sonar.api.utils.log.Loggers;
 
 import java.io.File;
 import java.io.FileReader;
-import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
 
 /**
  * Project represents a UiPath project, built from a project.json file.
@@ -21,17 +34,59 @@ import java.util.Optional;
  * It contains a List of Workflow objects that belong to the project.
  * Issues must be created on a SensorContext and reported on InputFile objects. This class wraps an InputFile
  * for project.json. Any calls to reportIssue will be created on the project.json file.
+ *
+ * Workflows are loaded in parallel when more than one thread is requested. The resulting list is always sorted by
+ * path, and a workflow that fails to load is logged and left out rather than failing the whole Project.
+ * Lookups by path and by name go through a WorkflowIndex built once the workflows are loaded.
  */
 public class Project implements HasInputFile {
 
+    private static final Logger LOG = Loggers.get(Project.class);
+
+    private static final ThreadLocal<Map<String, String>> recordedLookups = new ThreadLocal<>();
+
     private File directory;
     private ArrayList<Workflow> workflows;
+    private WorkflowIndex workflowIndex;
+    private InvocationGraph invocationGraph;
     private ProjectJson projectJson;
     private UiPathSensor sensor;
     private SensorContext sensorContext;
     private InputFile inputFile;
+    private ParseCache parseCache;
+    private boolean readSignatures;
+    private IssueSink issueSink = new IssueSink();
+    private final LongAdder queryCount = new LongAdder();
+    private DocumentCache documentCache = DocumentCache.withBudgetMegabytes(Long.parseLong(UiPathLanguageProperties.DOCUMENT_CACHE_SIZE_DEFAULT_VALUE));
 
     public Project(File directory) throws DocumentException{
+        this(directory, 1);
+    }
+
+    public Project(File directory, int threads) throws DocumentException{
+        this(directory, threads, ParseCache.disabled());
+    }
+
+    public Project(File directory, int threads, ParseCache parseCache) throws DocumentException{
+        this(directory, threads, parseCache, listXamlFiles(directory));
+    }
+
+    /**
+     * Creates a Project from workflow files that were already discovered, such as the InputFiles indexed by Sonar.
+     * @param xamlFiles The workflow files of the project, each mapped to its InputFile, or to null when the project
+     *                  is not part of an analysis.
+     */
+    public Project(File directory, int threads, ParseCache parseCache, Map<File, InputFile> xamlFiles) throws DocumentException{
+        this(directory, threads, parseCache, xamlFiles, true);
+    }
+
+    /**
+     * Creates a Project from workflow files that were already discovered.
+     * @param readSignatures Whether the signature of every workflow is read while loading the project. Otherwise,
+     *                       signatures are read on first access, and a workflow whose file can't be read is not
+     *                       skipped until then.
+     */
+    public Project(File directory, int threads, ParseCache parseCache, Map<File, InputFile> xamlFiles, boolean readSignatures) throws DocumentException{
 
         if(!directory.exists()){
             throw new IllegalArgumentException("The specified directory does not exist.\n" + directory);
@@ -42,6 +97,8 @@ public class Project implements HasInputFile {
         }
 
         this.directory = directory;
+        this.parseCache = parseCache;
+        this.readSignatures = readSignatures;
 
         try{
             File projectJsonFile = Arrays.stream(directory.listFiles()).filter(f -> f.getName().equals("project.json")).findFirst().get();
@@ -52,21 +109,80 @@ public class Project implements HasInputFile {
             throw new IllegalArgumentException("Could not find project.json in the given directory '" + directory.toString() + "'.", ex);
         }
 
-        this.workflows = new ArrayList<>();
+        List<Map.Entry<File, InputFile>> sortedXamlFiles = new ArrayList<>(xamlFiles.entrySet());
+        sortedXamlFiles.sort(Comparator.comparing(entry -> entry.getKey().getPath()));
 
-        for(File xamlFile : FileUtils.listFiles(directory, new String[] {"xaml"}, true)){
-            workflows.add(new Workflow(this, xamlFile));
-        }
+        this.workflows = loadWorkflows(sortedXamlFiles, threads);
+        this.workflowIndex = new WorkflowIndex(directory, workflows);
+        this.invocationGraph = new InvocationGraph(this);
     }
 
-    public Project(File directory, UiPathSensor sensor, SensorContext sensorContext) throws DocumentException {
-        this(directory);
+    /**
+     * Creates a Project analyzed by the sensor. Its workflows are the XAML InputFiles indexed by Sonar that belong to
+     * the given directory, so the directory is not walked again. The DocumentCache is shared by every Project of the
+     * analysis. Signatures are only read up front when an active check needs them.
+     */
+    public Project(File directory, int threads, UiPathSensor sensor, SensorContext sensorContext) throws DocumentException {
+        this(directory, threads, sensor.getParseCache(), sensor.getWorkflowInputFiles(directory), sensor.getRequiredData().contains(WorkflowData.SIGNATURE));
         this.sensor = sensor;
         this.sensorContext = sensorContext;
-        inputFile = sensor.getProjectJson();
+        this.documentCache = sensor.getDocumentCache();
+        this.issueSink = sensor.getIssueSink();
+        inputFile = sensor.getProjectJson(directory);
+    }
+
+    private static Map<File, InputFile> listXamlFiles(File directory){
+        Map<File, InputFile> xamlFiles = new HashMap<>();
+
+        if(directory.isDirectory()){
+            for(File xamlFile : FileUtils.listFiles(directory, new String[] {"xaml"}, true)){
+                xamlFiles.put(xamlFile, null);
+            }
+        }
+
+        return xamlFiles;
+    }
+
+    private ArrayList<Workflow> loadWorkflows(List<Map.Entry<File, InputFile>> xamlFiles, int threads){
+
+        if(threads <= 1){
+            return xamlFiles.stream()
+                .map(this::loadWorkflow)
+                .filter(Optional::isPresent)
+                .map(Optional::get)
+                .collect(Collectors.toCollection(ArrayList::new));
+        }
+
+        // A parallel stream submitted from inside a ForkJoinPool runs on that pool, which bounds the thread count.
+        // Ordered collection keeps the result in the same order as xamlFiles.
+        ForkJoinPool pool = new ForkJoinPool(threads);
 
-        for(Workflow workflow : getWorkflows()){
-            workflow.setInputFile(sensor.getInputFileForWorkflow(workflow.getFile()).get());
+        try{
+            return pool.submit(() -> xamlFiles.parallelStream()
+                .map(this::loadWorkflow)
+                .filter(Optional::isPresent)
+                .map(Optional::get)
+                .collect(Collectors.toCollection(ArrayList::new))).get();
+        }
+        catch(InterruptedException ex){
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while loading workflows.", ex);
+        }
+        catch(ExecutionException ex){
+            throw new IllegalStateException("Could not load workflows.", ex.getCause());
+        }
+        finally {
+            pool.shutdown();
+        }
+    }
+
+    private Optional<Workflow> loadWorkflow(Map.Entry<File, InputFile> xamlFile){
+        try{
+            return Optional.of(new Workflow(this, xamlFile.getKey(), xamlFile.getValue()));
+        }
+        catch(Exception ex){
+            LOG.warn("Could not load workflow '" + xamlFile.getKey() + "'. Skipping...", ex);
+            return Optional.empty();
         }
     }
 
@@ -74,16 +190,92 @@ public class Project implements HasInputFile {
         return workflows;
     }
 
+    /**
+     * Returns true if the signatures of the workflows are read while loading the project.
+     */
+    public boolean readsSignatures(){
+        return readSignatures;
+    }
+
+    public ParseCache getParseCache(){
+        return parseCache;
+    }
+
+    public DocumentCache getDocumentCache(){
+        return documentCache;
+    }
+
     public ProjectJson getProjectJson(){
         return projectJson;
     }
 
     public Optional<Workflow> getWorkflowNamed(String name){
-        return workflows.stream().filter(wf -> wf.getName().equals(name) || wf.getFileName().equals(name)).findAny();
+        return workflowIndex.named(name);
     }
 
     public Optional<Workflow> getWorkflowWithPath(String path) {
-        return workflows.stream().filter(wf -> wf.getPath().endsWith(Paths.get(path))).findAny();
+        Optional<Workflow> workflow = findWorkflowWithPath(path);
+        recordLookup(path, workflow);
+        return workflow;
+    }
+
+    /**
+     * Returns the graph of the 'Invoke Workflow File' activities of the project.
+     */
+    public InvocationGraph getInvocationGraph(){
+        return invocationGraph;
+    }
+
+    /**
+     * Runs the given Runnable on the current thread, recording the paths it looks up with getWorkflowWithPath,
+     * getWorkflowSignature and Invocation.getTarget. This is how the results of a check on one workflow are tied to the other workflows they
+     * depend on.
+     * @param runnable The code to run, usually a check execution.
+     * @return The looked up paths, each mapped to the signature hash of the workflow it resolved to, or to an empty
+     * string when it didn't resolve to any workflow.
+     */
+    public Map<String, String> recordLookups(Runnable runnable){
+        Map<String, String> lookups = new HashMap<>();
+        recordedLookups.set(lookups);
+
+        try{
+            runnable.run();
+        }
+        finally {
+            recordedLookups.remove();
+        }
+
+        return lookups;
+    }
+
+    /**
+     * Returns the value recordLookups() maps a path to, for the current state of the Project.
+     */
+    public String getLookupHash(String path){
+        return getLookupHash(findWorkflowWithPath(path));
+    }
+
+    void recordLookup(String path, Optional<Workflow> workflow){
+        Map<String, String> lookups = recordedLookups.get();
+        if(lookups != null){
+            lookups.put(path, getLookupHash(workflow));
+        }
+    }
+
+    Optional<Workflow> findWorkflowWithPath(String path){
+        return workflowIndex.withPath(path);
+    }
+
+    private static String getLookupHash(Optional<Workflow> workflow){
+        return workflow.map(wf -> wf.getSignature().getHash()).orElse("");
+    }
+
+    /**
+     * Returns the signature of the workflow at the given path. Signatures are read from the x:Members header only,
+     * so this can be used for lookups across workflows without touching their XAML documents.
+     */
+    public Optional<WorkflowSignature> getWorkflowSignature(String path){
+        return getWorkflowWithPath(path).map(Workflow::getSignature);
     }
 
     public String getName(){
@@ -94,6 +286,36 @@ public class Project implements HasInputFile {
         return directory;
     }
 
+    /**
+     * Returns the sink the issues found in this project are reported to. Outside of an analysis, each Project has its
+     * own sink, which records the issues.
+     */
+    public IssueSink getIssueSink(){
+        return issueSink;
+    }
+
+    /**
+     * Returns the profiler of the analysis, or a disabled one outside of an analysis.
+     */
+    public AnalysisProfiler getProfiler(){
+        return sensor == null ? AnalysisProfiler.disabled() : sensor.getProfiler();
+    }
+
+    /**
+     * Counts the evaluation of a XamlQuery against a workflow of this project, and returns the profiler that times it.
+     */
+    AnalysisProfiler countQuery(){
+        queryCount.increment();
+        return getProfiler();
+    }
+
+    /**
+     * Returns the number of XamlQuery evaluations against the workflows of this project.
+     */
+    public long getQueryCount(){
+        return queryCount.sum();
+    }
+
     public boolean hasInputFile(){
         return inputFile != null;
     }
@@ -101,4 +323,9 @@ public class Project implements HasInputFile {
     public InputFile getInputFile(){
         return inputFile;
     }
+
+    @Override
+    public String getComponentKey(){
+        return directory.getAbsolutePath();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,243 @@
+package com.uipath.sonar.plugin.uipath;
+
+import com.google.common.hash.Hashing;
+import com.uipath.sonar.plugin.Issue;
+import org.sonar.api.rule.RuleKey;
+import org.sonar.api.utils.log.Logger;
+import org.sonar.api.utils.log.Loggers;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ResultCache stores the issues that workflow checks reported on a workflow, so that the next analysis can replay them
+ * instead of checking the workflow again.
+ *
+ * There is one entry per workflow file. An entry is only replayed when the workflow content hash, the plugin version and
+ * build, and the configuration of the checks are unchanged, and when every workflow path looked up by the checks (see
+ * Project.recordLookups) still resolves to a workflow with the same signature hash. That last condition covers checks
+ * such as InvokeWorkflowFileArgumentCheck, whose issues depend on the signature of the invoked workflows. The build
+ * tells apart two jars of the same version, such as snapshots, whose checks may report different issues.
+ *
+ * Entries also record the path of their workflow, so that prune() can delete the entries of deleted workflows.
+ */
+public class ResultCache {
+
+    private static final Logger LOG = Loggers.get(ResultCache.class);
+
+    private static final int MAGIC = 0x55495052;  // "UIPR"
+    private static final int FORMAT_VERSION = 3;
+    private static final String ENTRY_EXTENSION = ".bin";
+
+    private static final ResultCache DISABLED = new ResultCache(null, 0, "");
+
+    private final File directory;
+    private final long maxSizeBytes;
+    private final String pluginBuild;
+
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong staleCount = new AtomicLong();
+    private final AtomicLong writeCount = new AtomicLong();
+    private final AtomicLong corruptCount = new AtomicLong();
+
+    public ResultCache(File directory, long maxSizeBytes, String pluginBuild){
+        this.directory = directory;
+        this.maxSizeBytes = maxSizeBytes;
+        this.pluginBuild = pluginBuild;
+    }
+
+    /**
+     * Returns a ResultCache that never stores anything.
+     */
+    public static ResultCache disabled(){
+        return DISABLED;
+    }
+
+    public boolean isEnabled(){
+        return directory != null;
+    }
+
+    /**
+     * Hashes check configurations, as returned by AbstractCheck.getConfiguration(), into a single cache key.
+     */
+    public static String hashConfiguration(List<String> configurations){
+        return Hashing.sha256().hashString(String.join("\n\n", configurations), StandardCharsets.UTF_8).toString();
+    }
+
+    /**
+     * Loads the issues previously stored for a workflow.
+     * @param configurationHash The hash of the current check configuration.
+     * @return The stored issues, in reporting order, or an empty Optional if the entry is missing or out of date.
+     */
+    public Optional<List<Issue>> load(Workflow workflow, String configurationHash){
+        if(!isEnabled()){
+            return Optional.empty();
+        }
+
+        File entry = getEntryFile(workflow);
+
+        if(!entry.isFile()){
+            missCount.incrementAndGet();
+            return Optional.empty();
+        }
+
+        try(DataInputStream in = new EntryInputStream(new BufferedInputStream(Files.newInputStream(entry.toPath())), entry.length())){
+            if(!readHeader(in, workflow, configurationHash)){
+                missCount.incrementAndGet();
+                return Optional.empty();
+            }
+
+            Project project = workflow.getProject();
+
+            // A lookup takes at least two empty UTF strings.
+            for(int i = 0, count = EntryInputStream.checkLength(in, in.readInt(), 4); i < count; i++){
+                String path = in.readUTF();
+                String lookupHash = in.readUTF();
+
+                if(!project.getLookupHash(path).equals(lookupHash)){
+                    staleCount.incrementAndGet();
+                    return Optional.empty();
+                }
+            }
+
+            // An issue takes at least two empty UTF strings and two ints.
+            int count = EntryInputStream.checkLength(in, in.readInt(), 12);
+            List<Issue> issues = new ArrayList<>(count);
+
+            for(int i = 0; i < count; i++){
+                RuleKey ruleKey = RuleKey.parse(in.readUTF());
+                String message = in.readUTF();
+                int line = in.readInt();
+                issues.add(new Issue(workflow, ruleKey, message, line, in.readInt()));
+            }
+
+            // Marks the entry as recently used, for prune().
+            entry.setLastModified(System.currentTimeMillis());
+
+            hitCount.incrementAndGet();
+            return Optional.of(issues);
+        }
+        catch(Exception e){
+            LOG.debug("Discarding corrupt result cache entry '" + entry + "'.", e);
+            corruptCount.incrementAndGet();
+            ParseCache.delete(entry);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Stores the issues reported on a workflow.
+     * @param configurationHash The hash of the current check configuration.
+     * @param lookups The workflow paths looked up while checking the workflow, as returned by Project.recordLookups.
+     * @param issues The issues reported on the workflow, in reporting order.
+     */
+    public void store(Workflow workflow, String configurationHash, Map<String, String> lookups, List<Issue> issues){
+        if(!isEnabled()){
+            return;
+        }
+
+        File entry = getEntryFile(workflow);
+        File temporary = new File(directory, entry.getName() + "." + Thread.currentThread().getId() + ".tmp");
+
+        try{
+            Files.createDirectories(directory.toPath());
+
+            try(DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary.toPath())))){
+                writeHeader(out, workflow, configurationHash);
+
+                out.writeInt(lookups.size());
+                for(Map.Entry<String, String> lookup : new TreeMap<>(lookups).entrySet()){
+                    out.writeUTF(lookup.getKey());
+                    out.writeUTF(lookup.getValue());
+                }
+
+                out.writeInt(issues.size());
+                for(Issue issue : issues){
+                    out.writeUTF(issue.getRuleKey().toString());
+                    out.writeUTF(issue.getMessage());
+                    out.writeInt(issue.getLine());
+                    out.writeInt(issue.getColumn());
+                }
+            }
+
+            ParseCache.move(temporary.toPath(), entry.toPath());
+            writeCount.incrementAndGet();
+        }
+        catch(IOException | RuntimeException e){
+            LOG.debug("Could not write the result cache entry of '" + workflow.getFile() + "'.", e);
+            ParseCache.delete(temporary);
+        }
+    }
+
+    /**
+     * Deletes the entries of workflows that no longer exist, then the least recently used entries until the cache fits
+     * in its maximum size.
+     */
+    public void prune(){
+        if(isEnabled()){
+            ParseCache.prune(directory, maxSizeBytes, ResultCache::isObsolete);
+        }
+    }
+
+    @Override
+    public String toString(){
+        return String.format("%d hit(s), %d miss(es), %d invalidated by invoked workflows, %d write(s), %d corrupt entr(y/ies) discarded",
+            hitCount.get(), missCount.get(), staleCount.get(), writeCount.get(), corruptCount.get());
+    }
+
+    private File getEntryFile(Workflow workflow){
+        String key = Hashing.sha256()
+            .hashString(workflow.getFile().getAbsolutePath(), StandardCharsets.UTF_8)
+            .toString();
+
+        return new File(directory, key + ENTRY_EXTENSION);
+    }
+
+    private void writeHeader(DataOutputStream out, Workflow workflow, String configurationHash) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT_VERSION);
+        out.writeUTF(workflow.getFile().getAbsolutePath());
+        out.writeUTF(pluginBuild);
+        out.writeUTF(workflow.getContentHash());
+        out.writeUTF(configurationHash);
+    }
+
+    private boolean readHeader(DataInputStream in, Workflow workflow, String configurationHash) throws IOException {
+        if(in.readInt() != MAGIC){
+            throw new IOException("Not a result cache entry.");
+        }
+
+        return in.readInt() == FORMAT_VERSION
+            && in.readUTF().equals(workflow.getFile().getAbsolutePath())
+            && in.readUTF().equals(pluginBuild)
+            && in.readUTF().equals(workflow.getContentHash())
+            && in.readUTF().equals(configurationHash);
+    }
+
+    /**
+     * Whether an entry is unreadable, written in another format, or stored for a workflow that no longer exists.
+     */
+    private static boolean isObsolete(File entry){
+        try(DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(entry.toPath())))){
+            return in.readInt() != MAGIC
+                || in.readInt() != FORMAT_VERSION
+                || !new File(in.readUTF()).isFile();
+        }
+        catch(IOException e){
+            return true;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.uipath.sonar.plugin.uipath;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * SignatureDiff is the difference between the arguments supplied to an invoked workflow and the arguments it declares.
+ * It is computed in time linear in the number of arguments, by WorkflowSignature.diff().
+ */
+public class SignatureDiff {
+
+    private final List<WorkflowArgument> extraArguments;
+    private final List<WorkflowArgument> missingArguments;
+
+    private SignatureDiff(List<WorkflowArgument> extraArguments, List<WorkflowArgument> missingArguments){
+        this.extraArguments = Collections.unmodifiableList(extraArguments);
+        this.missingArguments = Collections.unmodifiableList(missingArguments);
+    }
+
+    static SignatureDiff compute(WorkflowSignature signature, List<WorkflowArgument> supplied){
+        Set<WorkflowArgument> suppliedSet = new HashSet<>(supplied);
+        List<WorkflowArgument> extra = new ArrayList<>();
+        List<WorkflowArgument> missing = new ArrayList<>();
+
+        for(WorkflowArgument argument : supplied){
+            if(!signature.declares(argument)){
+                extra.add(argument);
+            }
+        }
+
+        for(WorkflowArgument argument : signature.getArguments()){
+            if(!suppliedSet.contains(argument)){
+                missing.add(argument);
+            }
+        }
+
+        return new SignatureDiff(extra, missing);
+    }
+
+    /**
+     * Returns the supplied arguments that the workflow doesn't declare, in supplied order.
+     */
+    public List<WorkflowArgument> getExtraArguments(){
+        return extraArguments;
+    }
+
+    /**
+     * Returns the declared arguments that were not supplied, in declaration order.
+     */
+    public List<WorkflowArgument> getMissingArguments(){
+        return missingArguments;
+    }
+
+    public boolean isEmpty(){
+        return extraArguments.isEmpty() && missingArguments.isEmpty();
+    }
+}
@@ -4,13 +4,16 @@ import com.google.common.io.Files;
 import com.uipath.sonar.plugin.HasInputFile;
 import org.dom4j.Document;
 import org.dom4j.DocumentException;
+import org.dom4j.Element;
 import org.dom4j.io.SAXReader;
 import org.sonar.api.batch.fs.InputFile;
 
+import javax.xml.stream.XMLStreamException;
 import java.io.File;
+import java.io.IOException;
 import java.nio.file.Path;
-import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Workflow represents a XAML workflow file.
@@ -19,6 +22,8 @@ import java.util.List;
  *
  * This getXamlDocument method provides a DOM representation of the underlying XAML file. It uses the dom4j library.
  * Refer to dom4j documentation for usage. Most use cases should be easily fulfilled by a simple XPATH query.
+ * The document is parsed on first access and held by the DocumentCache of the Project, which may evict it and parse it
+ * again later. Avoid holding on to a document, or its elements, longer than needed.
  */
 public class Workflow implements HasInputFile {
 
@@ -26,22 +31,19 @@ public class Workflow implements HasInputFile {
     //private Path relativePath;
     private Project project;
     private InputFile inputFile;
-    private Document xamlDocument;
-    private ArrayList workflowArguments;
+    private volatile WorkflowSignature signature;
+    private volatile String contentHash;
+    private volatile int elementCount;
+    private final Object documentLock = new Object();
 
     public Workflow(Project project, File file) throws DocumentException {
         this.project = project;
         this.file = file;
         //this.relativePath = file.toURI()
 
-        // Create the xaml document
-        SAXReader saxReader = new SAXReader();
-        xamlDocument = saxReader.read(file);
-        xamlDocument.getRootElement().addNamespace("xa","http://schemas.microsoft.com/netfx/2009/xaml/activities");
-
-        // Parse and set the workflow arguments
-        workflowArguments = WorkflowArgument.LoadFromWorkflow(this);
-
+        if(project.readsSignatures()){
+            signature = readSignature();
+        }
     }
 
     public Workflow(Project project, File file, InputFile inputFile) throws DocumentException {
@@ -50,11 +52,130 @@ public class Workflow implements HasInputFile {
     }
 
     public List<WorkflowArgument> getArguments(){
-        return workflowArguments;
+        return getSignature().getArguments();
+    }
+
+    /**
+     * Returns the signature of the workflow. It is read when the workflow is created, unless the Project skips
+     * signatures because no active check needs them, in which case it is read on first access.
+     */
+    public WorkflowSignature getSignature(){
+        WorkflowSignature result = signature;
+
+        if(result == null){
+            synchronized (documentLock){
+                if(signature == null){
+                    try{
+                        signature = readSignature();
+                    }
+                    catch(DocumentException e){
+                        throw new IllegalStateException(e.getMessage(), e);
+                    }
+                }
+                result = signature;
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Reads the workflow arguments from the x:Members header, unless a previous analysis cached them.
+     */
+    private WorkflowSignature readSignature() throws DocumentException {
+        try{
+            ParseCache parseCache = project.getParseCache();
+            WorkflowSignature result = null;
+
+            if(parseCache.isEnabled()){
+                contentHash = ParseCache.hash(file);
+                result = parseCache.loadSignature(this).orElse(null);
+            }
+
+            return result != null ? result : WorkflowSignatureReader.read(file);
+        }
+        catch(IOException | XMLStreamException e){
+            throw new DocumentException("Could not read the signature of workflow '" + file + "'.", e);
+        }
     }
 
     public Document getXamlDocument(){
-        return xamlDocument;
+        return project.getDocumentCache().get(this);
+    }
+
+    /**
+     * Returns the elements of the XAML document by namespace and by name. See ElementIndex.
+     */
+    public ElementIndex getElementIndex(){
+        return project.getDocumentCache().getIndex(this);
+    }
+
+    /**
+     * Returns the line where an element of the XAML document ends its start tag, or 0 if the element is not part of
+     * the document of this workflow. See ElementPositions.
+     */
+    public int getLine(Element element){
+        return project.getDocumentCache().getLine(this, element);
+    }
+
+    /**
+     * Returns the column just past the start tag of an element, or 0 if the element is not part of the document of
+     * this workflow.
+     */
+    public int getColumn(Element element){
+        return project.getDocumentCache().getColumn(this, element);
+    }
+
+    ParsedDocument parseXamlDocument() throws DocumentException {
+        ParseCache parseCache = project.getParseCache();
+
+        Optional<ParsedDocument> cached = parseCache.loadDocument(this);
+        if(cached.isPresent()){
+            return cached.get();
+        }
+
+        ElementPositions.Builder positions = new ElementPositions.Builder();
+        SAXReader saxReader = ElementPositions.recordingReader(positions);
+        saxReader.setDocumentFactory(WorkflowDocument.FACTORY);
+        Document xamlDocument = saxReader.read(file);
+        xamlDocument.getRootElement().addNamespace("xa", XamlNamespaces.ACTIVITIES);
+
+        ParsedDocument parsed = new ParsedDocument(xamlDocument, positions.build());
+        parseCache.store(this, parsed);
+
+        return parsed;
+    }
+
+    /**
+     * Returns the number of elements of the XAML document, or 0 if the document was never parsed.
+     */
+    public int getElementCount(){
+        return elementCount;
+    }
+
+    void setElementCount(int elementCount){
+        this.elementCount = elementCount;
+    }
+
+    Object getDocumentLock(){
+        return documentLock;
+    }
+
+    /**
+     * Returns the SHA-256 hash of the XAML file content. The hash is computed on first access, unless the ParseCache
+     * of the Project already needed it to load the workflow.
+     */
+    public String getContentHash(){
+        if(contentHash == null){
+            try{
+                contentHash = ParseCache.hash(file);
+            }
+            catch(IOException e){
+                throw new IllegalStateException("Could not hash workflow '" + file + "'.", e);
+            }
+        }
+
+        return contentHash;
     }
 
     public Project getProject(){
@@ -84,4 +205,9 @@ public class Workflow implements HasInputFile {
     }
 
     public void setInputFile(InputFile inputFile){ this.inputFile = inputFile; }
+
+    @Override
+    public String getComponentKey(){
+        return file.getAbsolutePath();
+    }
 }
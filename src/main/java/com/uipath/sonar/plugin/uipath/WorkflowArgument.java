@@ -1,23 +1,29 @@
 package com.uipath.sonar.plugin.uipath;
 
 import org.dom4j.Element;
-import org.dom4j.Node;
 import org.sonar.api.utils.log.Logger;
 import org.sonar.api.utils.log.Loggers;
 
 import java.util.ArrayList;
-import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 /**
  * WorkflowArgument represents an argument belonging to a workflow.
+ *
+ * Two arguments are equal when they have the same name, direction and type. The name and the type, with any whitespace
+ * removed, are interned when the argument is created, so comparing and hashing arguments is cheap.
  */
 public class WorkflowArgument {
 
     private static final Logger LOG = Loggers.get(WorkflowArgument.class);
 
+    private static final Pattern PROPERTY_TYPE_PATTERN = Pattern.compile("^(?<direction>In|Out|InOut)Argument\\((?<type>.+)\\)$", Pattern.MULTILINE);
+
+    private static final Pattern WHITESPACE_PATTERN = Pattern.compile("\\s+");
+
     public enum Direction { In, Out, InOut, }
 
     private String rawXml;
@@ -25,58 +31,46 @@ public class WorkflowArgument {
     private Direction direction;
     private String rawType;
     private String rawArgType;
+    private String argType;
+    private int hash;
 
     public WorkflowArgument(String rawXml, String name, String rawType, String rawArgType, Direction direction){
         this.rawXml = rawXml;
-        this.name = name;
+        this.name = intern(name);
         this.rawType = rawType;
         this.rawArgType = rawArgType;
         this.direction = direction;
+        this.argType = normalizeType(rawArgType);
+        this.hash = Objects.hash(this.name, direction, argType);
     }
 
     public WorkflowArgument(String name, String type, Direction direction){
-        this.name = name;
-        this.rawArgType = type;
-        this.direction = direction;
+        this(null, name, null, type, direction);
     }
 
+    /**
+     * Loads the arguments declared by a workflow. Only the x:Members header of the file is read, the DOM is not used.
+     */
     public static ArrayList<WorkflowArgument> LoadFromWorkflow(Workflow workflow){
 
         LOG.debug("Loading workflow " + workflow.getName());
 
-        ArrayList<WorkflowArgument> args = new ArrayList<>();
-
-        List<Node> nodes = workflow.getXamlDocument().selectNodes("xa:Activity/x:Members/x:Property");
-
-        LOG.debug(nodes.size() + " elements found.");
+        try{
+            ArrayList<WorkflowArgument> args = new ArrayList<>(WorkflowSignatureReader.read(workflow.getFile()).getArguments());
 
-        for(Node node : nodes){
-            Element element = (Element)node;
+            LOG.debug(args.size() + " elements found.");
 
-            Optional<WorkflowArgument> arg = fromElement(element);
-            arg.ifPresent(args::add);
+            return args;
+        }
+        catch(Exception e){
+            LOG.error("Could not load the arguments of workflow " + workflow.getName(), e);
+            return new ArrayList<>();
         }
-
-        return args;
     }
 
     public static Optional<WorkflowArgument> fromElement(Element element){
         try{
-            String rawXml = element.asXML();
-            String name = element.attributeValue("Name");
-            String rawType = element.attributeValue("Type");
-
-            Pattern pattern = Pattern.compile("^(?<direction>In|Out|InOut)Argument\\((?<type>.+)\\)$", Pattern.MULTILINE);
-            Matcher matcher = pattern.matcher(rawType);
-
-            if (matcher.find()) {
-                String rawArgType = matcher.group("type");
-                Direction direction = Direction.valueOf(matcher.group("direction"));
-
-                return Optional.of(new WorkflowArgument(rawXml, name, rawType, rawArgType, direction));
-            }
-
-            return Optional.empty();
+            return fromProperty(element.asXML(), element.attributeValue("Name"), element.attributeValue("Type"));
         }
         catch(Exception e){
             LOG.error("Could not parse WorkflowArgument. RawXML: " + element.asXML(), e);
@@ -84,6 +78,26 @@ public class WorkflowArgument {
         }
     }
 
+    /**
+     * Creates a WorkflowArgument from the attributes of a x:Property element.
+     * @param rawXml The XML of the x:Property element.
+     * @param name The Name attribute.
+     * @param rawType The Type attribute, such as 'InArgument(x:String)'.
+     * @return The argument, or an empty Optional if the property is not an argument.
+     */
+    public static Optional<WorkflowArgument> fromProperty(String rawXml, String name, String rawType){
+        Matcher matcher = PROPERTY_TYPE_PATTERN.matcher(rawType);
+
+        if (matcher.find()) {
+            String rawArgType = matcher.group("type");
+            Direction direction = Direction.valueOf(matcher.group("direction"));
+
+            return Optional.of(new WorkflowArgument(rawXml, name, rawType, rawArgType, direction));
+        }
+
+        return Optional.empty();
+    }
+
     public String getRawXml(){
         return rawXml;
     }
@@ -100,18 +114,48 @@ public class WorkflowArgument {
         return rawArgType;
     }
 
+    /**
+     * Returns the type of the argument without any whitespace, as used by equals.
+     */
+    public String getNormalizedArgType(){
+        return argType;
+    }
+
     public Direction getDirection(){
         return direction;
     }
 
     @Override
     public boolean equals(Object o){
+        if(this == o){
+            return true;
+        }
+
+        if(!(o instanceof WorkflowArgument)){
+            return false;
+        }
+
         WorkflowArgument other = (WorkflowArgument)o;
 
+        // Interned strings can be compared by reference.
         return
-            other.getName().equals(getName())
-            && other.getDirection().equals(getDirection())
-            && other.getArgType().equals(getArgType());
+            hash == other.hash
+            && name == other.name
+            && direction == other.direction
+            && argType == other.argType;
+    }
+
+    @Override
+    public int hashCode(){
+        return hash;
+    }
+
+    private static String intern(String value){
+        return value == null ? null : value.intern();
+    }
+
+    private static String normalizeType(String type){
+        return type == null ? null : intern(WHITESPACE_PATTERN.matcher(type).replaceAll(""));
     }
 
     @Override
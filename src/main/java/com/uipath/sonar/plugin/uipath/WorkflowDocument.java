@@ -0,0 +1,73 @@
+package com.uipath.sonar.plugin.uipath;
+
+import org.dom4j.Document;
+import org.dom4j.DocumentFactory;
+import org.dom4j.Element;
+import org.dom4j.Node;
+import org.dom4j.tree.DefaultDocument;
+
+/**
+ * WorkflowDocument is the dom4j Document of a workflow. The DocumentCache attaches the ElementIndex and the
+ * ElementPositions of the document to it, so that they stay reachable from any element a check still holds, even once
+ * the cache let the document go.
+ */
+final class WorkflowDocument extends DefaultDocument {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Creates WorkflowDocuments, and the default dom4j nodes.
+     */
+    static final DocumentFactory FACTORY = new Factory();
+
+    private transient volatile Workflow workflow;
+    private transient ElementIndex index;
+    private transient ElementPositions positions;
+
+    void attach(Workflow workflow, ElementIndex index, ElementPositions positions){
+        this.index = index;
+        this.positions = positions;
+        this.workflow = workflow;
+    }
+
+    ElementIndex getIndex(){
+        return index;
+    }
+
+    ElementPositions getPositions(){
+        return positions;
+    }
+
+    /**
+     * Returns the document of an element, if it is the document of the given workflow and has its index attached.
+     */
+    static WorkflowDocument of(Workflow workflow, Element element){
+        Document document = element.getDocument();
+
+        if(document instanceof WorkflowDocument && ((WorkflowDocument)document).workflow == workflow){
+            return (WorkflowDocument)document;
+        }
+
+        return null;
+    }
+
+    /**
+     * Returns the workflow whose document holds a node, or null if the node is not part of a workflow document.
+     */
+    static Workflow workflowOf(Node node){
+        Document document = node.getDocument();
+        return document instanceof WorkflowDocument ? ((WorkflowDocument)document).workflow : null;
+    }
+
+    private static final class Factory extends DocumentFactory {
+
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public Document createDocument(){
+            WorkflowDocument document = new WorkflowDocument();
+            document.setDocumentFactory(this);
+            return document;
+        }
+    }
+}
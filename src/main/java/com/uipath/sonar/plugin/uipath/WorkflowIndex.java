@@ -0,0 +1,120 @@
+package com.uipath.sonar.plugin.uipath;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * WorkflowIndex resolves the paths and names used to refer to workflows, such as the WorkflowFileName of an
+ * 'Invoke Workflow File' activity, without scanning every workflow of the Project.
+ *
+ * Paths are normalised first: both '/' and '\' separate segments, and empty and '.' segments are dropped. A path
+ * relative to the project directory is found in a hash map. Any other path is matched as a suffix of the workflow
+ * paths, using a trie of their segments in reverse order. When several workflows match, the first one in Project
+ * order wins, as it did with the former linear scan.
+ */
+class WorkflowIndex {
+
+    private final List<String> directorySegments;
+    private final Map<String, Workflow> byRelativePath = new HashMap<>();
+    private final Map<String, Workflow> byName = new HashMap<>();
+    private final Node suffixes = new Node();
+
+    WorkflowIndex(File directory, List<Workflow> workflows){
+        directorySegments = segments(directory.getAbsolutePath());
+
+        for(Workflow workflow : workflows){
+            byName.putIfAbsent(workflow.getName(), workflow);
+            byName.putIfAbsent(workflow.getFileName(), workflow);
+
+            List<String> segments = segments(workflow.getFile().getAbsolutePath());
+
+            String relativePath = relativize(segments);
+            if(relativePath != null){
+                byRelativePath.putIfAbsent(relativePath, workflow);
+            }
+
+            Node node = suffixes;
+            for(int i = segments.size() - 1; i >= 0; i--){
+                node = node.children.computeIfAbsent(segments.get(i), segment -> new Node());
+
+                if(node.workflow == null){
+                    node.workflow = workflow;
+                }
+            }
+        }
+    }
+
+    Optional<Workflow> withPath(String path){
+        List<String> segments = segments(path);
+
+        if(segments.isEmpty()){
+            return Optional.empty();
+        }
+
+        // An absolute path only matches the workflow at that exact location.
+        if(isAbsolute(path)){
+            String relativePath = relativize(segments);
+            return relativePath == null ? Optional.empty() : Optional.ofNullable(byRelativePath.get(relativePath));
+        }
+
+        Workflow workflow = byRelativePath.get(String.join("/", segments));
+        if(workflow != null){
+            return Optional.of(workflow);
+        }
+
+        Node node = suffixes;
+        for(int i = segments.size() - 1; i >= 0 && node != null; i--){
+            node = node.children.get(segments.get(i));
+        }
+
+        return node == null ? Optional.empty() : Optional.of(node.workflow);
+    }
+
+    Optional<Workflow> named(String name){
+        return Optional.ofNullable(byName.get(name));
+    }
+
+    /**
+     * Splits a path on both '/' and '\', leaving out empty and '.' segments.
+     */
+    static List<String> segments(String path){
+        List<String> segments = new ArrayList<>();
+        int start = 0;
+
+        for(int i = 0; i <= path.length(); i++){
+            if(i == path.length() || path.charAt(i) == '/' || path.charAt(i) == '\\'){
+                String segment = path.substring(start, i);
+
+                if(!segment.isEmpty() && !segment.equals(".")){
+                    segments.add(segment);
+                }
+                start = i + 1;
+            }
+        }
+
+        return segments;
+    }
+
+    private String relativize(List<String> segments){
+        int depth = directorySegments.size();
+
+        if(segments.size() <= depth || !segments.subList(0, depth).equals(directorySegments)){
+            return null;
+        }
+
+        return String.join("/", segments.subList(depth, segments.size()));
+    }
+
+    private static boolean isAbsolute(String path){
+        return path.startsWith("/") || path.startsWith("\\") || (path.length() > 1 && path.charAt(1) == ':');
+    }
+
+    private static class Node {
+        private final Map<String, Node> children = new HashMap<>(4);
+        private Workflow workflow;
+    }
+}
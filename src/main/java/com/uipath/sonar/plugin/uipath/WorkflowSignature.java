@@ -0,0 +1,93 @@
+package com.uipath.sonar.plugin.uipath;
+
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * WorkflowSignature is the public contract of a workflow: its path and the arguments declared in its x:Members header.
+ * It is read by WorkflowSignatureReader without building the DOM of the workflow, which makes it cheap enough for
+ * lookups across workflows, such as validating the arguments of an 'Invoke Workflow File' activity.
+ *
+ * The arguments are also held in an immutable hash set, and the result of diff() is cached per list of supplied
+ * arguments, since a workflow is usually invoked with the same arguments from many places.
+ */
+public class WorkflowSignature {
+
+    private final Path path;
+    private final List<WorkflowArgument> arguments;
+    private final Set<WorkflowArgument> argumentSet;
+    private final Map<List<WorkflowArgument>, SignatureDiff> diffs = new ConcurrentHashMap<>();
+    private volatile String hash;
+
+    public WorkflowSignature(Path path, List<WorkflowArgument> arguments){
+        this.path = path;
+        this.arguments = Collections.unmodifiableList(new ArrayList<>(arguments));
+        this.argumentSet = Collections.unmodifiableSet(new LinkedHashSet<>(arguments));
+    }
+
+    public Path getPath(){
+        return path;
+    }
+
+    public List<WorkflowArgument> getArguments(){
+        return arguments;
+    }
+
+    public Set<WorkflowArgument> getArgumentSet(){
+        return argumentSet;
+    }
+
+    public boolean declares(WorkflowArgument argument){
+        return argumentSet.contains(argument);
+    }
+
+    /**
+     * Compares the arguments supplied by an invocation with the arguments of this signature.
+     * @param supplied The supplied arguments. The list should not be modified afterwards, as it is used as a cache key.
+     */
+    public SignatureDiff diff(List<WorkflowArgument> supplied){
+        SignatureDiff diff = diffs.get(supplied);
+
+        if(diff == null){
+            diff = SignatureDiff.compute(this, supplied);
+            diffs.putIfAbsent(supplied, diff);
+        }
+
+        return diff;
+    }
+
+    /**
+     * Returns a SHA-256 hash of the name, direction and type of every argument. Two signatures with the same hash
+     * accept the same arguments, so results that only depend on a signature can be reused while its hash is unchanged.
+     */
+    public String getHash(){
+        if(hash == null){
+            Hasher hasher = Hashing.sha256().newHasher();
+
+            for(WorkflowArgument argument : arguments){
+                hasher.putString(argument.getName(), StandardCharsets.UTF_8).putChar('\0')
+                    .putString(argument.getDirection().name(), StandardCharsets.UTF_8).putChar('\0')
+                    .putString(String.valueOf(argument.getNormalizedArgType()), StandardCharsets.UTF_8).putChar('\n');
+            }
+
+            hash = hasher.hash().toString();
+        }
+
+        return hash;
+    }
+
+    @Override
+    public String toString(){
+        return String.format("{ path: %s, arguments: %s }", path, arguments);
+    }
+}
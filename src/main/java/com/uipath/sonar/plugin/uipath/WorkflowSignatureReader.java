@@ -0,0 +1,214 @@
+package com.uipath.sonar.plugin.uipath;
+
+import com.google.common.base.Strings;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * WorkflowSignatureReader extracts the WorkflowSignature of a XAML file with a streaming (StAX) parser.
+ *
+ * Only the beginning of the file is read. Arguments are declared in the x:Members element, which XAML writes before
+ * the body of the workflow, so reading stops at the end of x:Members, or at the first child of the root Activity that
+ * is neither a directive nor a property element.
+ */
+public final class WorkflowSignatureReader {
+
+    private static final XMLInputFactory INPUT_FACTORY = createInputFactory();
+
+    private WorkflowSignatureReader(){}
+
+    public static WorkflowSignature read(File file) throws IOException, XMLStreamException {
+        try(InputStream stream = new BufferedInputStream(Files.newInputStream(file.toPath()))){
+            return new WorkflowSignature(file.toPath(), readArguments(stream));
+        }
+    }
+
+    private static List<WorkflowArgument> readArguments(InputStream stream) throws XMLStreamException {
+
+        List<WorkflowArgument> arguments = new ArrayList<>();
+        XMLStreamReader reader = INPUT_FACTORY.createXMLStreamReader(stream);
+
+        try{
+            if(reader.nextTag() != XMLStreamConstants.START_ELEMENT
+                || !XamlNamespaces.ACTIVITIES.equals(reader.getNamespaceURI())
+                || !"Activity".equals(reader.getLocalName())){
+                return arguments;
+            }
+
+            while(reader.nextTag() == XMLStreamConstants.START_ELEMENT){
+
+                boolean isDirective = XamlNamespaces.XAML.equals(reader.getNamespaceURI());
+
+                if(isDirective && "Members".equals(reader.getLocalName())){
+                    readMembers(reader, arguments);
+                    break;
+                }
+
+                if(!isDirective && reader.getLocalName().indexOf('.') < 0){
+                    break;  // This is the body of the workflow, there is no x:Members.
+                }
+
+                skipElement(reader);
+            }
+        }
+        finally {
+            reader.close();
+        }
+
+        return arguments;
+    }
+
+    private static void readMembers(XMLStreamReader reader, List<WorkflowArgument> arguments) throws XMLStreamException {
+
+        while(reader.nextTag() == XMLStreamConstants.START_ELEMENT){
+
+            if(XamlNamespaces.XAML.equals(reader.getNamespaceURI()) && "Property".equals(reader.getLocalName())){
+                String name = reader.getAttributeValue(null, "Name");
+                String rawType = reader.getAttributeValue(null, "Type");
+                String rawXml = readElement(reader);
+
+                if(name != null && rawType != null){
+                    WorkflowArgument.fromProperty(rawXml, name, rawType).ifPresent(arguments::add);
+                }
+            }
+            else {
+                skipElement(reader);
+            }
+        }
+    }
+
+    /**
+     * Writes the current element, with its namespaces, attributes and content, as dom4j's Element.asXML does, and
+     * moves the reader to its END_ELEMENT.
+     */
+    private static String readElement(XMLStreamReader reader) throws XMLStreamException {
+        StringBuilder xml = new StringBuilder();
+        Deque<Boolean> empty = new ArrayDeque<>();
+        Set<String> declared = new HashSet<>();
+
+        writeStartTag(reader, xml, declared);
+        empty.push(true);
+
+        while(!empty.isEmpty()){
+            int event = reader.next();
+
+            if(event == XMLStreamConstants.START_ELEMENT){
+                closeStartTag(xml, empty);
+                writeStartTag(reader, xml, declared);
+                empty.push(true);
+            }
+            else if(event == XMLStreamConstants.END_ELEMENT){
+                if(empty.pop()){
+                    xml.append("/>");
+                }
+                else {
+                    xml.append("</").append(qualifiedName(reader.getPrefix(), reader.getLocalName())).append('>');
+                }
+            }
+            else if(event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.SPACE || event == XMLStreamConstants.CDATA){
+                closeStartTag(xml, empty);
+                escape(xml, reader.getText(), false);
+            }
+            else if(event == XMLStreamConstants.COMMENT){
+                closeStartTag(xml, empty);
+                xml.append("<!--").append(reader.getText()).append("-->");
+            }
+        }
+
+        return xml.toString();
+    }
+
+    private static void writeStartTag(XMLStreamReader reader, StringBuilder xml, Set<String> declared){
+        xml.append('<').append(qualifiedName(reader.getPrefix(), reader.getLocalName()));
+        declareNamespace(xml, declared, reader.getPrefix(), reader.getNamespaceURI());
+
+        for(int i = 0; i < reader.getNamespaceCount(); i++){
+            declareNamespace(xml, declared, reader.getNamespacePrefix(i), reader.getNamespaceURI(i));
+        }
+
+        for(int i = 0; i < reader.getAttributeCount(); i++){
+            String prefix = reader.getAttributePrefix(i);
+            declareNamespace(xml, declared, prefix, reader.getAttributeNamespace(i));
+
+            xml.append(' ').append(qualifiedName(prefix, reader.getAttributeLocalName(i))).append("=\"");
+            escape(xml, reader.getAttributeValue(i), true);
+            xml.append('"');
+        }
+    }
+
+    private static void closeStartTag(StringBuilder xml, Deque<Boolean> empty){
+        if(empty.peek()){
+            xml.append('>');
+            empty.pop();
+            empty.push(false);
+        }
+    }
+
+    private static void declareNamespace(StringBuilder xml, Set<String> declared, String prefix, String uri){
+        if(uri == null || uri.isEmpty() || !declared.add(Strings.nullToEmpty(prefix) + '=' + uri)){
+            return;
+        }
+
+        xml.append(Strings.isNullOrEmpty(prefix) ? " xmlns" : " xmlns:" + prefix).append("=\"");
+        escape(xml, uri, true);
+        xml.append('"');
+    }
+
+    private static String qualifiedName(String prefix, String localName){
+        return Strings.isNullOrEmpty(prefix) ? localName : prefix + ':' + localName;
+    }
+
+    private static void escape(StringBuilder xml, String text, boolean attribute){
+        for(int i = 0; i < text.length(); i++){
+            char c = text.charAt(i);
+
+            switch(c){
+                case '&': xml.append("&amp;"); break;
+                case '<': xml.append("&lt;"); break;
+                case '>': xml.append("&gt;"); break;
+                case '"': xml.append(attribute ? "&quot;" : "\""); break;
+                default: xml.append(c);
+            }
+        }
+    }
+
+    /**
+     * Moves the reader to the END_ELEMENT matching the current START_ELEMENT.
+     */
+    private static void skipElement(XMLStreamReader reader) throws XMLStreamException {
+        int depth = 1;
+
+        while(depth > 0){
+            int event = reader.next();
+
+            if(event == XMLStreamConstants.START_ELEMENT){
+                depth++;
+            }
+            else if(event == XMLStreamConstants.END_ELEMENT){
+                depth--;
+            }
+        }
+    }
+
+    private static XMLInputFactory createInputFactory(){
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, false);
+        return factory;
+    }
+}
@@ -0,0 +1,51 @@
+package com.uipath.sonar.plugin.uipath;
+
+import org.dom4j.QName;
+
+/**
+ * XamlNamespaces holds the namespace URIs commonly found in UiPath XAML files, along with helpers to build the
+ * QNames of elements in those namespaces.
+ */
+public final class XamlNamespaces {
+
+    /** The default namespace of a XAML workflow. Bound to the 'xa' prefix by Workflow. */
+    public static final String ACTIVITIES = "http://schemas.microsoft.com/netfx/2009/xaml/activities";
+
+    /** The namespace of UiPath activities, usually bound to the 'ui' prefix. */
+    public static final String UIPATH = "http://schemas.uipath.com/workflow/activities";
+
+    /** The XAML language namespace, usually bound to the 'x' prefix. */
+    public static final String XAML = "http://schemas.microsoft.com/winfx/2006/xaml";
+
+    /** The activity designer namespace, usually bound to the 'sap2010' prefix. */
+    public static final String PRESENTATION = "http://schemas.microsoft.com/netfx/2010/xaml/activities/presentation";
+
+    /** The former activity designer namespace, usually bound to the 'sap' prefix. */
+    public static final String PRESENTATION_2009 = "http://schemas.microsoft.com/netfx/2009/xaml/activities/presentation";
+
+    /** The markup compatibility namespace, usually bound to the 'mc' prefix. */
+    public static final String MARKUP_COMPATIBILITY = "http://schemas.openxmlformats.org/markup-compatibility/2006";
+
+    /** The Visual Basic settings namespace, usually bound to the 'mva' prefix. */
+    public static final String VISUAL_BASIC = "clr-namespace:Microsoft.VisualBasic.Activities;assembly=System.Activities";
+
+    /** System.Collections.Generic, usually bound to the 'scg' prefix. */
+    public static final String GENERIC_COLLECTIONS = "clr-namespace:System.Collections.Generic;assembly=mscorlib";
+
+    /** System.Collections.ObjectModel, usually bound to the 'sco' prefix. */
+    public static final String OBJECT_MODEL_COLLECTIONS = "clr-namespace:System.Collections.ObjectModel;assembly=mscorlib";
+
+    private XamlNamespaces(){}
+
+    public static QName activities(String name){
+        return QName.get(name, ACTIVITIES);
+    }
+
+    public static QName uipath(String name){
+        return QName.get(name, UIPATH);
+    }
+
+    public static QName xaml(String name){
+        return QName.get(name, XAML);
+    }
+}
@@ -0,0 +1,127 @@
+package com.uipath.sonar.plugin.uipath;
+
+import com.uipath.sonar.plugin.AnalysisProfiler;
+import com.uipath.sonar.plugin.events.AnalysisEvents;
+import org.dom4j.DocumentHelper;
+import org.dom4j.Node;
+import org.dom4j.XPath;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * XamlQuery is an XPath query compiled once and evaluated against any number of workflow documents.
+ *
+ * Checks should declare their queries as constants, rather than calling Document.selectNodes(String), which parses the
+ * expression and binds its namespaces again on every call. A XamlQuery binds the usual XAML prefixes (see
+ * NAMESPACES) to their URIs explicitly, whatever the prefixes declared by the document. A prefix used in a query but
+ * not declared by a document is therefore not an error: the query simply matches nothing.
+ *
+ * Compiled queries can be evaluated from several threads at the same time. An evaluation against a workflow document
+ * is counted by the Project of the workflow, and timed by its AnalysisProfiler when profiling is enabled. Every
+ * evaluation emits an XPath query event when a Flight Recorder recording enables it.
+ */
+public final class XamlQuery {
+
+    /** The prefixes bound in every XamlQuery. */
+    public static final Map<String, String> NAMESPACES;
+
+    static {
+        Map<String, String> namespaces = new HashMap<>();
+        namespaces.put("xa", XamlNamespaces.ACTIVITIES);
+        namespaces.put("ui", XamlNamespaces.UIPATH);
+        namespaces.put("x", XamlNamespaces.XAML);
+        namespaces.put("sap", XamlNamespaces.PRESENTATION_2009);
+        namespaces.put("sap2010", XamlNamespaces.PRESENTATION);
+        namespaces.put("mc", XamlNamespaces.MARKUP_COMPATIBILITY);
+        namespaces.put("mva", XamlNamespaces.VISUAL_BASIC);
+        namespaces.put("scg", XamlNamespaces.GENERIC_COLLECTIONS);
+        namespaces.put("sco", XamlNamespaces.OBJECT_MODEL_COLLECTIONS);
+        NAMESPACES = Collections.unmodifiableMap(namespaces);
+    }
+
+    private static final AnalysisEvents EVENTS = AnalysisEvents.get();
+
+    private final String expression;
+    private final XPath xpath;
+
+    private XamlQuery(String expression){
+        this.expression = expression;
+        this.xpath = DocumentHelper.createXPath(expression);
+        this.xpath.setNamespaceURIs(NAMESPACES);
+    }
+
+    /**
+     * Compiles an XPath expression.
+     * @throws org.dom4j.InvalidXPathException If the expression is not valid.
+     */
+    public static XamlQuery compile(String expression){
+        return new XamlQuery(expression);
+    }
+
+    /**
+     * Evaluates the query against the document of a workflow.
+     */
+    public List<Node> selectNodes(Workflow workflow){
+        return selectNodes(workflow.getXamlDocument());
+    }
+
+    /**
+     * Evaluates the query against a node, such as a document or an element.
+     */
+    public List<Node> selectNodes(Node context){
+        AnalysisProfiler profiler = countEvaluation(context);
+        AnalysisProfiler.Sample sample = profiler.start();
+        Object event = EVENTS.beginQuery();
+        List<Node> nodes = null;
+
+        try{
+            nodes = xpath.selectNodes(context);
+            return nodes;
+        }
+        finally {
+            int count = nodes == null ? 0 : nodes.size();
+            profiler.recordQuery(expression, sample, count);
+            EVENTS.commitQuery(event, expression, count);
+        }
+    }
+
+    /**
+     * Evaluates the query against a node, and returns the first matching node or null.
+     */
+    public Node selectSingleNode(Node context){
+        AnalysisProfiler profiler = countEvaluation(context);
+        AnalysisProfiler.Sample sample = profiler.start();
+        Object event = EVENTS.beginQuery();
+        Node node = null;
+
+        try{
+            node = xpath.selectSingleNode(context);
+            return node;
+        }
+        finally {
+            int count = node == null ? 0 : 1;
+            profiler.recordQuery(expression, sample, count);
+            EVENTS.commitQuery(event, expression, count);
+        }
+    }
+
+    /**
+     * Counts an evaluation against the project of the workflow document, if any, and returns the profiler that times it.
+     */
+    private static AnalysisProfiler countEvaluation(Node context){
+        Workflow workflow = WorkflowDocument.workflowOf(context);
+        return workflow == null ? AnalysisProfiler.disabled() : workflow.getProject().countQuery();
+    }
+
+    public String getExpression(){
+        return expression;
+    }
+
+    @Override
+    public String toString(){
+        return expression;
+    }
+}
@@ -0,0 +1,83 @@
+package com.uipath.sonar.plugin;
+
+import com.uipath.sonar.plugin.checks.AvoidGetPasswordCheck;
+import com.uipath.sonar.plugin.checks.AvoidLogMessageCheck;
+import com.uipath.sonar.plugin.testprojects.LoadProject;
+import com.uipath.sonar.plugin.uipath.Project;
+import com.uipath.sonar.plugin.uipath.Workflow;
+import com.uipath.sonar.plugin.uipath.XamlNamespaces;
+import com.uipath.sonar.plugin.uipath.XamlQuery;
+import org.dom4j.Element;
+import org.dom4j.Node;
+import org.dom4j.QName;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class ActivityVisitorTest {
+
+    private Project project;
+    private Workflow shouldFail;
+
+    @Before
+    public void setUp() throws Exception {
+        project = LoadProject.withPath("AvoidLogMessage");
+        shouldFail = project.getWorkflowNamed("ShouldFail").get();
+    }
+
+    @Test
+    public void collect() {
+        ActivityVisitor visitor = new ActivityVisitor(Arrays.asList(
+            new AvoidLogMessageCheck(),
+            new AvoidGetPasswordCheck(),
+            new AvoidLogMessageCheck()));
+
+        List<List<Element>> matches = visitor.collect(shouldFail);
+        int logMessageCount = shouldFail.getXamlDocument().selectNodes("//ui:LogMessage").size();
+
+        assertEquals(3, matches.size());
+        assertTrue(logMessageCount > 0);
+        assertEquals(logMessageCount, matches.get(0).size());
+        assertEquals(0, matches.get(1).size());
+        assertEquals(matches.get(0), matches.get(2));
+    }
+
+    @Test
+    public void collectNamespace() {
+        AbstractActivityCheck check = new AvoidGetPasswordCheck() {
+            @Override
+            public ActivitySubscription subscribe() {
+                return ActivitySubscription.forNamespaces(XamlNamespaces.UIPATH);
+            }
+        };
+
+        List<Element> elements = new ActivityVisitor(Arrays.asList(check)).collect(shouldFail).get(0);
+
+        assertFalse(elements.isEmpty());
+        for(Element element : elements){
+            assertEquals(XamlNamespaces.UIPATH, element.getNamespaceURI());
+        }
+    }
+
+    @Test
+    public void collectSeveralElementsInDocumentOrder() {
+        AbstractActivityCheck check = new AvoidGetPasswordCheck() {
+            @Override
+            public ActivitySubscription subscribe() {
+                return ActivitySubscription.forElements(
+                    QName.get("LogMessage", XamlNamespaces.UIPATH),
+                    QName.get("Sequence", XamlNamespaces.ACTIVITIES));
+            }
+        };
+
+        List<Element> elements = new ActivityVisitor(Arrays.asList(check)).collect(shouldFail).get(0);
+        List<Node> expected = XamlQuery.compile("//ui:LogMessage | //xa:Sequence").selectNodes(shouldFail);
+
+        assertTrue(expected.size() > 1);
+        assertEquals(expected, elements);
+    }
+}
@@ -0,0 +1,52 @@
+package com.uipath.sonar.plugin;
+
+import com.uipath.sonar.plugin.checks.VariableConventionCheck;
+import com.uipath.sonar.plugin.checks.WorkflowConventionCheck;
+import org.junit.Test;
+import org.sonar.api.config.internal.MapSettings;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+public class AnalysisConfigurationTest {
+
+    @Test
+    public void load() {
+        MapSettings settings = new MapSettings();
+        settings.setProperty(VariableConventionCheck.VARIABLE_FORMAT_KEY, "^v[A-Z]");
+        settings.setProperty(WorkflowConventionCheck.INVALID_FORMAT_KEY, "");
+
+        AnalysisConfiguration configuration = AnalysisConfiguration.load(settings.asConfig(),
+            Arrays.asList(new VariableConventionCheck(), new WorkflowConventionCheck()));
+
+        assertEquals("^v[A-Z]", configuration.getPattern(VariableConventionCheck.VARIABLE_FORMAT_KEY).get().pattern());
+        assertTrue(configuration.getPattern(WorkflowConventionCheck.VALID_FORMAT_KEY).isPresent());
+        assertFalse(configuration.getPattern(WorkflowConventionCheck.INVALID_FORMAT_KEY).isPresent());
+        assertFalse(configuration.get("uipath.undefined").isPresent());
+    }
+
+    @Test
+    public void invalidPatternIsIgnored() {
+        MapSettings settings = new MapSettings();
+        settings.setProperty(VariableConventionCheck.VARIABLE_FORMAT_KEY, "^[a-z");
+
+        AnalysisConfiguration configuration = AnalysisConfiguration.load(settings.asConfig(),
+            Collections.singletonList(new VariableConventionCheck()));
+
+        assertEquals("^[a-z", configuration.get(VariableConventionCheck.VARIABLE_FORMAT_KEY).get());
+        assertFalse(configuration.getPattern(VariableConventionCheck.VARIABLE_FORMAT_KEY).isPresent());
+    }
+
+    @Test
+    public void with() {
+        VariableConventionCheck check = new VariableConventionCheck();
+        AnalysisConfiguration defaults = check.getAnalysisConfiguration();
+
+        check.overwriteProperty(VariableConventionCheck.VARIABLE_FORMAT_KEY, "^[A-Z]");
+
+        assertEquals("^[A-Z]", check.getAnalysisConfiguration().getPattern(VariableConventionCheck.VARIABLE_FORMAT_KEY).get().pattern());
+        assertNotEquals("^[A-Z]", defaults.getPattern(VariableConventionCheck.VARIABLE_FORMAT_KEY).get().pattern());
+    }
+}
@@ -0,0 +1,108 @@
+package com.uipath.sonar.plugin;
+
+import com.uipath.sonar.plugin.testprojects.LoadProject;
+import com.uipath.sonar.plugin.uipath.Project;
+import com.uipath.sonar.plugin.uipath.ResultCache;
+import org.apache.commons.io.FileUtils;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+public class CheckExecutorTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private Project project;
+
+    @Before
+    public void setUp() throws Exception {
+        project = LoadProject.withPath("InvokeWorkflowFileArgument");
+    }
+
+    @Test
+    public void executeInParallelReportsSameIssuesInSameOrder() {
+        new CheckExecutor(1).execute(project, CheckRepository.getDefaultWorkflowChecks());
+        List<String> sequential = describe(project.getIssueSink().getIssues());
+        project.getIssueSink().clear();
+
+        new CheckExecutor(4).execute(project, CheckRepository.getDefaultWorkflowChecks());
+        List<String> parallel = describe(project.getIssueSink().getIssues());
+
+        assertFalse(sequential.isEmpty());
+        assertEquals(sequential, parallel);
+    }
+
+    @Test
+    public void replayStoredResults() throws Exception {
+        File cacheDirectory = temporaryFolder.newFolder("results");
+
+        new CheckExecutor(1, new ResultCache(cacheDirectory, 1024 * 1024, "test")).execute(project, CheckRepository.getDefaultWorkflowChecks());
+        List<String> checked = describe(project.getIssueSink().getIssues());
+        project.getIssueSink().clear();
+
+        ResultCache resultCache = new ResultCache(cacheDirectory, 1024 * 1024, "test");
+        new CheckExecutor(4, resultCache).execute(project, CheckRepository.getDefaultWorkflowChecks());
+        List<String> replayed = describe(project.getIssueSink().getIssues());
+
+        assertFalse(checked.isEmpty());
+        assertEquals(checked, replayed);
+        assertTrue(resultCache.toString().startsWith(project.getWorkflows().size() + " hit(s), 0 miss(es)"));
+    }
+
+    @Test
+    public void changedInvokedSignatureInvalidatesStoredResults() throws Exception {
+        File directory = temporaryFolder.newFolder("project");
+        File cacheDirectory = temporaryFolder.newFolder("results");
+        FileUtils.copyDirectory(project.getDirectory(), directory);
+
+        new CheckExecutor(1, new ResultCache(cacheDirectory, 1024 * 1024, "test")).execute(new Project(directory), CheckRepository.getDefaultWorkflowChecks());
+
+        File invokeMe = new File(directory, "InvokeMe.xaml");
+        String content = FileUtils.readFileToString(invokeMe, StandardCharsets.UTF_8);
+        FileUtils.writeStringToFile(invokeMe, content.replace("\"in_String\"", "\"in_Renamed\""), StandardCharsets.UTF_8);
+
+        Project changed = new Project(directory);
+        new CheckExecutor(1).execute(changed, CheckRepository.getDefaultWorkflowChecks());
+        List<String> expected = describe(changed.getIssueSink().getIssues());
+        changed.getIssueSink().clear();
+
+        ResultCache resultCache = new ResultCache(cacheDirectory, 1024 * 1024, "test");
+        new CheckExecutor(1, resultCache).execute(changed, CheckRepository.getDefaultWorkflowChecks());
+
+        assertEquals(expected, describe(changed.getIssueSink().getIssues()));
+        assertFalse(resultCache.toString().contains(" 0 invalidated"));
+    }
+
+    @Test
+    public void pruneDeletesEntriesOfDeletedWorkflows() throws Exception {
+        File directory = temporaryFolder.newFolder("project");
+        File cacheDirectory = temporaryFolder.newFolder("results");
+        FileUtils.copyDirectory(project.getDirectory(), directory);
+
+        Project copy = new Project(directory);
+        new CheckExecutor(1, new ResultCache(cacheDirectory, 1024 * 1024, "test")).execute(copy, CheckRepository.getDefaultWorkflowChecks());
+        assertEquals(copy.getWorkflows().size(), cacheDirectory.listFiles().length);
+
+        assertTrue(new File(directory, "InvokeMe.xaml").delete());
+        new ResultCache(cacheDirectory, 1024 * 1024, "test").prune();
+        assertEquals(copy.getWorkflows().size() - 1, cacheDirectory.listFiles().length);
+
+        new ResultCache(cacheDirectory, 0, "test").prune();
+        assertEquals(0, cacheDirectory.listFiles().length);
+    }
+
+    private static List<String> describe(List<Issue> issues){
+        return issues.stream()
+            .map(issue -> issue.getRuleKey().rule() + ": " + issue.getMessage())
+            .collect(Collectors.toList());
+    }
+}
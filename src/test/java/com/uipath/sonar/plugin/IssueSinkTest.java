@@ -0,0 +1,141 @@
+package com.uipath.sonar.plugin;
+
+import org.junit.Test;
+import org.sonar.api.batch.fs.InputFile;
+import org.sonar.api.batch.fs.TextRange;
+import org.sonar.api.batch.fs.internal.TestInputFileBuilder;
+import org.sonar.api.batch.sensor.internal.SensorContextTester;
+import org.sonar.api.rule.RuleKey;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.*;
+
+public class IssueSinkTest {
+
+    private static final RuleKey RULE = RuleKey.of(CheckRepository.REPOSITORY_KEY, "TestCheck");
+
+    @Test
+    public void deduplicateIssues() {
+        IssueSink sink = new IssueSink();
+        HasInputFile file = component("A.xaml");
+
+        sink.flush(sink.capture(() -> {
+            sink.report(file, RULE, "first");
+            sink.report(file, RULE, "first");
+            sink.report(file, RULE, "second");
+        }));
+
+        // Identical issues are only dropped within one flush.
+        sink.flush(sink.capture(() -> sink.report(file, RULE, "second")));
+
+        assertEquals(3, sink.getCount());
+        assertEquals(1, sink.getDuplicateCount());
+        assertEquals("first", sink.getIssues().get(0).getMessage());
+    }
+
+    @Test
+    public void reportFromWorkerThreads() throws Exception {
+        IssueSink sink = new IssueSink();
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+
+        try{
+            Future<List<Issue>> captured = pool.submit(() -> sink.capture(() -> sink.report(component("A.xaml"), RULE, "captured")));
+            pool.submit(() -> sink.report(component("B.xaml"), RULE, "queued")).get();
+
+            assertEquals(1, sink.getCount());
+            sink.flush(captured.get());
+        }
+        finally {
+            pool.shutdown();
+        }
+
+        assertEquals(2, sink.getCount());
+        assertEquals("queued", sink.getIssues().get(0).getMessage());
+    }
+
+    @Test
+    public void drainInBatches() throws Exception {
+        File baseDir = new File(".").getAbsoluteFile();
+        SensorContextTester context = SensorContextTester.create(baseDir);
+        IssueSink sink = new IssueSink(context, 2);
+
+        for(int i = 0; i < 3; i++){
+            InputFile inputFile = TestInputFileBuilder.create("module", "Workflow" + i + ".xaml").build();
+            context.fileSystem().add(inputFile);
+            sink.report(component(inputFile), RULE, "issue");
+        }
+
+        assertEquals(2, context.allIssues().size());
+        assertEquals(3, sink.getCount());
+
+        sink.drain();
+        assertEquals(3, context.allIssues().size());
+    }
+
+    @Test
+    public void drainInBatchesFromWorkerThreads() throws Exception {
+        SensorContextTester context = SensorContextTester.create(new File(".").getAbsoluteFile());
+        IssueSink sink = new IssueSink(context, 2);
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+
+        try{
+            pool.submit(() -> {
+                for(int i = 0; i < 3; i++){
+                    InputFile inputFile = TestInputFileBuilder.create("module", "Workflow" + i + ".xaml").build();
+                    sink.report(component(inputFile), RULE, "issue");
+                }
+            }).get();
+        }
+        finally {
+            pool.shutdown();
+        }
+
+        assertEquals(2, context.allIssues().size());
+        assertEquals(3, sink.getCount());
+    }
+
+    @Test
+    public void saveIssueAtLine() throws Exception {
+        SensorContextTester context = SensorContextTester.create(new File(".").getAbsoluteFile());
+        IssueSink sink = new IssueSink(context);
+        InputFile inputFile = TestInputFileBuilder.create("module", "Workflow.xaml")
+            .initMetadata("<Activity>\n  <Sequence DisplayName=\"Main\">\n  </Sequence>\n</Activity>\n")
+            .build();
+        context.fileSystem().add(inputFile);
+
+        sink.report(component(inputFile), RULE, "at element", 2, 32);
+        sink.report(component(inputFile), RULE, "past the end", 42, 1);
+        sink.drain();
+
+        Map<String, TextRange> ranges = new HashMap<>();
+        for(org.sonar.api.batch.sensor.issue.Issue issue : context.allIssues()){
+            ranges.put(issue.primaryLocation().message(), issue.primaryLocation().textRange());
+        }
+
+        assertEquals(2, ranges.get("at element").start().line());
+        assertEquals(31, ranges.get("at element").end().lineOffset());
+        assertNull(ranges.get("past the end"));
+    }
+
+    private static HasInputFile component(String name){
+        return new HasInputFile() {
+            public boolean hasInputFile(){ return false; }
+            public InputFile getInputFile(){ return null; }
+            public String getComponentKey(){ return name; }
+        };
+    }
+
+    private static HasInputFile component(InputFile inputFile){
+        return new HasInputFile() {
+            public boolean hasInputFile(){ return true; }
+            public InputFile getInputFile(){ return inputFile; }
+        };
+    }
+}
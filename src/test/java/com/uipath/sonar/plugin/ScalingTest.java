@@ -0,0 +1,109 @@
+package com.uipath.sonar.plugin;
+
+import com.uipath.sonar.plugin.testprojects.SyntheticProject;
+import com.uipath.sonar.plugin.uipath.Project;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Checks that analysis cost grows roughly linearly with the number of workflows, on generated projects.
+ *
+ * The operation counts, parses and XPath queries per workflow, are checked by every build: they are deterministic for
+ * a given seed. The wall time is only checked when the uipath.perf system property is true, as set by the perf Maven
+ * profile, since it depends on the machine and its load.
+ */
+public class ScalingTest {
+
+    private static final int SMALL = 125;
+    private static final int LARGE = 1000;
+
+    private static final int SMALL_COUNTED = 40;
+    private static final int LARGE_COUNTED = 320;
+
+    // Time per workflow may grow this much from the small project to the large one, which leaves room for noise
+    // but not for anything quadratic.
+    private static final double MAX_GROWTH = 3.0;
+
+    // Operations per workflow only vary with the shape of the generated workflows.
+    private static final double MAX_OPERATION_GROWTH = 1.5;
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void operationsAreLinearInProjectSize() throws Exception {
+        SyntheticProject small = SyntheticProject.builder().workflows(SMALL_COUNTED).generate(temporaryFolder.newFolder("Small"));
+        SyntheticProject large = SyntheticProject.builder().workflows(LARGE_COUNTED).generate(temporaryFolder.newFolder("Large"));
+
+        long[] smallCounts = countOperations(small);
+        long[] largeCounts = countOperations(large);
+
+        // Every workflow, Main.xaml included, is parsed exactly once.
+        assertEquals(small.getWorkflowCount() + 1, smallCounts[0]);
+        assertEquals(large.getWorkflowCount() + 1, largeCounts[0]);
+
+        assertTrue(smallCounts[1] > 0);
+        double smallQueriesPerWorkflow = (double) smallCounts[1] / SMALL_COUNTED;
+        double largeQueriesPerWorkflow = (double) largeCounts[1] / LARGE_COUNTED;
+
+        assertTrue(String.format("%.1f XPath queries per workflow for %d workflows, %.1f for %d workflows",
+                smallQueriesPerWorkflow, SMALL_COUNTED, largeQueriesPerWorkflow, LARGE_COUNTED),
+            largeQueriesPerWorkflow <= smallQueriesPerWorkflow * MAX_OPERATION_GROWTH);
+    }
+
+    @Test
+    public void analysisTimeIsLinearInProjectSize() throws Exception {
+        assumeTrue("Set -Duipath.perf=true, or use the perf profile, to check analysis time.", Boolean.getBoolean("uipath.perf"));
+
+        SyntheticProject small = SyntheticProject.builder().workflows(SMALL).generate(temporaryFolder.newFolder("Small"));
+        SyntheticProject large = SyntheticProject.builder().workflows(LARGE).generate(temporaryFolder.newFolder("Large"));
+
+        // Warm up the JIT, so the small project isn't measured as interpreted code.
+        analyze(small.getDirectory(), small.getExpectedIssueCount());
+
+        double smallNanosPerWorkflow = (double) bestOf(3, small) / SMALL;
+        double largeNanosPerWorkflow = (double) bestOf(3, large) / LARGE;
+
+        assertTrue(String.format("%.0f us per workflow for %d workflows, %.0f us for %d workflows",
+                smallNanosPerWorkflow / 1000, SMALL, largeNanosPerWorkflow / 1000, LARGE),
+            largeNanosPerWorkflow <= smallNanosPerWorkflow * MAX_GROWTH);
+    }
+
+    /**
+     * Analyzes a project and returns the number of documents parsed and of XPath queries run.
+     */
+    private static long[] countOperations(SyntheticProject generated) throws Exception {
+        Project project = analyze(generated.getDirectory(), generated.getExpectedIssueCount());
+        return new long[] { project.getDocumentCache().getParseCount(), project.getQueryCount() };
+    }
+
+    private static long bestOf(int runs, SyntheticProject generated) throws Exception {
+        long best = Long.MAX_VALUE;
+
+        for(int i = 0; i < runs; i++){
+            long start = System.nanoTime();
+            analyze(generated.getDirectory(), generated.getExpectedIssueCount());
+            best = Math.min(best, System.nanoTime() - start);
+        }
+
+        return best;
+    }
+
+    private static Project analyze(File directory, int expectedIssueCount) throws Exception {
+        Project project = new Project(directory);
+
+        new CheckExecutor(1).execute(project, CheckRepository.getAllWorkflowChecks());
+        for(AbstractProjectCheck check : CheckRepository.getAllProjectChecks()){
+            check.execute(project);
+        }
+
+        assertEquals(expectedIssueCount, project.getIssueSink().getCount());
+        return project;
+    }
+}
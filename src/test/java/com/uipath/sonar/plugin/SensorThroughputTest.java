@@ -0,0 +1,201 @@
+package com.uipath.sonar.plugin;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.uipath.sonar.plugin.settings.UiPathLanguageProperties;
+import com.uipath.sonar.plugin.testprojects.SyntheticProject;
+import org.apache.commons.io.FileUtils;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.sonar.api.batch.fs.internal.TestInputFileBuilder;
+import org.sonar.api.batch.sensor.internal.SensorContextTester;
+
+import java.io.File;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.OperatingSystemMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * End-to-end throughput of the UiPathSensor on generated projects, from settings loading to saved issues.
+ *
+ * The test only runs when the uipath.perf system property is true, as set by the perf Maven profile. Each project
+ * size is analyzed once, after a warm-up run, and the wall time, CPU time, peak heap and issue rate are written to a
+ * JSON report, then compared with a baseline report: the test fails if any size got slower, or used more heap, by more
+ * than the threshold. Baselines depend on the machine, so none is committed: the test also fails when the baseline is
+ * missing, after writing the report, until one is recorded with uipath.perf.updateBaseline. Properties:
+ * - uipath.perf.sizes: the project sizes, in workflows. Defaults to 100,1000,10000.
+ * - uipath.perf.report: the report file. Defaults to target/perf/sensor-throughput.json.
+ * - uipath.perf.baseline: the baseline report. Defaults to src/test/perf/sensor-baseline.json.
+ * - uipath.perf.threshold: the allowed regression, as a fraction. Defaults to 0.25.
+ * - uipath.perf.updateBaseline: when true, the report replaces the baseline instead of being compared with it.
+ */
+public class SensorThroughputTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Before
+    public void setUp(){
+        assumeTrue("Set -Duipath.perf=true, or use the perf profile, to run the throughput harness.", Boolean.getBoolean("uipath.perf"));
+    }
+
+    @Test
+    public void sensorThroughput() throws Exception {
+        List<Integer> sizes = new ArrayList<>();
+        for(String size : System.getProperty("uipath.perf.sizes", "100,1000,10000").split(",")){
+            sizes.add(Integer.parseInt(size.trim()));
+        }
+
+        File reportFile = new File(System.getProperty("uipath.perf.report", "target/perf/sensor-throughput.json"));
+        File baselineFile = new File(System.getProperty("uipath.perf.baseline", "src/test/perf/sensor-baseline.json"));
+        double threshold = Double.parseDouble(System.getProperty("uipath.perf.threshold", "0.25"));
+
+        // Warm up the JIT on the smallest project, so the first size isn't measured as interpreted code.
+        run(generate(sizes.stream().min(Integer::compare).get()));
+
+        Report report = new Report();
+        for(int size : sizes){
+            report.runs.add(run(generate(size)));
+        }
+
+        write(report, reportFile);
+
+        if(Boolean.getBoolean("uipath.perf.updateBaseline")){
+            write(report, baselineFile);
+            return;
+        }
+
+        assertTrue("No baseline report at " + baselineFile.getAbsolutePath() + ", so regressions can't be checked. "
+            + "Record one on this machine with -Duipath.perf.updateBaseline=true, or point uipath.perf.baseline to one. "
+            + "This run was written to " + reportFile.getAbsolutePath() + ".", baselineFile.isFile());
+
+        List<String> regressions = report.compare(read(baselineFile), threshold);
+        assertTrue("Regressions against " + baselineFile + ":\n" + String.join("\n", regressions), regressions.isEmpty());
+    }
+
+    private SyntheticProject generate(int workflows) throws Exception {
+        return SyntheticProject.builder()
+            .workflows(workflows)
+            .generate(temporaryFolder.newFolder("Synthetic" + workflows + "_" + System.nanoTime()));
+    }
+
+    private Run run(SyntheticProject generated) throws Exception {
+        File baseDir = generated.getDirectory();
+        SensorContextTester context = SensorContextTester.create(baseDir);
+        context.fileSystem().setWorkDir(temporaryFolder.newFolder().toPath());
+        context.settings().setProperty(UiPathLanguageProperties.PROJECT_FILE_PREDICATE_KEY, UiPathLanguageProperties.PROJECT_FILE_PREDICATE_DEFAULT_VALUE);
+        context.settings().setProperty(UiPathLanguageProperties.WORKFLOW_FILE_PREDICATE_KEY, UiPathLanguageProperties.WORKFLOW_FILE_PREDICATE_DEFAULT_VALUE);
+
+        for(File file : FileUtils.listFiles(baseDir, new String[] {"xaml", "json"}, true)){
+            String contents = FileUtils.readFileToString(file, StandardCharsets.UTF_8);
+            context.fileSystem().add(TestInputFileBuilder.create("module", baseDir, file)
+                .setContents(contents)
+                .initMetadata(contents)
+                .setCharset(StandardCharsets.UTF_8)
+                .build());
+        }
+
+        System.gc();
+        List<MemoryPoolMXBean> heapPools = new ArrayList<>();
+        for(MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()){
+            if(pool.getType() == MemoryType.HEAP){
+                pool.resetPeakUsage();
+                heapPools.add(pool);
+            }
+        }
+
+        long cpuStart = processCpuNanos();
+        long wallStart = System.nanoTime();
+
+        new UiPathSensor().execute(context);
+
+        Run run = new Run();
+        run.workflows = generated.getWorkflowCount();
+        run.wallMillis = (System.nanoTime() - wallStart) / 1_000_000;
+        run.cpuMillis = cpuStart < 0 ? -1 : (processCpuNanos() - cpuStart) / 1_000_000;
+        run.peakHeapBytes = heapPools.stream().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum();
+        run.issues = context.allIssues().size();
+        run.issuesPerSecond = run.issues * 1000.0 / Math.max(run.wallMillis, 1);
+
+        // The sensor runs the checks of the default quality profile.
+        assertEquals(generated.getExpectedIssueCount(CheckRepository.getAllChecks()), run.issues);
+        return run;
+    }
+
+    /**
+     * Returns the CPU time used by every thread of the JVM, or -1 when the JVM doesn't report it.
+     */
+    private static long processCpuNanos(){
+        OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+        if(os instanceof com.sun.management.OperatingSystemMXBean){
+            return ((com.sun.management.OperatingSystemMXBean) os).getProcessCpuTime();
+        }
+        return -1;
+    }
+
+    private static void write(Report report, File file) throws Exception {
+        Files.createDirectories(file.getAbsoluteFile().getParentFile().toPath());
+        try(Writer writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)){
+            new GsonBuilder().setPrettyPrinting().create().toJson(report, writer);
+        }
+    }
+
+    private static Report read(File file) throws Exception {
+        try(Reader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)){
+            return new Gson().fromJson(reader, Report.class);
+        }
+    }
+
+    private static class Report {
+        String javaVersion = System.getProperty("java.version");
+        int availableProcessors = Runtime.getRuntime().availableProcessors();
+        long maxHeapBytes = Runtime.getRuntime().maxMemory();
+        List<Run> runs = new ArrayList<>();
+
+        /**
+         * Lists the measures that regressed past the threshold, for the sizes found in both reports.
+         */
+        List<String> compare(Report baseline, double threshold){
+            List<String> regressions = new ArrayList<>();
+
+            for(Run run : runs){
+                for(Run base : baseline.runs){
+                    if(base.workflows == run.workflows){
+                        compare(regressions, run.workflows, "wall time (ms)", run.wallMillis, base.wallMillis, threshold);
+                        compare(regressions, run.workflows, "CPU time (ms)", run.cpuMillis, base.cpuMillis, threshold);
+                        compare(regressions, run.workflows, "peak heap (bytes)", run.peakHeapBytes, base.peakHeapBytes, threshold);
+                    }
+                }
+            }
+
+            return regressions;
+        }
+
+        private static void compare(List<String> regressions, int workflows, String measure, long value, long baseline, double threshold){
+            if(value >= 0 && baseline > 0 && value > baseline * (1 + threshold)){
+                regressions.add(String.format("%d workflows: %s went from %d to %d", workflows, measure, baseline, value));
+            }
+        }
+    }
+
+    private static class Run {
+        int workflows;
+        long wallMillis;
+        long cpuMillis;
+        long peakHeapBytes;
+        int issues;
+        double issuesPerSecond;
+    }
+}
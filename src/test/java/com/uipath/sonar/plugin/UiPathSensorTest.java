@@ -0,0 +1,275 @@
+package com.uipath.sonar.plugin;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.uipath.sonar.plugin.checks.AvoidLogMessageCheck;
+import com.uipath.sonar.plugin.languages.UiPathLanguage;
+import com.uipath.sonar.plugin.settings.UiPathLanguageProperties;
+import org.apache.commons.io.FileUtils;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.sonar.api.batch.fs.InputFile;
+import org.sonar.api.batch.fs.internal.TestInputFileBuilder;
+import org.sonar.api.batch.rule.ActiveRules;
+import org.sonar.api.batch.rule.CheckFactory;
+import org.sonar.api.batch.rule.internal.ActiveRulesBuilder;
+import org.sonar.api.batch.sensor.internal.DefaultSensorDescriptor;
+import org.sonar.api.batch.sensor.internal.SensorContextTester;
+import org.sonar.api.rule.RuleKey;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+public class UiPathSensorTest {
+
+    private static final String BASE_DIR = "src/test/java/com/uipath/sonar/plugin/testprojects/InvokeWorkflowFileArgument";
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private File baseDir;
+    private SensorContextTester context;
+
+    @Before
+    public void setUp() throws Exception {
+        baseDir = new File(BASE_DIR).getAbsoluteFile();
+        context = SensorContextTester.create(baseDir);
+        context.fileSystem().setWorkDir(temporaryFolder.newFolder("work").toPath());
+        context.settings().setProperty(UiPathLanguageProperties.PROJECT_FILE_PREDICATE_KEY, UiPathLanguageProperties.PROJECT_FILE_PREDICATE_DEFAULT_VALUE);
+        context.settings().setProperty(UiPathLanguageProperties.WORKFLOW_FILE_PREDICATE_KEY, UiPathLanguageProperties.WORKFLOW_FILE_PREDICATE_DEFAULT_VALUE);
+    }
+
+    @Test
+    public void analyzeIndexedWorkflows() throws Exception {
+        for(File file : FileUtils.listFiles(baseDir, new String[] {"xaml", "json"}, false)){
+            context.fileSystem().add(inputFile(file));
+        }
+
+        UiPathSensor sensor = new UiPathSensor();
+        sensor.execute(context);
+
+        Collection<org.sonar.api.batch.sensor.issue.Issue> issues = context.allIssues();
+        assertFalse(issues.isEmpty());
+        assertEquals(sensor.getIssueSink().getCount(), issues.size());
+    }
+
+    @Test
+    public void workflowsThatAreNotIndexedAreNotAnalyzed() throws Exception {
+        for(File file : FileUtils.listFiles(baseDir, new String[] {"xaml", "json"}, false)){
+            if(!file.getName().startsWith("ShouldFail")){
+                context.fileSystem().add(inputFile(file));
+            }
+        }
+
+        new UiPathSensor().execute(context);
+
+        List<String> files = context.allIssues().stream()
+            .map(issue -> issue.primaryLocation().inputComponent().key())
+            .collect(Collectors.toList());
+
+        assertFalse(files.isEmpty());
+        assertTrue(files.stream().noneMatch(key -> key.contains("ShouldFail")));
+    }
+
+    @Test
+    public void analyzeEveryProjectInParallel() throws Exception {
+        File root = temporaryFolder.newFolder("repository");
+        File nested = new File(root, "Nested");
+        FileUtils.copyDirectory(baseDir, root);
+        FileUtils.copyDirectory(new File(baseDir.getParentFile(), "AvoidLogMessage"), nested);
+
+        int outerIssues = analyze(root, root, false);
+        int nestedIssues = analyze(nested, nested, false);
+        assertTrue(outerIssues > 0);
+        assertTrue(nestedIssues > 0);
+
+        context.settings().setProperty(UiPathLanguageProperties.ANALYSIS_THREADS_KEY, "4");
+        assertEquals(outerIssues + nestedIssues, analyze(root, root, true));
+    }
+
+    @Test
+    public void writeAnalysisProfile() throws Exception {
+        for(File file : FileUtils.listFiles(baseDir, new String[] {"xaml", "json"}, false)){
+            context.fileSystem().add(inputFile(file));
+        }
+        context.settings().setProperty(UiPathLanguageProperties.PROFILE_ENABLED_KEY, "true");
+
+        UiPathSensor sensor = new UiPathSensor();
+        sensor.execute(context);
+
+        File file = new File(context.fileSystem().workDir(), "uipath-profile.json");
+        assertTrue(file.isFile());
+
+        JsonObject profile = new JsonParser().parse(FileUtils.readFileToString(file, StandardCharsets.UTF_8)).getAsJsonObject();
+        long issues = 0;
+        for(JsonElement check : profile.getAsJsonArray("checks")){
+            issues += check.getAsJsonObject().get("issues").getAsLong();
+        }
+
+        assertEquals(context.allIssues().size(), issues);
+        assertEquals(CheckRepository.getAllChecks().size(), profile.getAsJsonArray("checks").size());
+        assertTrue(profile.getAsJsonArray("workflows").size() > 0);
+        assertTrue(profile.getAsJsonArray("queries").size() > 0);
+        assertTrue(sensor.getProfiler().getPhases().containsKey(AnalysisProfiler.Phase.PARSING));
+    }
+
+    @Test
+    public void profileIsNotWrittenByDefault() throws Exception {
+        for(File file : FileUtils.listFiles(baseDir, new String[] {"xaml", "json"}, false)){
+            context.fileSystem().add(inputFile(file));
+        }
+
+        UiPathSensor sensor = new UiPathSensor();
+        sensor.execute(context);
+
+        assertFalse(new File(context.fileSystem().workDir(), "uipath-profile.json").exists());
+        assertFalse(sensor.getProfiler().isEnabled());
+        assertTrue(sensor.getProfiler().getSlowestChecks(10).isEmpty());
+    }
+
+    @Test
+    public void cachesAreOptIn() throws Exception {
+        for(File file : FileUtils.listFiles(baseDir, new String[] {"xaml", "json"}, false)){
+            context.fileSystem().add(inputFile(file));
+        }
+
+        new UiPathSensor().execute(context);
+
+        assertFalse(new File(context.fileSystem().workDir(), "uipath-cache").exists());
+    }
+
+    @Test
+    public void executeActiveRulesOnly() throws Exception {
+        ActiveRules activeRules = new ActiveRulesBuilder()
+            .create(RuleKey.of(CheckRepository.REPOSITORY_KEY, "AvoidLogMessageCheck")).activate()
+            .build();
+
+        UiPathSensor sensor = new UiPathSensor(new CheckFactory(activeRules));
+        SensorContextTester tester = analyze(sensor, "AvoidLogMessage");
+
+        assertEquals(1, sensor.getActiveChecks().size());
+        assertTrue(sensor.getActiveChecks().get(0) instanceof AvoidLogMessageCheck);
+        assertFalse(tester.allIssues().isEmpty());
+        assertTrue(tester.allIssues().stream().allMatch(issue -> issue.ruleKey().rule().equals("AvoidLogMessageCheck")));
+    }
+
+    @Test
+    public void bindRuleParameters() throws Exception {
+        ActiveRules defaults = new ActiveRulesBuilder()
+            .create(RuleKey.of(CheckRepository.REPOSITORY_KEY, "VariableConventionCheck")).activate()
+            .build();
+        assertFalse(analyze(new UiPathSensor(new CheckFactory(defaults)), "ArgsAndVars").allIssues().isEmpty());
+
+        ActiveRules anyName = new ActiveRulesBuilder()
+            .create(RuleKey.of(CheckRepository.REPOSITORY_KEY, "VariableConventionCheck")).setParam("format", ".*").activate()
+            .build();
+        assertTrue(analyze(new UiPathSensor(new CheckFactory(anyName)), "ArgsAndVars").allIssues().isEmpty());
+    }
+
+    @Test
+    public void skipParsingWhenNoActiveCheckReadsDocuments() throws Exception {
+        ActiveRules activeRules = new ActiveRulesBuilder()
+            .create(RuleKey.of(CheckRepository.REPOSITORY_KEY, "WorkflowConventionCheck")).activate()
+            .create(RuleKey.of(CheckRepository.REPOSITORY_KEY, "ValidateMainWorkflowCheck")).activate()
+            .build();
+
+        UiPathSensor sensor = new UiPathSensor(new CheckFactory(activeRules));
+        SensorContextTester tester = analyze(sensor, "ArgsAndVars");
+
+        assertFalse(tester.allIssues().isEmpty());
+        assertTrue(sensor.getRequiredData().isEmpty());
+        assertEquals(0, sensor.getDocumentCache().getParseCount());
+    }
+
+    @Test
+    public void skipAnalysisWithoutActiveRules() throws Exception {
+        UiPathSensor sensor = new UiPathSensor(new CheckFactory(new ActiveRulesBuilder().build()));
+        SensorContextTester tester = analyze(sensor, "ArgsAndVars");
+
+        assertTrue(tester.allIssues().isEmpty());
+        assertNull(sensor.getDocumentCache());
+    }
+
+    @Test
+    public void describeLanguageAndRuleRepository(){
+        DefaultSensorDescriptor descriptor = new DefaultSensorDescriptor();
+        new UiPathSensor().describe(descriptor);
+
+        assertEquals(Collections.singletonList(UiPathLanguage.KEY), new ArrayList<>(descriptor.languages()));
+        assertEquals(Collections.singletonList(CheckRepository.REPOSITORY_KEY), new ArrayList<>(descriptor.ruleRepositories()));
+    }
+
+    @Test
+    public void skipModuleWithoutProject() throws Exception {
+        File moduleDir = temporaryFolder.newFolder("web");
+        File packageJson = new File(moduleDir, "package.json");
+        FileUtils.writeStringToFile(packageJson, "{ \"name\": \"web\" }", StandardCharsets.UTF_8);
+        context = SensorContextTester.create(moduleDir);
+        context.fileSystem().setWorkDir(temporaryFolder.newFolder("webwork").toPath());
+        context.fileSystem().add(inputFile(moduleDir, packageJson));
+
+        UiPathSensor sensor = new UiPathSensor();
+        sensor.execute(context);
+
+        assertTrue(context.allIssues().isEmpty());
+        assertNull(sensor.getDocumentCache());
+        assertFalse(new File(context.fileSystem().workDir(), "uipath-cache").exists());
+    }
+
+    /**
+     * Runs a sensor on a fresh context holding the XAML and project.json files of a test project.
+     */
+    private SensorContextTester analyze(UiPathSensor sensor, String testProject) throws Exception {
+        File moduleDir = new File(baseDir.getParentFile(), testProject);
+        SensorContextTester tester = SensorContextTester.create(moduleDir);
+        tester.setSettings(context.settings());
+        tester.fileSystem().setWorkDir(temporaryFolder.newFolder().toPath());
+
+        for(File file : FileUtils.listFiles(moduleDir, new String[] {"xaml", "json"}, false)){
+            tester.fileSystem().add(inputFile(moduleDir, file));
+        }
+
+        sensor.execute(tester);
+        return tester;
+    }
+
+    /**
+     * Runs the sensor on a fresh context holding the XAML and project.json files under the given directory.
+     */
+    private int analyze(File moduleDir, File directory, boolean recursive) throws Exception {
+        SensorContextTester tester = SensorContextTester.create(moduleDir);
+        tester.setSettings(context.settings());
+        tester.fileSystem().setWorkDir(temporaryFolder.newFolder().toPath());
+
+        for(File file : FileUtils.listFiles(directory, new String[] {"xaml", "json"}, recursive)){
+            tester.fileSystem().add(inputFile(moduleDir, file));
+        }
+
+        UiPathSensor sensor = new UiPathSensor();
+        sensor.execute(tester);
+        assertEquals(sensor.getIssueSink().getCount(), tester.allIssues().size());
+
+        return tester.allIssues().size();
+    }
+
+    private InputFile inputFile(File file) throws Exception {
+        return inputFile(baseDir, file);
+    }
+
+    private InputFile inputFile(File moduleDir, File file) throws Exception {
+        return TestInputFileBuilder.create("module", moduleDir, file)
+            .setContents(FileUtils.readFileToString(file, StandardCharsets.UTF_8))
+            .setCharset(StandardCharsets.UTF_8)
+            .build();
+    }
+}
@@ -1,6 +1,5 @@
 package com.uipath.sonar.plugin.checks;
 
-import com.uipath.sonar.plugin.Issues;
 import com.uipath.sonar.plugin.testprojects.LoadProject;
 import com.uipath.sonar.plugin.uipath.Project;
 import com.uipath.sonar.plugin.uipath.Workflow;
@@ -33,23 +32,23 @@ public class ArgumentConventionCheckTest {
     @Test
     public void execute() {
         check.executeIgnoreCommonExceptions(argsAndVars, main);
-        assertEquals(0, Issues.getCount());
-        Issues.clear();
+        assertEquals(0, argsAndVars.getIssueSink().getCount());
+        argsAndVars.getIssueSink().clear();
 
         check.execute(argsAndVars, allPascalCase);
-        assertEquals(0, Issues.getCount());
-        Issues.clear();
+        assertEquals(0, argsAndVars.getIssueSink().getCount());
+        argsAndVars.getIssueSink().clear();
 
         check.execute(argsAndVars, allCamelCase);
-        assertTrue(Issues.getCount() > 0);
-        Issues.clear();
+        assertTrue(argsAndVars.getIssueSink().getCount() > 0);
+        argsAndVars.getIssueSink().clear();
 
         /*check.execute(argsAndVars, allUpperCase);
-        assertTrue(Issues.getCount() > 0);
-        Issues.clear();*/
+        assertTrue(argsAndVars.getIssueSink().getCount() > 0);
+        argsAndVars.getIssueSink().clear();*/
 
         check.execute(argsAndVars, allLowerCase);
-        assertTrue(Issues.getCount() > 0);
-        Issues.clear();
+        assertTrue(argsAndVars.getIssueSink().getCount() > 0);
+        argsAndVars.getIssueSink().clear();
     }
 }
\ No newline at end of file
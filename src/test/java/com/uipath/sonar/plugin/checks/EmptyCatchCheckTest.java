@@ -1,6 +1,5 @@
 package com.uipath.sonar.plugin.checks;
 
-import com.uipath.sonar.plugin.Issues;
 import com.uipath.sonar.plugin.testprojects.LoadProject;
 import com.uipath.sonar.plugin.uipath.Project;
 import com.uipath.sonar.plugin.uipath.Workflow;
@@ -29,14 +28,14 @@ public class EmptyCatchCheckTest {
     @Test
     public void execute() {
         check.executeIgnoreCommonExceptions(project, main);
-        assertEquals(0, Issues.getCount());
+        assertEquals(0, project.getIssueSink().getCount());
 
         check.execute(project, shouldPass);
-        assertEquals(0, Issues.getCount());
+        assertEquals(0, project.getIssueSink().getCount());
 
         check.execute(project, shouldFail);
-        assertEquals(1, Issues.getCount());
+        assertEquals(1, project.getIssueSink().getCount());
 
-        Issues.clear();
+        project.getIssueSink().clear();
     }
 }
\ No newline at end of file
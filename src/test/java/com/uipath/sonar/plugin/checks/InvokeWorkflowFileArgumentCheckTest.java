@@ -1,6 +1,5 @@
 package com.uipath.sonar.plugin.checks;
 
-import com.uipath.sonar.plugin.Issues;
 import com.uipath.sonar.plugin.testprojects.LoadProject;
 import com.uipath.sonar.plugin.uipath.Project;
 import com.uipath.sonar.plugin.uipath.Workflow;
@@ -31,17 +30,17 @@ public class InvokeWorkflowFileArgumentCheckTest {
     @Test
     public void execute() {
         check.executeIgnoreCommonExceptions(project, main);
-        assertEquals(0, Issues.getCount());
+        assertEquals(0, project.getIssueSink().getCount());
 
         check.execute(project, shouldPass1);
-        assertEquals(0, Issues.getCount());
+        assertEquals(0, project.getIssueSink().getCount());
 
         check.execute(project, shouldFail1);
-        assertEquals(1, Issues.getCount());
-        Issues.clear();
+        assertEquals(1, project.getIssueSink().getCount());
+        project.getIssueSink().clear();
 
         check.execute(project, shouldFail2);
-        assertEquals(1, Issues.getCount());
-        Issues.clear();
+        assertEquals(1, project.getIssueSink().getCount());
+        project.getIssueSink().clear();
     }
 }
\ No newline at end of file
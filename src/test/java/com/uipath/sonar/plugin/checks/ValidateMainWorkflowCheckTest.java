@@ -1,7 +1,6 @@
 package com.uipath.sonar.plugin.checks;
 
 import com.uipath.sonar.plugin.Issue;
-import com.uipath.sonar.plugin.Issues;
 import com.uipath.sonar.plugin.testprojects.LoadProject;
 import com.uipath.sonar.plugin.uipath.Project;
 import org.junit.Before;
@@ -25,11 +24,9 @@ public class ValidateMainWorkflowCheckTest {
     @Test
     public void execute() {
         check.execute(shouldPass);
-        assertEquals(0, Issues.getCount());
+        assertEquals(0, shouldPass.getIssueSink().getCount());
 
         check.execute(shouldFail);
-        assertEquals(1, Issues.getCount());
-
-        Issues.clear();
+        assertEquals(1, shouldFail.getIssueSink().getCount());
     }
 }
\ No newline at end of file
@@ -1,6 +1,5 @@
 package com.uipath.sonar.plugin.checks;
 
-import com.uipath.sonar.plugin.Issues;
 import com.uipath.sonar.plugin.testprojects.LoadProject;
 import com.uipath.sonar.plugin.uipath.Project;
 import com.uipath.sonar.plugin.uipath.Workflow;
@@ -41,44 +40,44 @@ public class VariableConventionCheckTest {
 
     private void testCamelCase() throws IOException, DocumentException {
         check.executeIgnoreCommonExceptions(argsAndVars, main);
-        assertEquals(0, Issues.getCount());
+        assertEquals(0, argsAndVars.getIssueSink().getCount());
 
         check.execute(argsAndVars, allCamelCase);
-        assertEquals(0, Issues.getCount());
-        Issues.clear();
+        assertEquals(0, argsAndVars.getIssueSink().getCount());
+        argsAndVars.getIssueSink().clear();
 
         check.execute(argsAndVars, allPascalCase);
-        assertTrue(Issues.getCount() > 0);
-        Issues.clear();
+        assertTrue(argsAndVars.getIssueSink().getCount() > 0);
+        argsAndVars.getIssueSink().clear();
 
         check.execute(argsAndVars, allUpperCase);
-        assertTrue(Issues.getCount() > 0);
-        Issues.clear();
+        assertTrue(argsAndVars.getIssueSink().getCount() > 0);
+        argsAndVars.getIssueSink().clear();
 
         /* Commenting this out because this check is able to test a camelcase variable that is actually lowercase.
         check.execute(argsAndVars, allLowerCase);
-        assertTrue(Issues.getCount() > 0);
-        Issues.clear();*/
+        assertTrue(argsAndVars.getIssueSink().getCount() > 0);
+        argsAndVars.getIssueSink().clear();*/
     }
 
     private void testPascalCase(){
         check.overwriteProperty(VariableConventionCheck.VARIABLE_FORMAT_KEY, "^[A-Z][\\w\\d]*$");
 
         check.execute(argsAndVars, allPascalCase);
-        assertEquals(0, Issues.getCount());
-        Issues.clear();
+        assertEquals(0, argsAndVars.getIssueSink().getCount());
+        argsAndVars.getIssueSink().clear();
 
         check.execute(argsAndVars, allCamelCase);
-        assertTrue(Issues.getCount() > 0);
-        Issues.clear();
+        assertTrue(argsAndVars.getIssueSink().getCount() > 0);
+        argsAndVars.getIssueSink().clear();
 
         /* Commenting out - Uppercase will validate as PascalCase
         check.execute(argsAndVars, allUpperCase);
-        assertTrue(Issues.getCount() > 0);
-        Issues.clear();*/
+        assertTrue(argsAndVars.getIssueSink().getCount() > 0);
+        argsAndVars.getIssueSink().clear();*/
 
         check.execute(argsAndVars, allLowerCase);
-        assertTrue(Issues.getCount() > 0);
-        Issues.clear();
+        assertTrue(argsAndVars.getIssueSink().getCount() > 0);
+        argsAndVars.getIssueSink().clear();
     }
 }
\ No newline at end of file
@@ -1,6 +1,5 @@
 package com.uipath.sonar.plugin.checks;
 
-import com.uipath.sonar.plugin.Issues;
 import com.uipath.sonar.plugin.testprojects.LoadProject;
 import com.uipath.sonar.plugin.uipath.Project;
 import com.uipath.sonar.plugin.uipath.Workflow;
@@ -41,12 +40,12 @@ public class WorkflowConventionCheckTest {
         check.execute(project, ok1);
         check.execute(project, ok2);
         check.execute(project, ok3);
-        assertEquals(0, Issues.getCount());
+        assertEquals(0, project.getIssueSink().getCount());
 
         check.execute(project, notOk1);
         check.execute(project, notOk2);
         check.execute(project, notOk3);
-        assertEquals(3, Issues.getCount());
-        Issues.clear();
+        assertEquals(3, project.getIssueSink().getCount());
+        project.getIssueSink().clear();
     }
 }
\ No newline at end of file
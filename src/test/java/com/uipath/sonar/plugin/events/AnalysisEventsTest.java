@@ -0,0 +1,84 @@
+package com.uipath.sonar.plugin.events;
+
+import com.uipath.sonar.plugin.CheckExecutor;
+import com.uipath.sonar.plugin.CheckRepository;
+import com.uipath.sonar.plugin.testprojects.LoadProject;
+import com.uipath.sonar.plugin.uipath.Project;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+
+public class AnalysisEventsTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Before
+    public void setUp(){
+        assumeTrue("This JVM has no Flight Recorder.", AnalysisEvents.get().isAvailable());
+    }
+
+    @Test
+    public void recordEventsWithPackagedSettings() throws Exception {
+        Configuration configuration;
+        try(Reader reader = new InputStreamReader(AnalysisEvents.class.getResourceAsStream("uipath.jfc"), StandardCharsets.UTF_8)){
+            configuration = Configuration.create(reader);
+        }
+
+        Path file = temporaryFolder.newFile("uipath.jfr").toPath();
+
+        try(Recording recording = new Recording(configuration)){
+            // Record every query and check, however fast, so the test doesn't depend on the machine.
+            recording.enable("com.uipath.sonar.XPathQuery").withoutThreshold();
+            recording.enable("com.uipath.sonar.CheckExecution").withoutThreshold();
+            recording.start();
+
+            Project project = LoadProject.withPath("InvokeWorkflowFileArgument");
+            new CheckExecutor(1).execute(project, CheckRepository.getDefaultWorkflowChecks());
+            project.getIssueSink().drain();
+
+            recording.stop();
+            recording.dump(file);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        Set<String> names = events.stream().map(event -> event.getEventType().getName()).collect(Collectors.toSet());
+
+        assertTrue(names.contains("com.uipath.sonar.WorkflowParse"));
+        assertTrue(names.contains("com.uipath.sonar.XPathQuery"));
+        assertTrue(names.contains("com.uipath.sonar.CheckExecution"));
+        assertTrue(names.contains("com.uipath.sonar.IssueFlush"));
+
+        // The settings enable the UiPath events only.
+        assertTrue(names.stream().allMatch(name -> name.startsWith("com.uipath.sonar.")));
+
+        RecordedEvent parse = events.stream()
+            .filter(event -> event.getEventType().getName().equals("com.uipath.sonar.WorkflowParse"))
+            .findFirst().get();
+        assertTrue(parse.getString("workflow").endsWith(".xaml"));
+        assertTrue(parse.getInt("elements") > 0);
+        assertTrue(parse.getLong("bytes") > 0);
+
+        long issues = events.stream()
+            .filter(event -> event.getEventType().getName().equals("com.uipath.sonar.CheckExecution"))
+            .mapToLong(event -> event.getInt("issues"))
+            .sum();
+        assertTrue(issues > 0);
+    }
+}
@@ -0,0 +1,67 @@
+package com.uipath.sonar.plugin.languages;
+
+import com.uipath.sonar.plugin.UiPathPlugin;
+import com.uipath.sonar.plugin.settings.UiPathLanguageProperties;
+import org.junit.Test;
+import org.sonar.api.batch.bootstrap.ProjectDefinition;
+import org.sonar.api.batch.bootstrap.ProjectReactor;
+import org.sonar.api.batch.fs.FilePredicate;
+import org.sonar.api.batch.fs.internal.DefaultFileSystem;
+import org.sonar.api.batch.fs.internal.TestInputFileBuilder;
+import org.sonar.api.config.internal.MapSettings;
+
+import java.io.File;
+
+import static org.junit.Assert.*;
+
+@SuppressWarnings("deprecation")
+public class UiPathFilePatternsTest {
+
+    @Test
+    public void claimProjectJsonButNoOtherJsonFile(){
+        ProjectReactor reactor = reactor();
+        new UiPathFilePatterns(new MapSettings().asConfig()).build(() -> reactor);
+
+        for(ProjectDefinition module : reactor.getProjects()){
+            assertEquals("**/*.xaml,**/project.json", module.properties().get(UiPathLanguageProperties.LANGUAGE_PATTERNS_KEY));
+        }
+
+        String[] patterns = reactor.getRoot().properties().get(UiPathLanguageProperties.LANGUAGE_PATTERNS_KEY).split(",");
+        FilePredicate uipath = new DefaultFileSystem(new File(".")).predicates().matchesPathPatterns(patterns);
+
+        assertTrue(uipath.apply(TestInputFileBuilder.create("module", "Project/project.json").build()));
+        assertTrue(uipath.apply(TestInputFileBuilder.create("module", "Project/Main.xaml").build()));
+        assertFalse(uipath.apply(TestInputFileBuilder.create("module", "web/package.json").build()));
+        assertFalse(uipath.apply(TestInputFileBuilder.create("module", "Project/.local/nuget.cache.json").build()));
+    }
+
+    @Test
+    public void deriveFromFilePredicates(){
+        ProjectReactor reactor = reactor();
+        reactor.getRoot().setProperty(UiPathLanguageProperties.PROJECT_FILE_PREDICATE_KEY, "**/uipath.json");
+        MapSettings settings = new MapSettings().setProperty(UiPathLanguageProperties.WORKFLOW_FILE_PREDICATE_KEY, "Workflows/**/*.xaml");
+
+        new UiPathFilePatterns(settings.asConfig()).build(() -> reactor);
+
+        assertEquals("Workflows/**/*.xaml,**/uipath.json", reactor.getRoot().properties().get(UiPathLanguageProperties.LANGUAGE_PATTERNS_KEY));
+    }
+
+    @Test
+    public void keepConfiguredSuffixesAndPatterns(){
+        ProjectReactor reactor = reactor();
+        ProjectDefinition module = reactor.getRoot().getSubProjects().get(0);
+        module.setProperty(UiPathLanguageProperties.LANGUAGE_PATTERNS_KEY, "**/*.xaml");
+        MapSettings settings = new MapSettings().setProperty(UiPathPlugin.FILE_SUFFIXES_KEY, ".xaml,.json");
+
+        new UiPathFilePatterns(settings.asConfig()).build(() -> reactor);
+
+        assertNull(reactor.getRoot().properties().get(UiPathLanguageProperties.LANGUAGE_PATTERNS_KEY));
+        assertEquals("**/*.xaml", module.properties().get(UiPathLanguageProperties.LANGUAGE_PATTERNS_KEY));
+    }
+
+    private static ProjectReactor reactor(){
+        ProjectDefinition root = ProjectDefinition.create().setKey("root");
+        root.addSubProject(ProjectDefinition.create().setKey("module"));
+        return new ProjectReactor(root);
+    }
+}
@@ -0,0 +1,25 @@
+package com.uipath.sonar.plugin.languages;
+
+import com.uipath.sonar.plugin.UiPathPlugin;
+import org.junit.Test;
+import org.sonar.api.config.internal.MapSettings;
+
+import static org.junit.Assert.*;
+
+public class UiPathLanguageTest {
+
+    @Test
+    public void claimWorkflowsBySuffix(){
+        UiPathLanguage language = new UiPathLanguage(new MapSettings().asConfig());
+
+        assertArrayEquals(new String[] {".xaml"}, language.getFileSuffixes());
+    }
+
+    @Test
+    public void claimConfiguredSuffixes(){
+        MapSettings settings = new MapSettings().setProperty(UiPathPlugin.FILE_SUFFIXES_KEY, ".xaml, ,.json");
+        UiPathLanguage language = new UiPathLanguage(settings.asConfig());
+
+        assertArrayEquals(new String[] {".xaml", ".json"}, language.getFileSuffixes());
+    }
+}
@@ -0,0 +1,144 @@
+package com.uipath.sonar.plugin.naming;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+public class NamingConventionsTest {
+
+    private static final List<String> PATTERNS = Arrays.asList(
+        "^in_[A-Z][\\w\\d]+$",
+        "^out_[A-Z][\\w\\d]+$",
+        "^io_[A-Z][\\w\\d]+$",
+        "^[a-z][\\w\\d]*$",
+        "^[A-Z\\d_][\\d\\w_]*$",
+        "^.*(_|\\d)[a-z].*$",
+        "(?:str|int|dt)[A-Z]",
+        "^[^_\\s]+$",
+        "a{2,3}b?|c+d*",
+        "x{2}|y{2,}",
+        "^\\x41\\u0062[.\\-]",
+        "[\\W]$",
+        "^$",
+        "",
+        "b*?c"
+    );
+
+    private static final List<String> IDENTIFIERS = Arrays.asList(
+        "", "in_Name", "in_name", "out_Value1", "io_X", "io_Xy", "camelCase", "PascalCase", "Main_workflow",
+        "Process2a", "strName", "intCount", "dtTable", "has space", "_leading", "aab", "aaab", "cdd", "xx", "yyy",
+        "Ab.", "Ab-", "end!", "line\n", "tab\t", "ccc", "\u00e9t\u00e9", "a\uD83D\uDE00b"
+    );
+
+    private static final String ALPHABET = "aAbcdxy_1 .-\u00e9n\n";
+
+    @Test
+    public void classifyLikeFind() {
+        List<Pattern> patterns = PATTERNS.stream().map(Pattern::compile).collect(Collectors.toList());
+        NamingConventions conventions = NamingConventions.compile(patterns);
+
+        for(int i = 0; i < patterns.size(); i++){
+            assertTrue(PATTERNS.get(i), conventions.isLinear(i));
+        }
+
+        Random random = new Random(42);
+        List<String> identifiers = new ArrayList<>(IDENTIFIERS);
+        for(int i = 0; i < 500; i++){
+            StringBuilder identifier = new StringBuilder();
+            for(int length = random.nextInt(12); length > 0; length--){
+                identifier.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+            }
+            identifiers.add(identifier.toString());
+        }
+
+        for(String identifier : identifiers){
+            Classification classification = conventions.classify(identifier);
+
+            for(int i = 0; i < patterns.size(); i++){
+                assertEquals(PATTERNS.get(i) + " on '" + identifier + "'",
+                    patterns.get(i).matcher(identifier).find(), classification.matches(i));
+            }
+        }
+    }
+
+    @Test
+    public void catastrophicPatternIsLinear() {
+        NamingConventions conventions = NamingConventions.compile(Collections.singletonList(Pattern.compile("^(a+)+$")));
+        StringBuilder identifier = new StringBuilder();
+        for(int i = 0; i < 10_000; i++){
+            identifier.append('a');
+        }
+
+        assertTrue(conventions.isLinear(0));
+        assertTrue(conventions.classify(identifier).matches(0));
+        assertFalse(conventions.classify(identifier.append('b')).matches(0));
+    }
+
+    @Test
+    public void unsupportedPatternsFallBack() {
+        List<Pattern> patterns = Arrays.asList(
+            Pattern.compile("^(\\w)\\1"),
+            Pattern.compile("^[a-z]+(?=_)"),
+            Pattern.compile("(?i)^in_"),
+            null);
+        NamingConventions conventions = NamingConventions.compile(patterns);
+
+        assertFalse(conventions.isLinear(0));
+        assertFalse(conventions.isLinear(1));
+        assertFalse(conventions.isLinear(2));
+        assertFalse(conventions.isDefined(3));
+
+        Classification classification = conventions.classify("iin_Name");
+        assertTrue(classification.matches(0));
+        assertTrue(classification.matches(1));
+        assertFalse(classification.matches(2));
+        assertFalse(classification.matches(3));
+
+        assertTrue(conventions.classify("IN_name").matches(2));
+        assertFalse(conventions.classify("abc").matches(1));
+    }
+
+    @Test
+    public void fallbackIsTimeBounded() {
+        NamingConventions conventions = new NamingConventions(Collections.singletonList(Pattern.compile("^(a|a)*\\1b$")), 50);
+        StringBuilder identifier = new StringBuilder();
+        for(int i = 0; i < 40; i++){
+            identifier.append('a');
+        }
+
+        Classification classification = conventions.classify(identifier);
+        assertFalse(classification.matches(0));
+        assertTrue(classification.isUndetermined(0));
+    }
+
+    @Test
+    public void timeoutsAreBoundedAcrossIdentifiers() {
+        NamingConventions conventions = new NamingConventions(Arrays.asList(Pattern.compile("^(a|a)*\\1b$"), Pattern.compile("^a")), 50);
+        StringBuilder identifier = new StringBuilder();
+        for(int i = 0; i < 40; i++){
+            identifier.append('a');
+        }
+
+        long start = System.nanoTime();
+        for(int i = 0; i < 1000; i++){
+            Classification classification = conventions.classify(identifier);
+            assertTrue(classification.isUndetermined(0));
+            assertTrue(classification.matches(1));
+        }
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // Without the breaker, 1000 identifiers would take at least 50 s.
+        assertTrue(conventions.isTripped(0));
+        assertFalse(conventions.isTripped(1));
+        assertTrue("Classification took " + elapsedMillis + " ms", elapsedMillis < 5000);
+    }
+}
@@ -0,0 +1,492 @@
+package com.uipath.sonar.plugin.testprojects;
+
+import com.uipath.sonar.plugin.AbstractCheck;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+/**
+ * SyntheticProject generates UiPath projects of any size, for scale tests and benchmarks.
+ *
+ * A project has a project.json, a Main.xaml and the requested number of workflows, grouped in folders of 100. Each
+ * workflow declares arguments and variables, nests Sequence and If activities, invokes other workflows of the project
+ * with the arguments they declare, and has TryCatch blocks and designer ViewState sections of a configurable size.
+ *
+ * Each kind of rule violation is put in a workflow with the configured probability. The number of issues the checks
+ * should report is counted by rule key while generating, see getExpectedIssues. Generation is deterministic for a
+ * given seed.
+ */
+public final class SyntheticProject {
+
+    private static final String NAMESPACES =
+        " xmlns=\"http://schemas.microsoft.com/netfx/2009/xaml/activities\"" +
+        " xmlns:mc=\"http://schemas.openxmlformats.org/markup-compatibility/2006\"" +
+        " xmlns:s=\"clr-namespace:System;assembly=mscorlib\"" +
+        " xmlns:sap=\"http://schemas.microsoft.com/netfx/2009/xaml/activities/presentation\"" +
+        " xmlns:sap2010=\"http://schemas.microsoft.com/netfx/2010/xaml/activities/presentation\"" +
+        " xmlns:scg=\"clr-namespace:System.Collections.Generic;assembly=mscorlib\"" +
+        " xmlns:ui=\"http://schemas.uipath.com/workflow/activities\"" +
+        " xmlns:x=\"http://schemas.microsoft.com/winfx/2006/xaml\"";
+
+    private static final String[] DIRECTIONS = { "In", "Out", "InOut" };
+    private static final String[] PREFIXES = { "in_", "out_", "io_" };
+    private static final String[] TYPES = { "x:String", "x:Int32", "x:Boolean" };
+
+    private final File directory;
+    private final List<Signature> signatures;
+    private final Map<String, Integer> expectedIssues = new TreeMap<>();
+
+    private SyntheticProject(File directory, List<Signature> signatures){
+        this.directory = directory;
+        this.signatures = signatures;
+    }
+
+    public static Builder builder(){
+        return new Builder();
+    }
+
+    public File getDirectory(){
+        return directory;
+    }
+
+    /**
+     * Returns the number of generated workflows, not counting Main.xaml.
+     */
+    public int getWorkflowCount(){
+        return signatures.size();
+    }
+
+    public File getWorkflowFile(int index){
+        return new File(directory, signatures.get(index).path);
+    }
+
+    /**
+     * Returns the number of issues each check should report on the project, by rule key. Rules without violations
+     * are left out.
+     */
+    public Map<String, Integer> getExpectedIssues(){
+        return Collections.unmodifiableMap(expectedIssues);
+    }
+
+    /**
+     * Returns the total number of issues the checks should report on the project.
+     */
+    public int getExpectedIssueCount(){
+        return expectedIssues.values().stream().mapToInt(Integer::intValue).sum();
+    }
+
+    /**
+     * Returns the number of issues the given checks should report on the project.
+     */
+    public int getExpectedIssueCount(Collection<? extends AbstractCheck> checks){
+        return checks.stream().mapToInt(check -> expectedIssues.getOrDefault(check.getRuleKey().rule(), 0)).sum();
+    }
+
+    private void expect(String ruleKey, int count){
+        expectedIssues.merge(ruleKey, count, Integer::sum);
+    }
+
+    public static class Builder {
+        private int workflows = 100;
+        private long seed = 42;
+        private int maxDepth = 4;
+        private int maxInvocations = 3;
+        private int maxVariables = 5;
+        private int maxArguments = 4;
+        private int maxTryCatches = 2;
+        private int viewStateEntries = 10;
+        private double violationRate = 0.1;
+
+        private Builder(){}
+
+        public Builder workflows(int workflows){
+            this.workflows = workflows;
+            return this;
+        }
+
+        public Builder seed(long seed){
+            this.seed = seed;
+            return this;
+        }
+
+        /**
+         * The maximum number of nested Sequence and If activities in a workflow.
+         */
+        public Builder maxDepth(int maxDepth){
+            this.maxDepth = maxDepth;
+            return this;
+        }
+
+        /**
+         * The maximum number of other workflows a workflow invokes.
+         */
+        public Builder maxInvocations(int maxInvocations){
+            this.maxInvocations = maxInvocations;
+            return this;
+        }
+
+        public Builder maxVariables(int maxVariables){
+            this.maxVariables = maxVariables;
+            return this;
+        }
+
+        public Builder maxArguments(int maxArguments){
+            this.maxArguments = maxArguments;
+            return this;
+        }
+
+        public Builder maxTryCatches(int maxTryCatches){
+            this.maxTryCatches = maxTryCatches;
+            return this;
+        }
+
+        /**
+         * The number of entries in each ViewState dictionary. Studio writes one for most activities, and they make up
+         * a large part of real XAML files.
+         */
+        public Builder viewStateEntries(int viewStateEntries){
+            this.viewStateEntries = viewStateEntries;
+            return this;
+        }
+
+        /**
+         * The probability, from 0 to 1, that a workflow has each kind of rule violation.
+         */
+        public Builder violationRate(double violationRate){
+            this.violationRate = violationRate;
+            return this;
+        }
+
+        /**
+         * Writes the project to a directory, which is created if needed.
+         */
+        public SyntheticProject generate(File directory) throws IOException {
+            Random random = new Random(seed);
+            List<Signature> signatures = new ArrayList<>(workflows);
+
+            for(int i = 0; i < workflows; i++){
+                signatures.add(new Signature(i, random, this));
+            }
+
+            SyntheticProject project = new SyntheticProject(directory, signatures);
+
+            write(new File(directory, "project.json"), projectJson(directory.getName()));
+            write(new File(directory, "Main.xaml"), new WorkflowWriter(project, random, this, null).write());
+
+            for(Signature signature : signatures){
+                write(new File(directory, signature.path), new WorkflowWriter(project, random, this, signature).write());
+            }
+
+            return project;
+        }
+    }
+
+    /**
+     * The name, path and arguments of a workflow, decided before any workflow is written so callers can supply the
+     * arguments of the workflows they invoke.
+     */
+    private static class Signature {
+        private final String name;
+        private final String path;
+        private final List<String[]> arguments = new ArrayList<>();
+        private final boolean badName;
+        private final boolean badArgument;
+
+        Signature(int index, Random random, Builder builder){
+            badName = random.nextDouble() < builder.violationRate;
+            badArgument = random.nextDouble() < builder.violationRate;
+            name = String.format(badName ? "process_%05d" : "Process%05d", index);
+            path = String.format("Module%03d/%s.xaml", index / 100, name);
+
+            int count = random.nextInt(builder.maxArguments + 1);
+            for(int i = 0; i < count; i++){
+                int direction = random.nextInt(DIRECTIONS.length);
+                String argumentName = PREFIXES[direction] + (badArgument && i == 0 ? "value" : "Value" + i);
+                arguments.add(new String[] { argumentName, DIRECTIONS[direction], TYPES[random.nextInt(TYPES.length)] });
+            }
+        }
+
+        boolean hasBadArgument(){
+            return badArgument && !arguments.isEmpty();
+        }
+    }
+
+    private static class WorkflowWriter {
+        private final SyntheticProject project;
+        private final Random random;
+        private final Builder builder;
+        private final Signature signature;
+        private final StringBuilder xaml = new StringBuilder();
+        private int ids;
+
+        WorkflowWriter(SyntheticProject project, Random random, Builder builder, Signature signature){
+            this.project = project;
+            this.random = random;
+            this.builder = builder;
+            this.signature = signature;
+        }
+
+        String write(){
+            boolean isMain = signature == null;
+            String name = isMain ? "Main" : signature.name;
+            boolean annotated = isMain || !violates();
+
+            xaml.append("<Activity mc:Ignorable=\"sap sap2010\" x:Class=\"").append(name).append("\"").append(NAMESPACES).append(">\n");
+
+            if(!isMain && !signature.arguments.isEmpty()){
+                xaml.append("  <x:Members>\n");
+                for(String[] argument : signature.arguments){
+                    xaml.append("    <x:Property Name=\"").append(argument[0]).append("\" Type=\"").append(argument[1])
+                        .append("Argument(").append(argument[2]).append(")\" />\n");
+                }
+                xaml.append("  </x:Members>\n");
+            }
+
+            xaml.append("  <Sequence DisplayName=\"").append(name).append("\"");
+            if(annotated){
+                xaml.append(" sap2010:Annotation.AnnotationText=\"Generated workflow ").append(name).append("\"");
+            }
+            xaml.append(" sap2010:WorkflowViewState.IdRef=\"Sequence_").append(++ids).append("\">\n");
+
+            writeVariables(isMain);
+            writeViewState("    ");
+
+            List<String> activities = isMain ? mainActivities() : activities();
+            writeNested(activities, 1 + random.nextInt(Math.max(builder.maxDepth, 1)), "    ");
+
+            xaml.append("  </Sequence>\n")
+                .append("</Activity>\n");
+
+            if(!isMain){
+                if(signature.badName){
+                    project.expect("WorkflowConventionCheck", 1);
+                }
+                if(signature.hasBadArgument()){
+                    project.expect("ArgumentConventionCheck", 1);
+                }
+                if(!annotated){
+                    project.expect("WorkflowAnnotationCheck", 1);
+                }
+            }
+
+            return xaml.toString();
+        }
+
+        private boolean violates(){
+            return random.nextDouble() < builder.violationRate;
+        }
+
+        private void writeVariables(boolean isMain){
+            int count = 1 + random.nextInt(Math.max(builder.maxVariables, 1));
+            boolean badVariable = !isMain && violates();
+
+            xaml.append("    <Sequence.Variables>\n");
+            for(int i = 0; i < count; i++){
+                String variableName = badVariable && i == 0 ? "BadVariable" : "variable" + i;
+                xaml.append("      <Variable x:TypeArguments=\"").append(TYPES[random.nextInt(TYPES.length)])
+                    .append("\" Name=\"").append(variableName).append("\" />\n");
+            }
+            xaml.append("    </Sequence.Variables>\n");
+
+            if(badVariable){
+                project.expect("VariableConventionCheck", 1);
+            }
+        }
+
+        private void writeViewState(String indent){
+            xaml.append(indent).append("<sap:WorkflowViewStateService.ViewState>\n")
+                .append(indent).append("  <scg:Dictionary x:TypeArguments=\"x:String, x:Object\">\n");
+            for(int i = 0; i < builder.viewStateEntries; i++){
+                xaml.append(indent).append("    <x:Boolean x:Key=\"IsExpanded").append(i).append("\">True</x:Boolean>\n");
+            }
+            xaml.append(indent).append("  </scg:Dictionary>\n")
+                .append(indent).append("</sap:WorkflowViewStateService.ViewState>\n");
+        }
+
+        private List<String> mainActivities(){
+            List<String> activities = new ArrayList<>();
+            for(int i = 0; i < Math.min(project.signatures.size(), builder.maxInvocations); i++){
+                activities.add(invoke(project.signatures.get(i).path, project.signatures.get(i), false));
+            }
+            return activities;
+        }
+
+        private List<String> activities(){
+            List<String> activities = new ArrayList<>();
+            List<Signature> signatures = project.signatures;
+
+            for(int i = 0, count = random.nextInt(builder.maxInvocations + 1); i < count && !signatures.isEmpty(); i++){
+                Signature target = signatures.get(random.nextInt(signatures.size()));
+                boolean extraArgument = violates();
+                activities.add(invoke(target.path, target, extraArgument));
+
+                if(extraArgument){
+                    project.expect("InvokeWorkflowFileArgumentCheck", 1);
+                }
+            }
+
+            if(violates()){
+                activities.add(invoke("Missing/" + signature.name + ".xaml", null, false));
+                project.expect("InvokeWorkflowFileExistsCheck", 1);
+            }
+
+            if(violates()){
+                // An absolute path doesn't resolve to a workflow of the project either.
+                activities.add(invoke("C:/Workflows/" + signature.name + ".xaml", null, false));
+                project.expect("InvokeWorkflowFilePathCheck", 1);
+                project.expect("InvokeWorkflowFileExistsCheck", 1);
+            }
+
+            boolean emptyCatch = violates();
+            for(int i = 0, count = random.nextInt(builder.maxTryCatches + 1); i < count || (emptyCatch && i == 0); i++){
+                activities.add(tryCatch(emptyCatch && i == 0));
+            }
+            if(emptyCatch){
+                project.expect("EmptyCatchCheck", 1);
+            }
+
+            if(violates()){
+                activities.add("<ui:LogMessage DisplayName=\"Log Message\" Level=\"Info\" Message=\"[variable0.ToString]\" />\n");
+                project.expect("AvoidLogMessageCheck", 1);
+            }
+
+            if(violates()){
+                activities.add("<ui:GetPassword DisplayName=\"Get Password\" />\n");
+                project.expect("AvoidGetPasswordCheck", 1);
+            }
+
+            activities.add(assign(violates()));
+
+            Collections.shuffle(activities, random);
+            return activities;
+        }
+
+        private String invoke(String path, Signature target, boolean extraArgument){
+            StringBuilder invoke = new StringBuilder()
+                .append("<ui:InvokeWorkflowFile DisplayName=\"Invoke ").append(path).append("\" UnSafe=\"False\"")
+                .append(" sap2010:WorkflowViewState.IdRef=\"InvokeWorkflowFile_").append(++ids)
+                .append("\" WorkflowFileName=\"").append(path.replace('/', '\\')).append("\">\n")
+                .append("  <ui:InvokeWorkflowFile.Arguments>\n");
+
+            if(target != null){
+                for(String[] argument : target.arguments){
+                    invoke.append("    <").append(argument[1]).append("Argument x:TypeArguments=\"").append(argument[2])
+                        .append("\" x:Key=\"").append(argument[0]).append("\">[variable0]</").append(argument[1]).append("Argument>\n");
+                }
+            }
+
+            if(extraArgument){
+                invoke.append("    <InArgument x:TypeArguments=\"x:String\" x:Key=\"in_Unknown\">[variable0]</InArgument>\n");
+            }
+
+            return invoke.append("  </ui:InvokeWorkflowFile.Arguments>\n")
+                .append("</ui:InvokeWorkflowFile>\n")
+                .toString();
+        }
+
+        private String tryCatch(boolean empty){
+            StringBuilder tryCatch = new StringBuilder()
+                .append("<TryCatch DisplayName=\"Try Catch\" sap2010:WorkflowViewState.IdRef=\"TryCatch_").append(++ids).append("\">\n")
+                .append("  <TryCatch.Try>\n")
+                .append("    <WriteLine DisplayName=\"Write Line\" Text=\"[variable0.ToString]\" />\n")
+                .append("  </TryCatch.Try>\n")
+                .append("  <TryCatch.Catches>\n")
+                .append("    <Catch x:TypeArguments=\"s:Exception\">\n")
+                .append("      <ActivityAction x:TypeArguments=\"s:Exception\">\n")
+                .append("        <ActivityAction.Argument>\n")
+                .append("          <DelegateInArgument x:TypeArguments=\"s:Exception\" Name=\"exception\" />\n")
+                .append("        </ActivityAction.Argument>\n");
+
+            if(!empty){
+                tryCatch.append("        <Rethrow DisplayName=\"Rethrow\" />\n");
+            }
+
+            return tryCatch.append("      </ActivityAction>\n")
+                .append("    </Catch>\n")
+                .append("  </TryCatch.Catches>\n")
+                .append("</TryCatch>\n")
+                .toString();
+        }
+
+        private String assign(boolean currentDirectory){
+            if(currentDirectory){
+                project.expect("AvoidChangingCurrentDirectory", 1);
+            }
+
+            return "<Assign DisplayName=\"Assign\">\n" +
+                "  <Assign.To>\n" +
+                "    <OutArgument x:TypeArguments=\"x:String\">[" + (currentDirectory ? "Environment.CurrentDirectory" : "variable0") + "]</OutArgument>\n" +
+                "  </Assign.To>\n" +
+                "  <Assign.Value>\n" +
+                "    <InArgument x:TypeArguments=\"x:String\">[variable0 + \"_\"]</InArgument>\n" +
+                "  </Assign.Value>\n" +
+                "</Assign>\n";
+        }
+
+        /**
+         * Spreads the activities over nested containers, alternating Sequence and If activities.
+         */
+        private void writeNested(List<String> activities, int depth, String indent){
+            int here = depth <= 1 ? activities.size() : random.nextInt(activities.size() + 1);
+
+            for(String activity : activities.subList(0, here)){
+                for(String line : activity.split("\n")){
+                    xaml.append(indent).append(line).append("\n");
+                }
+            }
+
+            if(depth <= 1){
+                return;
+            }
+
+            List<String> rest = activities.subList(here, activities.size());
+
+            if(depth % 2 == 0){
+                xaml.append(indent).append("<If Condition=\"[variable0 IsNot Nothing]\" DisplayName=\"If\" sap2010:WorkflowViewState.IdRef=\"If_").append(++ids).append("\">\n")
+                    .append(indent).append("  <If.Then>\n")
+                    .append(indent).append("    <Sequence DisplayName=\"Then\" sap2010:WorkflowViewState.IdRef=\"Sequence_").append(++ids).append("\">\n");
+                writeViewState(indent + "      ");
+                writeNested(rest, depth - 1, indent + "      ");
+                xaml.append(indent).append("    </Sequence>\n")
+                    .append(indent).append("  </If.Then>\n")
+                    .append(indent).append("</If>\n");
+            }
+            else {
+                xaml.append(indent).append("<Sequence DisplayName=\"Nested\" sap2010:WorkflowViewState.IdRef=\"Sequence_").append(++ids).append("\">\n");
+                writeViewState(indent + "  ");
+                writeNested(rest, depth - 1, indent + "  ");
+                xaml.append(indent).append("</Sequence>\n");
+            }
+        }
+    }
+
+    private static String projectJson(String name){
+        return "{\n" +
+            "  \"name\": \"" + name + "\",\n" +
+            "  \"description\": \"Generated project\",\n" +
+            "  \"main\": \"Main.xaml\",\n" +
+            "  \"dependencies\": {\n" +
+            "    \"UiPath.System.Activities\": \"[19.4.0]\",\n" +
+            "    \"UiPath.UIAutomation.Activities\": \"[19.4.1]\"\n" +
+            "  },\n" +
+            "  \"schemaVersion\": \"3.2\",\n" +
+            "  \"studioVersion\": \"19.4.2.0\",\n" +
+            "  \"projectVersion\": \"1.0.0\",\n" +
+            "  \"projectType\": \"Workflow\"\n" +
+            "}\n";
+    }
+
+    private static void write(File file, String content) throws IOException {
+        Files.createDirectories(file.getParentFile().toPath());
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,75 @@
+package com.uipath.sonar.plugin.testprojects;
+
+import com.uipath.sonar.plugin.AbstractProjectCheck;
+import com.uipath.sonar.plugin.CheckExecutor;
+import com.uipath.sonar.plugin.CheckRepository;
+import com.uipath.sonar.plugin.Issue;
+import com.uipath.sonar.plugin.uipath.Project;
+import org.apache.commons.io.FileUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.Assert.*;
+
+public class SyntheticProjectTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void checksReportExpectedIssues() throws Exception {
+        SyntheticProject generated = SyntheticProject.builder()
+            .workflows(150)
+            .violationRate(0.3)
+            .generate(temporaryFolder.newFolder("Synthetic"));
+
+        Map<String, Integer> reported = analyze(new Project(generated.getDirectory()));
+
+        // Every rule has violations, except ValidateMainWorkflowCheck.
+        assertEquals(CheckRepository.getAllWorkflowChecks().size() + CheckRepository.getAllProjectChecks().size() - 1, generated.getExpectedIssues().size());
+        assertEquals(generated.getExpectedIssues(), reported);
+    }
+
+    @Test
+    public void noViolations() throws Exception {
+        SyntheticProject generated = SyntheticProject.builder()
+            .workflows(150)
+            .violationRate(0)
+            .generate(temporaryFolder.newFolder("Clean"));
+
+        Project project = new Project(generated.getDirectory());
+
+        assertEquals(151, project.getWorkflows().size());
+        assertEquals(0, generated.getExpectedIssueCount());
+        assertTrue(analyze(project).isEmpty());
+    }
+
+    @Test
+    public void sameSeedSameProject() throws Exception {
+        SyntheticProject first = SyntheticProject.builder().workflows(20).seed(7).generate(temporaryFolder.newFolder("First"));
+        SyntheticProject second = SyntheticProject.builder().workflows(20).seed(7).generate(temporaryFolder.newFolder("Second"));
+
+        assertEquals(first.getExpectedIssues(), second.getExpectedIssues());
+        assertEquals(
+            FileUtils.readFileToString(first.getWorkflowFile(19), StandardCharsets.UTF_8),
+            FileUtils.readFileToString(second.getWorkflowFile(19), StandardCharsets.UTF_8));
+    }
+
+    private static Map<String, Integer> analyze(Project project){
+        new CheckExecutor(1).execute(project, CheckRepository.getAllWorkflowChecks());
+        for(AbstractProjectCheck check : CheckRepository.getAllProjectChecks()){
+            check.execute(project);
+        }
+
+        Map<String, Integer> reported = new TreeMap<>();
+        for(Issue issue : project.getIssueSink().getIssues()){
+            reported.merge(issue.getRuleKey().rule(), 1, Integer::sum);
+        }
+        return reported;
+    }
+}
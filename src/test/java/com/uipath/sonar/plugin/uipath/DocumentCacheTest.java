@@ -0,0 +1,80 @@
+package com.uipath.sonar.plugin.uipath;
+
+import com.uipath.sonar.plugin.testprojects.LoadProject;
+import org.dom4j.Document;
+import org.dom4j.Element;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class DocumentCacheTest {
+
+    private Project argsAndVars;
+    private Workflow allCamelCase;
+    private Workflow allPascalCase;
+
+    @Before
+    public void setUp() throws Exception {
+        argsAndVars = LoadProject.withPath("ArgsAndVars");
+        allCamelCase = argsAndVars.getWorkflowNamed("allCamelCase").get();
+        allPascalCase = argsAndVars.getWorkflowNamed("AllPascalCase").get();
+    }
+
+    @Test
+    public void getParsesOnce() {
+        DocumentCache cache = new DocumentCache(0);
+
+        Document first = cache.get(allCamelCase);
+        Document second = cache.get(allCamelCase);
+
+        assertSame(first, second);
+        assertEquals(1, cache.getParseCount());
+        assertEquals(0, cache.getEvictionCount());
+    }
+
+    @Test
+    public void getEvictsLeastRecentlyUsed() {
+        // Enough for one of the ~4 KB documents, with the 8x size estimate used by the cache.
+        DocumentCache cache = new DocumentCache(40 * 1024);
+
+        Document camelCase = cache.get(allCamelCase);
+        cache.get(allPascalCase);
+
+        assertEquals(2, cache.getParseCount());
+        assertEquals(1, cache.getEvictionCount());
+
+        // The evicted document is still softly reachable (and strongly, from this test), so it is not parsed again.
+        assertSame(camelCase, cache.get(allCamelCase));
+        assertEquals(2, cache.getParseCount());
+        assertEquals(2, cache.getEvictionCount());
+    }
+
+    @Test
+    public void getLineOfHeldElementAfterEviction() {
+        DocumentCache cache = new DocumentCache(40 * 1024);
+
+        Element held = cache.get(allCamelCase).getRootElement().elements().get(1);
+        int line = cache.getLine(allCamelCase, held);
+        int column = cache.getColumn(allCamelCase, held);
+
+        // Evict the document from the budget, and let the collector clear it while the check still holds an element.
+        cache.get(allPascalCase);
+        cache.clearEvicted();
+
+        assertTrue(line > 0);
+        assertEquals(line, cache.getLine(allCamelCase, held));
+        assertEquals(column, cache.getColumn(allCamelCase, held));
+        assertEquals(2, cache.getParseCount());
+        assertEquals(0, cache.getReparseCount());
+    }
+
+    @Test
+    public void getXamlDocumentIsLazy() {
+        assertEquals(0, argsAndVars.getDocumentCache().getParseCount());
+
+        allCamelCase.getXamlDocument();
+
+        assertEquals(1, argsAndVars.getDocumentCache().getParseCount());
+    }
+}
@@ -0,0 +1,118 @@
+package com.uipath.sonar.plugin.uipath;
+
+import com.uipath.sonar.plugin.testprojects.LoadProject;
+import org.dom4j.Element;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+public class InvocationGraphTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void getInvocations() {
+        Project project = LoadProject.withPath("InvokeWorkflowFileArgument");
+        InvocationGraph graph = project.getInvocationGraph();
+        Workflow shouldPass = project.getWorkflowNamed("ShouldPass1").get();
+        Workflow invokeMe = project.getWorkflowNamed("InvokeMe").get();
+
+        List<Invocation> invocations = graph.getInvocations(shouldPass);
+        assertEquals(1, invocations.size());
+
+        Invocation invocation = invocations.get(0);
+        assertTrue(invocation.isLiteral());
+        assertEquals("InvokeMe.xaml", invocation.getPath());
+        assertEquals(invokeMe, invocation.getTarget().get());
+        assertEquals(invokeMe.getArguments().size(), invocation.getSuppliedArguments().size());
+        assertEquals("InvokeMe.xaml", invocation.getElement().attributeValue("WorkflowFileName"));
+        assertSame(invocations, graph.getInvocations(shouldPass));
+
+        assertEquals(3, graph.getFanIn(invokeMe));
+        assertEquals(1, graph.getFanOut(shouldPass));
+        assertEquals(Collections.singleton(invokeMe), graph.getReachable(shouldPass));
+        assertTrue(graph.getCycles().isEmpty());
+    }
+
+    @Test
+    public void getCycles() throws Exception {
+        File directory = temporaryFolder.newFolder("Cycles");
+        Files.write(new File(directory, "project.json").toPath(), "{ \"name\": \"Cycles\", \"main\": \"A.xaml\" }".getBytes(StandardCharsets.UTF_8));
+        writeWorkflow(directory, "A", "B.xaml");
+        writeWorkflow(directory, "B", "A.xaml", "[path]");
+        writeWorkflow(directory, "C", "C.xaml");
+        writeWorkflow(directory, "D", "A.xaml", "Missing.xaml");
+
+        Project project = new Project(directory);
+        InvocationGraph graph = project.getInvocationGraph();
+
+        List<String> cycles = graph.getCycles().stream()
+            .map(cycle -> cycle.stream().map(Workflow::getName).collect(Collectors.joining(",")))
+            .sorted()
+            .collect(Collectors.toList());
+
+        assertEquals(Arrays.asList("A,B", "C"), cycles);
+        assertTrue(graph.isInCycle(workflow(project, "A")));
+        assertFalse(graph.isInCycle(workflow(project, "D")));
+        assertEquals(2, graph.getReachable(workflow(project, "D")).size());
+        assertEquals(Arrays.asList(workflow(project, "B"), workflow(project, "D")), graph.getCallers(workflow(project, "A")));
+
+        List<Invocation> invocations = graph.getInvocations(workflow(project, "B"));
+        assertFalse(invocations.get(1).isLiteral());
+        assertFalse(invocations.get(1).getTarget().isPresent());
+        assertFalse(graph.getInvocations(workflow(project, "D")).get(1).getTarget().isPresent());
+    }
+
+    @Test
+    public void getElementFromIndex() throws Exception {
+        File directory = temporaryFolder.newFolder("Elements");
+        Files.write(new File(directory, "project.json").toPath(), "{ \"name\": \"Elements\", \"main\": \"A.xaml\" }".getBytes(StandardCharsets.UTF_8));
+        writeWorkflow(directory, "A", "B.xaml", "C.xaml", "B.xaml");
+        writeWorkflow(directory, "B");
+        writeWorkflow(directory, "C");
+
+        Project project = new Project(directory);
+        Workflow a = workflow(project, "A");
+        List<Invocation> invocations = project.getInvocationGraph().getInvocations(a);
+        List<Element> indexed = a.getElementIndex().getElements(XamlNamespaces.uipath("InvokeWorkflowFile"));
+
+        assertEquals(3, invocations.size());
+        for(Invocation invocation : invocations){
+            assertSame(indexed.get(invocation.getIndex()), invocation.getElement());
+        }
+        assertEquals("C.xaml", invocations.get(1).getElement().attributeValue("WorkflowFileName"));
+    }
+
+    private static Workflow workflow(Project project, String name){
+        return project.getWorkflowNamed(name).get();
+    }
+
+    private static void writeWorkflow(File directory, String name, String... invokedPaths) throws Exception {
+        StringBuilder xaml = new StringBuilder()
+            .append("<Activity x:Class=\"").append(name).append("\"")
+            .append(" xmlns=\"http://schemas.microsoft.com/netfx/2009/xaml/activities\"")
+            .append(" xmlns:ui=\"http://schemas.uipath.com/workflow/activities\"")
+            .append(" xmlns:x=\"http://schemas.microsoft.com/winfx/2006/xaml\">\n")
+            .append("  <Sequence>\n");
+
+        for(String invokedPath : invokedPaths){
+            xaml.append("    <ui:InvokeWorkflowFile DisplayName=\"Invoke ").append(invokedPath)
+                .append("\" WorkflowFileName=\"").append(invokedPath).append("\" />\n");
+        }
+
+        xaml.append("  </Sequence>\n</Activity>\n");
+
+        Files.write(new File(directory, name + ".xaml").toPath(), xaml.toString().getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,151 @@
+package com.uipath.sonar.plugin.uipath;
+
+import com.uipath.sonar.plugin.testprojects.LoadProject;
+import org.dom4j.Element;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class ParseCacheTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private File directory;
+    private File cacheDirectory;
+
+    @Before
+    public void setUp() throws Exception {
+        directory = LoadProject.withPath("InvokeWorkflowFileArgument").getDirectory();
+        cacheDirectory = temporaryFolder.newFolder("cache");
+    }
+
+    @Test
+    public void loadDocumentFromCache() throws Exception {
+        Project first = new Project(directory, 1, new ParseCache(cacheDirectory, 1024 * 1024, "test"));
+        for(Workflow workflow : first.getWorkflows()){
+            workflow.getXamlDocument();
+        }
+        assertTrue(first.getParseCache().toString().startsWith("0 hit(s)"));
+
+        ParseCache parseCache = new ParseCache(cacheDirectory, 1024 * 1024, "test");
+        Project second = new Project(directory, 1, parseCache);
+
+        for(int i = 0; i < first.getWorkflows().size(); i++){
+            Workflow expected = first.getWorkflows().get(i);
+            Workflow actual = second.getWorkflows().get(i);
+
+            assertEquals(expected.getContentHash(), actual.getContentHash());
+            assertEquals(expected.getArguments().toString(), actual.getArguments().toString());
+            assertEquals(expected.getXamlDocument().asXML(), actual.getXamlDocument().asXML());
+            assertEquals(
+                expected.getXamlDocument().selectNodes("//*").size(),
+                actual.getXamlDocument().selectNodes("//*").size());
+
+            List<Element> expectedElements = expected.getElementIndex().getElements(XamlNamespaces.ACTIVITIES);
+            List<Element> actualElements = actual.getElementIndex().getElements(XamlNamespaces.ACTIVITIES);
+            for(int j = 0; j < expectedElements.size(); j++){
+                assertEquals(expected.getLine(expectedElements.get(j)), actual.getLine(actualElements.get(j)));
+                assertEquals(expected.getColumn(expectedElements.get(j)), actual.getColumn(actualElements.get(j)));
+            }
+        }
+
+        assertTrue(parseCache.toString().startsWith(second.getWorkflows().size() + " hit(s), 0 miss(es)"));
+    }
+
+    @Test
+    public void corruptEntryIsParsedNormally() throws Exception {
+        Project first = new Project(directory, 1, new ParseCache(cacheDirectory, 1024 * 1024, "test"));
+        Workflow main = first.getWorkflowNamed("Main").get();
+        main.getXamlDocument();
+
+        for(File entry : cacheDirectory.listFiles()){
+            Files.write(entry.toPath(), "corrupt".getBytes(StandardCharsets.UTF_8));
+        }
+
+        ParseCache parseCache = new ParseCache(cacheDirectory, 1024 * 1024, "test");
+        Project second = new Project(directory, 1, parseCache);
+        Workflow secondMain = second.getWorkflowNamed("Main").get();
+
+        assertEquals(main.getXamlDocument().asXML(), secondMain.getXamlDocument().asXML());
+        assertTrue(parseCache.toString().endsWith("1 corrupt entr(y/ies) discarded"));
+    }
+
+    @Test
+    public void entryWithHugeLengthIsParsedNormally() throws Exception {
+        Workflow main = new Project(directory, 1, new ParseCache(cacheDirectory, 1024 * 1024, "test")).getWorkflowNamed("Main").get();
+        main.getXamlDocument();
+        File entry = cacheDirectory.listFiles()[0];
+
+        // A string, then a position count, that no entry of this size could hold.
+        writeEntry(entry, main.getContentHash(), out -> writeString(out, Integer.MAX_VALUE));
+        assertParsedNormally(main);
+
+        writeEntry(entry, main.getContentHash(), out -> {
+            DocumentCodec.writeVarInt(out, 1);  // ELEMENT
+            for(String part : new String[] { "", "Activity", "" }){
+                writeString(out, part.length());
+                out.write(part.getBytes(StandardCharsets.UTF_8));
+            }
+            DocumentCodec.writeVarInt(out, 0);  // No attribute
+            DocumentCodec.writeVarInt(out, 0);  // END of the element
+            DocumentCodec.writeVarInt(out, 0);  // END of the document
+            DocumentCodec.writeVarInt(out, Integer.MAX_VALUE / 2);
+        });
+        assertParsedNormally(main);
+    }
+
+    private void assertParsedNormally(Workflow workflow) throws Exception {
+        ParseCache parseCache = new ParseCache(cacheDirectory, 1024 * 1024, "test");
+        Workflow reloaded = new Project(directory, 1, parseCache).getWorkflowNamed(workflow.getName()).get();
+
+        assertEquals(workflow.getXamlDocument().asXML(), reloaded.getXamlDocument().asXML());
+        assertTrue(parseCache.toString().endsWith("1 corrupt entr(y/ies) discarded"));
+    }
+
+    private static void writeString(DataOutputStream out, int length) throws IOException {
+        DocumentCodec.writeVarInt(out, 0);  // A new string, rather than a reference
+        DocumentCodec.writeVarInt(out, length);
+    }
+
+    /**
+     * Writes a parse cache entry with a valid header and an empty signature, followed by the given document bytes.
+     */
+    private static void writeEntry(File entry, String contentHash, DocumentBody body) throws IOException {
+        try(DataOutputStream out = new DataOutputStream(Files.newOutputStream(entry.toPath()))){
+            out.writeInt(0x55495043);
+            out.writeInt(3);
+            out.writeUTF("test");
+            out.writeUTF(contentHash);
+            out.writeInt(0);
+            body.write(out);
+        }
+    }
+
+    private interface DocumentBody {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    @Test
+    public void prune() throws Exception {
+        Project project = new Project(directory, 1, new ParseCache(cacheDirectory, 0, "test"));
+        for(Workflow workflow : project.getWorkflows()){
+            workflow.getXamlDocument();
+        }
+        assertEquals(project.getWorkflows().size(), cacheDirectory.listFiles().length);
+
+        project.getParseCache().prune();
+
+        assertEquals(0, cacheDirectory.listFiles().length);
+    }
+}
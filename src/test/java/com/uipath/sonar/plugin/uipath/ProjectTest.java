@@ -4,14 +4,23 @@ import com.uipath.sonar.plugin.testprojects.LoadProject;
 import org.junit.After;
 import org.junit.Assert;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 import static org.junit.Assert.*;
 
 public class ProjectTest {
 
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
     private Project argsAndVars;
 
     @Before
@@ -64,4 +73,52 @@ public class ProjectTest {
         //optionalWorkflow = argsAndVars.getWorkflowWithPath("allCamelCase.xaml");
         //assertTrue(optionalWorkflow.isPresent());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void getWorkflowWithNormalisedPath() throws Exception {
+        File directory = temporaryFolder.newFolder("Nested");
+        File source = new File(argsAndVars.getDirectory(), "allCamelCase.xaml");
+
+        Files.write(new File(directory, "project.json").toPath(), "{ \"name\": \"Nested\", \"main\": \"Main.xaml\" }".getBytes(StandardCharsets.UTF_8));
+        Files.copy(source.toPath(), new File(directory, "Main.xaml").toPath());
+        Files.createDirectories(new File(directory, "Sub/Deeper").toPath());
+        Files.copy(source.toPath(), new File(directory, "Sub/Main.xaml").toPath());
+        Files.copy(source.toPath(), new File(directory, "Sub/Deeper/Child.xaml").toPath());
+
+        Project project = new Project(directory);
+        File subMain = new File(directory, "Sub/Main.xaml");
+
+        assertEquals(new File(directory, "Main.xaml"), project.getWorkflowWithPath("Main.xaml").get().getFile());
+        assertEquals(new File(directory, "Main.xaml"), project.getWorkflowWithPath(".\\Main.xaml").get().getFile());
+        assertEquals(subMain, project.getWorkflowWithPath("Sub\\Main.xaml").get().getFile());
+        assertEquals(subMain, project.getWorkflowWithPath(subMain.getAbsolutePath()).get().getFile());
+        assertTrue(project.getWorkflowWithPath("Deeper/Child.xaml").isPresent());
+        assertFalse(project.getWorkflowWithPath("Other/Child.xaml").isPresent());
+        assertFalse(project.getWorkflowWithPath("").isPresent());
+    }
+
+    @Test
+    public void getWorkflowsInParallel() throws Exception {
+        Project parallel = new Project(argsAndVars.getDirectory(), 4);
+
+        List<String> expected = argsAndVars.getWorkflows().stream().map(Workflow::getFileName).collect(Collectors.toList());
+        List<String> actual = parallel.getWorkflows().stream().map(Workflow::getFileName).collect(Collectors.toList());
+
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    public void invalidWorkflowIsSkipped() throws Exception {
+        File directory = temporaryFolder.newFolder("Broken");
+        File source = new File(argsAndVars.getDirectory(), "allCamelCase.xaml");
+
+        Files.write(new File(directory, "project.json").toPath(), "{ \"name\": \"Broken\", \"main\": \"Main.xaml\" }".getBytes(StandardCharsets.UTF_8));
+        Files.copy(source.toPath(), new File(directory, "Main.xaml").toPath());
+        Files.write(new File(directory, "Broken.xaml").toPath(), "Not a workflow".getBytes(StandardCharsets.UTF_8));
+
+        Project project = new Project(directory, 2);
+
+        assertEquals(1, project.getWorkflows().size());
+        assertTrue(project.getWorkflowNamed("Main").isPresent());
+    }
+}
@@ -0,0 +1,78 @@
+package com.uipath.sonar.plugin.uipath;
+
+import com.uipath.sonar.plugin.testprojects.LoadProject;
+import org.apache.commons.io.FileUtils;
+import org.dom4j.Element;
+import org.dom4j.Node;
+import org.dom4j.io.SAXReader;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+public class WorkflowSignatureReaderTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void readMatchesDocument() throws Exception {
+        for(String path : new String[] { "ArgsAndVars", "InvokeWorkflowFileArgument", "WorkflowAnnotation" }){
+            Project project = LoadProject.withPath(path);
+
+            for(Workflow workflow : project.getWorkflows()){
+                List<Node> nodes = workflow.getXamlDocument().selectNodes("xa:Activity/x:Members/x:Property");
+
+                List<String> expected = nodes.stream()
+                    .map(node -> WorkflowArgument.fromElement((Element)node))
+                    .filter(Optional::isPresent)
+                    .map(arg -> arg.get().toString() + " " + arg.get().getRawXml())
+                    .collect(Collectors.toList());
+
+                List<String> actual = WorkflowSignatureReader.read(workflow.getFile()).getArguments().stream()
+                    .map(arg -> arg.toString() + " " + arg.getRawXml())
+                    .collect(Collectors.toList());
+
+                assertEquals(workflow.getFileName(), expected, actual);
+            }
+        }
+    }
+
+    @Test
+    public void read() throws Exception {
+        Workflow allCamelCase = LoadProject.withPath("ArgsAndVars").getWorkflowNamed("allCamelCase").get();
+
+        WorkflowSignature signature = WorkflowSignatureReader.read(allCamelCase.getFile());
+
+        assertEquals(allCamelCase.getPath(), signature.getPath());
+        assertEquals(3, signature.getArguments().size());
+        assertEquals("in_camelCaseArg", signature.getArguments().get(0).getName());
+        assertEquals(WorkflowArgument.Direction.InOut, signature.getArguments().get(1).getDirection());
+        assertEquals("x:Object", signature.getArguments().get(2).getArgType());
+    }
+
+    @Test
+    public void readRawXmlOfProperty() throws Exception {
+        File file = temporaryFolder.newFile("Escaped.xaml");
+        FileUtils.writeStringToFile(file,
+            "<Activity xmlns=\"http://schemas.microsoft.com/netfx/2009/xaml/activities\">\n" +
+            "  <Members xmlns=\"http://schemas.microsoft.com/winfx/2006/xaml\">\n" +
+            "    <Property Name=\"in_Query\" Type=\"InArgument(String)\" Note=\"a &lt; b &amp; &quot;c&quot;\">\n" +
+            "      <Property.Attributes><!-- required --></Property.Attributes>\n" +
+            "    </Property>\n" +
+            "  </Members>\n" +
+            "</Activity>", StandardCharsets.UTF_8);
+
+        Element property = new SAXReader().read(file).getRootElement().element("Members").element("Property");
+        WorkflowArgument argument = WorkflowSignatureReader.read(file).getArguments().get(0);
+
+        assertEquals(property.asXML(), argument.getRawXml());
+    }
+}
@@ -0,0 +1,43 @@
+package com.uipath.sonar.plugin.uipath;
+
+import org.junit.Test;
+
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class WorkflowSignatureTest {
+
+    private final WorkflowSignature signature = new WorkflowSignature(Paths.get("InvokeMe.xaml"), Arrays.asList(
+        new WorkflowArgument("<x:Property />", "in_String", "InArgument(x:String)", "x:String", WorkflowArgument.Direction.In),
+        new WorkflowArgument("<x:Property />", "out_List", "OutArgument(scg:List(x:String))", "scg:List(x:String)", WorkflowArgument.Direction.Out)));
+
+    @Test
+    public void argumentsMatchOnNameDirectionAndType() {
+        WorkflowArgument supplied = new WorkflowArgument(new String("in_String"), "x:String", WorkflowArgument.Direction.In);
+
+        assertEquals(signature.getArguments().get(0), supplied);
+        assertEquals(signature.getArguments().get(0).hashCode(), supplied.hashCode());
+        assertTrue(signature.declares(supplied));
+        assertTrue(signature.declares(new WorkflowArgument("out_List", "scg:List( x:String )", WorkflowArgument.Direction.Out)));
+        assertFalse(signature.declares(new WorkflowArgument("in_String", "x:String", WorkflowArgument.Direction.InOut)));
+        assertFalse(signature.declares(new WorkflowArgument("in_String", "x:Int32", WorkflowArgument.Direction.In)));
+    }
+
+    @Test
+    public void diff() {
+        List<WorkflowArgument> supplied = Collections.unmodifiableList(Arrays.asList(
+            new WorkflowArgument("in_String", "x:String", WorkflowArgument.Direction.In),
+            new WorkflowArgument("in_Extra", "x:String", WorkflowArgument.Direction.In)));
+
+        SignatureDiff diff = signature.diff(supplied);
+
+        assertEquals(Collections.singletonList(supplied.get(1)), diff.getExtraArguments());
+        assertEquals(Collections.singletonList(signature.getArguments().get(1)), diff.getMissingArguments());
+        assertSame(diff, signature.diff(Arrays.asList(supplied.get(0), supplied.get(1))));
+        assertTrue(signature.diff(signature.getArguments()).isEmpty());
+    }
+}
@@ -2,6 +2,7 @@ package com.uipath.sonar.plugin.uipath;
 
 import com.uipath.sonar.plugin.testprojects.LoadProject;
 import org.dom4j.Document;
+import org.dom4j.Element;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -31,6 +32,33 @@ public class WorkflowTest {
         assertNotNull(doc.getRootElement());
     }
 
+    @Test
+    public void getElementIndex() {
+        Project project = LoadProject.withPath("WorkflowAnnotation");
+        ElementIndex withAnnotations = project.getWorkflowNamed("ShouldPass").get().getElementIndex();
+        ElementIndex withoutNamespace = project.getWorkflowNamed("ShouldFailNoNamespace").get().getElementIndex();
+
+        assertTrue(withAnnotations.usesNamespace(XamlNamespaces.PRESENTATION));
+        assertFalse(withoutNamespace.usesNamespace(XamlNamespaces.PRESENTATION));
+        assertTrue(withoutNamespace.getElements(XamlNamespaces.PRESENTATION).isEmpty());
+        assertTrue(withoutNamespace.getElements(XamlNamespaces.uipath("LogMessage")).isEmpty());
+
+        Document doc = allCamelCase.getXamlDocument();
+        assertEquals(doc.getRootElement(), allCamelCase.getElementIndex().getElements(XamlNamespaces.ACTIVITIES).get(0));
+        assertEquals(1, allCamelCase.getElementIndex().getElements(doc.getRootElement().getQName()).size());
+    }
+
+    @Test
+    public void getLine() {
+        Workflow shouldPass = LoadProject.withPath("InvokeWorkflowFileArgument").getWorkflowNamed("ShouldPass1").get();
+        Element invoke = shouldPass.getElementIndex().getElements(XamlNamespaces.uipath("InvokeWorkflowFile")).get(0);
+
+        assertEquals(56, shouldPass.getLine(invoke));
+        assertEquals(249, shouldPass.getColumn(invoke));
+        assertEquals(1, shouldPass.getLine(shouldPass.getXamlDocument().getRootElement()));
+        assertEquals(0, shouldPass.getLine(allCamelCase.getXamlDocument().getRootElement()));
+    }
+
     @Test
     public void getProject() {
         assertEquals(argsAndVars, allCamelCase.getProject());
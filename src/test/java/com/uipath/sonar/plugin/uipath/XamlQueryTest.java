@@ -0,0 +1,32 @@
+package com.uipath.sonar.plugin.uipath;
+
+import com.uipath.sonar.plugin.testprojects.LoadProject;
+import org.dom4j.Document;
+import org.dom4j.DocumentHelper;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class XamlQueryTest {
+
+    @Test
+    public void selectNodes() {
+        Project project = LoadProject.withPath("InvokeWorkflowFileArgument");
+        Workflow workflow = project.getWorkflowNamed("ShouldPass1").get();
+        XamlQuery query = XamlQuery.compile("//ui:InvokeWorkflowFile");
+
+        assertEquals(1, query.selectNodes(workflow).size());
+        assertNotNull(query.selectSingleNode(workflow.getXamlDocument()));
+        assertEquals(2, project.getQueryCount());
+    }
+
+    @Test
+    public void selectNodesWithUndeclaredPrefix() throws Exception {
+        Document document = DocumentHelper.parseText(
+            "<Activity xmlns=\"http://schemas.microsoft.com/netfx/2009/xaml/activities\"><Sequence /></Activity>");
+        XamlQuery query = XamlQuery.compile("/xa:Activity/*[@sap2010:Annotation.AnnotationText] | //ui:LogMessage");
+
+        assertTrue(query.selectNodes(document).isEmpty());
+        assertEquals(1, XamlQuery.compile("/xa:Activity/xa:Sequence").selectNodes(document).size());
+    }
+}